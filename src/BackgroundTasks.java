@@ -0,0 +1,236 @@
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the GUI's database work on background threads and hands each result back to the event
+ * dispatch thread, so a slow query never freezes the window.
+ *
+ * <p>Loads are given a key. Submitting another task with the same key cancels the one still
+ * running, so only the newest load for a view ever renders. A cancelled task's result is
+ * dropped even if its query has already finished. Writes are submitted without a key, so
+ * nothing but an explicit cancel of that task stops them. All bookkeeping happens on the EDT, so every
+ * method here must be called from it.
+ *
+ * <p>At most {@code threads} tasks run at once and the rest queue. That matches the number of
+ * queries the database can serve concurrently, so a burst of loads doesn't pile up on the
+ * connection pool.
+ */
+final class BackgroundTasks {
+
+    /** Told on the EDT whenever the number of running tasks changes. */
+    interface BusyListener {
+        void busyChanged(int running, String latest);
+    }
+
+    /** A submitted task, as handed back to the caller. */
+    static final class Task {
+        final String key;
+        final String description;
+        Future<?> future;
+        boolean cancelled;
+        boolean ended;
+        private final List<Runnable> onEnd = new ArrayList<>(1);
+
+        Task(String key, String description) {
+            this.key = key;
+            this.description = description;
+        }
+
+        /**
+         * Runs {@code action} on the EDT when the task ends, however it ends (cancellation
+         * included), after any result callback. Use it to re-enable controls the task disabled.
+         */
+        Task whenEnded(Runnable action) {
+            if (ended) {
+                action.run();
+            } else {
+                onEnd.add(action);
+            }
+            return this;
+        }
+
+        private void ended() {
+            ended = true;
+            for (Runnable action : onEnd) {
+                action.run();
+            }
+            onEnd.clear();
+        }
+    }
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final ThreadPoolExecutor workers;
+    private final Set<Task> active = new LinkedHashSet<>();
+    private final BusyListener listener;
+
+    BackgroundTasks(BusyListener listener, int threads) {
+        this.listener = listener;
+        this.workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "ui-db-worker-" + THREAD_NUMBER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // Idle threads go away between bursts.
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs {@code work} off the EDT, then calls {@code onSuccess} or {@code onFailure} on the
+     * EDT unless the task was cancelled first. A null {@code onFailure} just logs the error.
+     */
+    <T> Task submit(String key, String description, Callable<T> work,
+                    Consumer<? super T> onSuccess, Consumer<? super Exception> onFailure) {
+        if (key != null) {
+            cancel(key);
+        }
+        Task task = new Task(key, description);
+        active.add(task);
+        task.future = workers.submit(() -> {
+            T result = null;
+            Exception error = null;
+            try {
+                result = work.call();
+            } catch (Throwable t) {
+                // Errors too: finish must run, or the task stays active and the busy indicator never clears.
+                error = t instanceof Exception ? (Exception) t : new ExecutionException(t);
+            }
+            T value = result;
+            Exception failure = error;
+            SwingUtilities.invokeLater(() -> finish(task, value, failure, onSuccess, onFailure));
+        });
+        fireBusyChanged();
+        return task;
+    }
+
+    /** Cancels the running task with this key, if there is one. */
+    void cancel(String key) {
+        for (Task task : new ArrayList<>(active)) {
+            if (key.equals(task.key)) {
+                cancel(task);
+            }
+        }
+    }
+
+    /**
+     * Cancels every running task that has a key, e.g. on logout. Keyless tasks are writes and
+     * are left to finish, so a queued save isn't dropped.
+     */
+    void cancelLoads() {
+        for (Task task : new ArrayList<>(active)) {
+            if (task.key != null) {
+                cancel(task);
+            }
+        }
+    }
+
+    /**
+     * Waits, without blocking the EDT, for every task in {@code group} to end. Then it calls
+     * {@code onDone}. If {@code timeout} passes first, the tasks still running are cancelled and
+     * handed to {@code onTimeout} instead. Exactly one of the two is called.
+     */
+    void join(List<Task> group, Duration timeout, Runnable onDone, Consumer<List<Task>> onTimeout) {
+        int[] remaining = {0};
+        boolean[] settled = {false};
+        Timer timer = new Timer((int) Math.min(Integer.MAX_VALUE, timeout.toMillis()), null);
+        timer.setRepeats(false);
+        Runnable countDown = () -> {
+            if (--remaining[0] == 0 && !settled[0]) {
+                settled[0] = true;
+                timer.stop();
+                onDone.run();
+            }
+        };
+        timer.addActionListener(e -> {
+            if (settled[0]) {
+                return;
+            }
+            settled[0] = true;
+            List<Task> late = new ArrayList<>();
+            for (Task task : group) {
+                if (!task.ended) {
+                    late.add(task);
+                }
+            }
+            for (Task task : late) {
+                cancel(task);
+            }
+            onTimeout.accept(late);
+        });
+        for (Task task : group) {
+            if (!task.ended) {
+                remaining[0]++;
+            }
+        }
+        if (remaining[0] == 0) {
+            onDone.run();
+            return;
+        }
+        for (Task task : group) {
+            if (!task.ended) {
+                task.whenEnded(countDown);
+            }
+        }
+        timer.start();
+    }
+
+    boolean isRunning(String key) {
+        for (Task task : active) {
+            if (key.equals(task.key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cancel(Task task) {
+        task.cancelled = true;
+        // Not interrupted: that can't stop a JDBC call, and it would only make the task's next
+        // connection borrow throw. The result is dropped either way.
+        task.future.cancel(false);
+        active.remove(task);
+        fireBusyChanged();
+        task.ended();
+    }
+
+    private <T> void finish(Task task, T value, Exception failure,
+                            Consumer<? super T> onSuccess, Consumer<? super Exception> onFailure) {
+        if (task.cancelled) {
+            return;
+        }
+        active.remove(task);
+        fireBusyChanged();
+        try {
+            if (failure == null) {
+                onSuccess.accept(value);
+            } else if (onFailure != null) {
+                onFailure.accept(failure);
+            } else {
+                System.err.println("Error " + task.description.toLowerCase() + ": " + failure.getMessage());
+            }
+        } finally {
+            task.ended();
+        }
+    }
+
+    private void fireBusyChanged() {
+        String latest = null;
+        for (Task task : active) {
+            latest = task.description;
+        }
+        listener.busyChanged(active.size(), latest);
+    }
+}
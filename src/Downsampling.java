@@ -0,0 +1,61 @@
+/**
+ * Cuts a long series down to a few points that still look like it when drawn, using
+ * Largest-Triangle-Three-Buckets (Steinarsson, 2013). The first and last points are kept.
+ * The rest are split into equal buckets, and from each bucket the point is kept that makes
+ * the largest triangle with the previous kept point and the average of the next bucket.
+ * Peaks and dips survive, which plain every-nth sampling would drop. Runs in O(n).
+ */
+final class Downsampling {
+
+    private Downsampling() {}
+
+    /**
+     * The indices of at most {@code threshold} points to draw, in order. {@code x} must be
+     * ascending. With {@code threshold} below 3 or no smaller than the series, every index is returned.
+     */
+    static int[] lttb(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold < 3 || threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] picked = new int[threshold];
+        // Bucket size for everything but the first and last point.
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        picked[0] = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // The average of the next bucket stands in for the point not chosen yet.
+            int avgFrom = (int) ((bucket + 1) * every) + 1;
+            int avgTo = Math.min((int) ((bucket + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgFrom; j < avgTo; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            avgX /= avgTo - avgFrom;
+            avgY /= avgTo - avgFrom;
+
+            int from = (int) (bucket * every) + 1;
+            int to = (int) ((bucket + 1) * every) + 1;
+            double maxArea = -1;
+            int next = from;
+            for (int j = from; j < to; j++) {
+                // Twice the triangle's area; only the comparison matters.
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            picked[bucket + 1] = next;
+            a = next;
+        }
+        picked[threshold - 1] = n - 1;
+        return picked;
+    }
+}
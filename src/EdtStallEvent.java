@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event emitted each time the watchdog samples a stalled event dispatch
+ * thread. Enabled by default in any recording, since it only fires when the UI is stuck.
+ * The stack is the EDT's, not the sampler's, so it is a field rather than the event's trace.
+ */
+@Name("ui.EdtStall")
+@Label("EDT Stall")
+@Category({"Smart Fitness", "UI"})
+@Description("The event dispatch thread has been busy with one event for longer than the stall threshold")
+@StackTrace(false)
+final class EdtStallEvent extends jdk.jfr.Event {
+    @Label("Event")
+    String event;
+
+    @Label("Busy For")
+    @Timespan(Timespan.NANOSECONDS)
+    long busyFor;
+
+    @Label("Sample")
+    int sample;
+
+    @Label("EDT Stack")
+    String stack;
+}
@@ -0,0 +1,181 @@
+import java.awt.AWTEvent;
+import java.awt.ActiveEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.InputEvent;
+import java.awt.event.InvocationEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.PaintEvent;
+
+/**
+ * Times every event the event dispatch thread handles and reports the ones that stall it.
+ *
+ * <p>Each event's time goes to {@link UiMetrics} as {@code edt.<kind>} (invocation, mouse, key,
+ * paint, input or other). A sampler thread checks on the EDT every half threshold. Once an event has
+ * held it for {@code ui.stallThresholdMs} (default 200), the sampler takes the EDT's stack, up to
+ * five times per event. Each sample goes to the UI log and to Flight Recorder as an
+ * {@link EdtStallEvent}, so a real hang is caught while it is still hanging. When the event
+ * finally ends, its total time is logged too.
+ *
+ * <p>A modal dialog runs a nested event loop inside the event that opened it. That event's
+ * total is left out of the histograms, since it mostly measures how long the dialog stayed open.
+ */
+final class EdtWatchdog extends EventQueue {
+    private static final int MAX_SAMPLES_PER_EVENT = 5;
+    private static final int MAX_FRAMES = 40;
+
+    private final long thresholdNanos;
+    // Written on the EDT, read by the sampler.
+    private volatile Thread edt;
+    private volatile AWTEvent busyWith;
+    private volatile long busySince;
+    // EDT only: counts dispatches so an event can tell that it pumped nested ones.
+    private int dispatched;
+
+    private EdtWatchdog(long thresholdNanos) {
+        this.thresholdNanos = thresholdNanos;
+    }
+
+    /** Puts the watchdog in front of the system event queue and starts its sampler. Call once, at startup. */
+    static void install() {
+        int thresholdMs = Math.max(10, Integer.getInteger("ui.stallThresholdMs", 200));
+        EdtWatchdog watchdog = new EdtWatchdog(thresholdMs * 1_000_000L);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+        Thread sampler = new Thread(watchdog::sample, "edt-watchdog");
+        sampler.setDaemon(true);
+        sampler.start();
+        UiMetrics.startLogging(Integer.getInteger("ui.metrics.logIntervalSec", 300));
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        int seq = ++dispatched;
+        AWTEvent outer = busyWith;
+        long start = System.nanoTime();
+        edt = Thread.currentThread();
+        busyWith = event;
+        busySince = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long end = System.nanoTime();
+            // The outer event (if any) carries on from here; time it from now, not from its start.
+            busyWith = outer;
+            busySince = outer == null ? 0 : end;
+            boolean pumped = dispatched != seq;
+            if (!pumped) {
+                UiMetrics.record("edt." + kindOf(event), start);
+                if (end - start >= thresholdNanos) {
+                    UiMetrics.log(String.format("EDT stall: %s took %.1f ms", describe(event), (end - start) / 1_000_000.0));
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the EDT's event loop, and by the nested loop of a modal dialog, whenever it waits
+     * for the next event. Waiting isn't being busy, so the current event is cleared while it
+     * waits; otherwise an open dialog would be sampled as a stall of the event that opened it.
+     */
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        if (Thread.currentThread() != edt) {
+            return super.getNextEvent();
+        }
+        AWTEvent outer = busyWith;
+        busyWith = null;
+        busySince = 0;
+        try {
+            return super.getNextEvent();
+        } finally {
+            busyWith = outer;
+            busySince = outer == null ? 0 : System.nanoTime();
+        }
+    }
+
+    private void sample() {
+        long intervalMillis = Math.max(5, thresholdNanos / 2_000_000);
+        long sampledSince = 0;
+        int samples = 0;
+        try {
+            while (true) {
+                Thread.sleep(intervalMillis);
+                Thread thread = edt;
+                AWTEvent event = busyWith;
+                long since = busySince;
+                if (thread == null || event == null || since == 0) {
+                    continue;
+                }
+                long busyFor = System.nanoTime() - since;
+                if (busyFor < thresholdNanos) {
+                    continue;
+                }
+                if (since != sampledSince) {
+                    sampledSince = since;
+                    samples = 0;
+                }
+                if (samples >= MAX_SAMPLES_PER_EVENT) {
+                    continue;
+                }
+                StackTraceElement[] stack = thread.getStackTrace();
+                if (busySince != since) {
+                    // The event ended while the stack was being taken; the stack is of something else.
+                    continue;
+                }
+                samples++;
+                report(event, busyFor, samples, stack);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(AWTEvent event, long busyFor, int sample, StackTraceElement[] stack) {
+        StringBuilder trace = new StringBuilder();
+        for (int i = 0; i < Math.min(stack.length, MAX_FRAMES); i++) {
+            trace.append("\tat ").append(stack[i]).append(System.lineSeparator());
+        }
+        if (stack.length > MAX_FRAMES) {
+            trace.append("\t... ").append(stack.length - MAX_FRAMES).append(" more").append(System.lineSeparator());
+        }
+        String description = describe(event);
+        UiMetrics.log(String.format("EDT busy for %.1f ms (sample %d) in %s%n%s",
+                busyFor / 1_000_000.0, sample, description, trace.toString().stripTrailing()));
+
+        EdtStallEvent stall = new EdtStallEvent();
+        if (stall.shouldCommit()) {
+            stall.event = description;
+            stall.busyFor = busyFor;
+            stall.sample = sample;
+            stall.stack = trace.toString();
+            stall.commit();
+        }
+    }
+
+    private static String kindOf(AWTEvent event) {
+        if (event instanceof InvocationEvent || event instanceof ActiveEvent) {
+            return "invocation";
+        } else if (event instanceof MouseEvent) {
+            return "mouse";
+        } else if (event instanceof KeyEvent) {
+            return "key";
+        } else if (event instanceof PaintEvent) {
+            return "paint";
+        } else if (event instanceof InputEvent) {
+            return "input";
+        }
+        return "other";
+    }
+
+    private static String describe(AWTEvent event) {
+        String source = event.getSource() instanceof Component
+                ? " on " + event.getSource().getClass().getName() : "";
+        String params = event.paramString();
+        if (params.length() > 160) {
+            params = params.substring(0, 160) + "...";
+        }
+        return event.getClass().getSimpleName() + source + " [" + params + "]";
+    }
+}
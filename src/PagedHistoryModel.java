@@ -0,0 +1,338 @@
+import database.HistoryView;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A table model over one user's history that reads rows from the database a page at a time,
+ * as they scroll into view. It knows the row count up front, so the scroll bar is right
+ * from the start. Only the pages around the visible rows are kept; pages outside that
+ * window are dropped and read again if the user scrolls back. Sorting and filtering
+ * change the {@link HistoryView} and are done by the query, not here.
+ *
+ * <p>All reads go through {@link BackgroundTasks}, and the model is only touched on the EDT.
+ * A row that hasn't arrived yet reads as null and fills in when its page lands. A failed read
+ * shows in the status line; a failed page is read again the next time its rows are painted.
+ */
+final class PagedHistoryModel<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    /** A history DAO's count read, e.g. {@code WorkoutDAO::countWorkouts}. */
+    interface Counter {
+        int count(int userId, HistoryView view);
+    }
+
+    /** A history DAO's window read, e.g. {@code WorkoutDAO::getWorkoutsWindow}. */
+    interface WindowReader<T> {
+        List<T> window(int userId, HistoryView view, int offset, int limit);
+    }
+
+    /** One table column: its header, value type, the DAO column it sorts by (null if not sortable) and its value. */
+    static final class Column<T> {
+        final String name;
+        final Class<?> type;
+        final String sortColumn;
+        final Function<T, Object> value;
+
+        Column(String name, Class<?> type, String sortColumn, Function<T, Object> value) {
+            this.name = name;
+            this.type = type;
+            this.sortColumn = sortColumn;
+            this.value = value;
+        }
+    }
+
+    static <T> Column<T> column(String name, Class<?> type, String sortColumn, Function<T, Object> value) {
+        return new Column<>(name, type, sortColumn, value);
+    }
+
+    /** What a reload read: the row count and the pages that were on screen. */
+    private static final class Loaded<T> {
+        final int count;
+        final Map<Integer, List<T>> pages;
+
+        Loaded(int count, Map<Integer, List<T>> pages) {
+            this.count = count;
+            this.pages = pages;
+        }
+    }
+
+    private static final int PAGE_SIZE = 100;
+
+    private final String key;
+    private final String noun;
+    private final BackgroundTasks tasks;
+    private final Counter counter;
+    private final WindowReader<T> reader;
+    private final List<Column<T>> columns;
+
+    private final Map<Integer, List<T>> pages = new HashMap<>();
+    private final Set<Integer> pending = new HashSet<>();
+    // Pages whose last read failed; the error stays in the status line until they are all read.
+    private final Set<Integer> failedPages = new HashSet<>();
+    private HistoryView view = HistoryView.NEWEST_FIRST;
+    private int userId;
+    private int rowCount;
+    private int firstVisible;
+    private int lastVisible = PAGE_SIZE - 1;
+    // Bumped whenever the rows are thrown away, so pages read before that are ignored.
+    private int generation;
+    private boolean loading;
+    private String message;
+    private String error;
+    private Runnable statusListener = () -> {};
+
+    /**
+     * @param key the task key for reloads; a newer reload with the same key cancels an older one
+     * @param noun what a row is, plural, for the status line (e.g. "workouts")
+     */
+    PagedHistoryModel(String key, String noun, BackgroundTasks tasks, Counter counter, WindowReader<T> reader,
+                      List<Column<T>> columns) {
+        this.key = key;
+        this.noun = noun;
+        this.tasks = tasks;
+        this.counter = counter;
+        this.reader = reader;
+        this.columns = new ArrayList<>(columns);
+    }
+
+    /** Called on the EDT whenever {@link #getStatus()} may have changed. */
+    void setStatusListener(Runnable listener) {
+        this.statusListener = listener;
+    }
+
+    /**
+     * Re-reads the count and the pages currently on screen, keeping the scroll position.
+     * The old rows stay visible until the new ones arrive.
+     */
+    BackgroundTasks.Task reload(int userId) {
+        this.userId = userId;
+        int gen = ++generation;
+        pending.clear();
+        loading = true;
+        message = null;
+        error = null;
+        failedPages.clear();
+        HistoryView v = view;
+        int firstPage = firstVisible / PAGE_SIZE;
+        int lastPage = lastVisible / PAGE_SIZE;
+        statusListener.run();
+        return tasks.submit(key, "Loading " + noun, () -> {
+            int count = counter.count(userId, v);
+            Map<Integer, List<T>> read = new HashMap<>();
+            for (int page = firstPage; page <= lastPage && page * PAGE_SIZE < count; page++) {
+                read.put(page, reader.window(userId, v, page * PAGE_SIZE, PAGE_SIZE));
+            }
+            return new Loaded<>(count, read);
+        }, loaded -> {
+            if (gen != generation) {
+                return;
+            }
+            loading = false;
+            rowCount = loaded.count;
+            pages.clear();
+            pages.putAll(loaded.pages);
+            fireTableDataChanged();
+            statusListener.run();
+        }, e -> {
+            if (gen == generation) {
+                failed(e);
+            }
+        }).whenEnded(() -> {
+            if (gen == generation && loading) {
+                // Cancelled or failed: nothing new to show, but it is no longer loading.
+                loading = false;
+                statusListener.run();
+            }
+        });
+    }
+
+    /** Drops every row and shows {@code message} (or "Loading...") as the status until the next reload. */
+    void clear(String message) {
+        generation++;
+        pending.clear();
+        pages.clear();
+        rowCount = 0;
+        loading = true;
+        this.message = message;
+        error = null;
+        failedPages.clear();
+        fireTableDataChanged();
+        statusListener.run();
+    }
+
+    /**
+     * Tells the model which rows are on screen. Pages within one page of them are read
+     * ahead of time; pages further away are dropped.
+     */
+    void setVisibleRows(int first, int last) {
+        firstVisible = Math.max(0, first);
+        lastVisible = Math.max(firstVisible, last);
+        int keepFrom = Math.max(0, firstVisible - PAGE_SIZE) / PAGE_SIZE;
+        int keepTo = (lastVisible + PAGE_SIZE) / PAGE_SIZE;
+        for (Iterator<Integer> it = pages.keySet().iterator(); it.hasNext(); ) {
+            int page = it.next();
+            if (page < keepFrom || page > keepTo) {
+                it.remove();
+            }
+        }
+        if (failedPages.removeIf(page -> page < keepFrom || page > keepTo) && failedPages.isEmpty() && error != null) {
+            error = null;
+            statusListener.run();
+        }
+        if (loading) {
+            return;
+        }
+        for (int page = keepFrom; page <= keepTo && page * PAGE_SIZE < rowCount; page++) {
+            requestPage(page);
+        }
+    }
+
+    /**
+     * Clicking a sortable column sorts by it ascending, then descending, then back to
+     * newest first. Returns whether anything changed.
+     */
+    boolean toggleSort(int column) {
+        String sortColumn = columns.get(column).sortColumn;
+        if (sortColumn == null) {
+            return false;
+        }
+        if (!sortColumn.equals(view.getSortColumn())) {
+            view = view.sortedBy(sortColumn, true);
+        } else if (view.isAscending()) {
+            view = view.sortedBy(sortColumn, false);
+        } else {
+            view = view.sortedBy(null, false);
+        }
+        restart();
+        return true;
+    }
+
+    /** Keeps only rows whose text column contains {@code text}. Returns whether anything changed. */
+    boolean setFilter(String text) {
+        HistoryView filtered = view.filteredBy(text);
+        if (filtered.equals(view)) {
+            return false;
+        }
+        view = filtered;
+        restart();
+        return true;
+    }
+
+    /** A one-line summary for under the table: row count, filter, that it is loading, or why it couldn't. */
+    String getStatus() {
+        if (message != null) {
+            return message;
+        }
+        if (error != null) {
+            return error;
+        }
+        if (loading) {
+            return "Loading " + noun + "...";
+        }
+        String filter = view.getFilter();
+        if (rowCount == 0) {
+            return filter == null ? "No " + noun + " logged yet." : "No " + noun + " match '" + filter + "'.";
+        }
+        return String.format("%,d %s", rowCount, noun) + (filter == null ? "" : " matching '" + filter + "'");
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /** The header, with an arrow on the column the view is sorted by. */
+    @Override
+    public String getColumnName(int column) {
+        Column<T> c = columns.get(column);
+        if (c.sortColumn != null && c.sortColumn.equals(view.getSortColumn())) {
+            return c.name + (view.isAscending() ? " \u25B2" : " \u25BC");
+        }
+        return c.name;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.get(column).type;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            // Usually called while painting, so the read starts once the paint is done.
+            if (!loading && !pending.contains(page)) {
+                SwingUtilities.invokeLater(() -> requestPage(page));
+            }
+            return null;
+        }
+        int index = row % PAGE_SIZE;
+        return index < rows.size() ? columns.get(column).value.apply(rows.get(index)) : null;
+    }
+
+    /** A new view starts from the top. */
+    private void restart() {
+        firstVisible = 0;
+        lastVisible = PAGE_SIZE - 1;
+        clear(null);
+        reload(userId);
+    }
+
+    private void requestPage(int page) {
+        if (loading || page * PAGE_SIZE >= rowCount || pages.containsKey(page) || !pending.add(page)) {
+            return;
+        }
+        int gen = generation;
+        HistoryView v = view;
+        int uid = userId;
+        tasks.submit(key + ":page:" + page, "Loading more " + noun,
+                () -> reader.window(uid, v, page * PAGE_SIZE, PAGE_SIZE), rows -> {
+                    if (gen != generation) {
+                        return;
+                    }
+                    int keepFrom = Math.max(0, firstVisible - PAGE_SIZE) / PAGE_SIZE;
+                    int keepTo = (lastVisible + PAGE_SIZE) / PAGE_SIZE;
+                    if (page >= keepFrom && page <= keepTo) {
+                        pages.put(page, rows);
+                        int from = page * PAGE_SIZE;
+                        fireTableRowsUpdated(from, Math.min(rowCount, from + PAGE_SIZE) - 1);
+                    }
+                    if (failedPages.remove(page) && failedPages.isEmpty()) {
+                        error = null;
+                        statusListener.run();
+                    }
+                }, e -> {
+                    if (gen == generation) {
+                        // No longer pending, so the next paint of its rows asks for it again.
+                        pending.remove(page);
+                        failedPages.add(page);
+                        failed(e);
+                    }
+                }).whenEnded(() -> {
+                    if (gen == generation) {
+                        pending.remove(page);
+                    }
+                });
+    }
+
+    private void failed(Exception e) {
+        System.err.println("Error loading " + noun + ": " + e.getMessage());
+        loading = false;
+        error = "Couldn't load " + noun + ": " + e.getMessage();
+        statusListener.run();
+    }
+}
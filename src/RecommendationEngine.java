@@ -2,7 +2,8 @@ package models;
 
 
 import database.UserDAO;
-import database.WorkoutDAO;
+import database.TrainingStats;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.time.LocalDate; // Assuming your Workout object will eventually have a date
@@ -16,23 +17,11 @@ import database.*;
  */
 public class RecommendationEngine {
 
-    // --- Constants for Diet Calculations ---
-    private static final int WEIGHT_LOSS_CALORIE_DEFICIT = 400;
-    private static final int MUSCLE_GAIN_CALORIE_SURPLUS = 300;
-    private static final double PROTEIN_PER_KG_BODYWEIGHT = 1.6;
-
-    /**
-     * Internal enum to make goal-based logic safer and cleaner.
-     */
-    private enum FitnessGoal {
-        WEIGHT_LOSS,
-        MUSCLE_GAIN,
-        GENERAL_FITNESS
-    }
-
     private final User user;
     private final FitnessGoal goal;
-    private final WorkoutDAO workoutDAO;
+    private final TrainingStats stats;
+    // The decision-table row for this user and goal; it supplies the plan text and diet parameters.
+    private final RecommendationRules.Rule rule;
 
     /**
      * Constructs a RecommendationEngine for a specific user and their goal.
@@ -45,8 +34,69 @@ public class RecommendationEngine {
             throw new IllegalArgumentException("User cannot be null.");
         }
         this.user = user;
-        this.goal = determineGoalFromString(goalDescription);
-        this.workoutDAO = new WorkoutDAO();
+        this.goal = GoalClassifier.getDefault().classify(goalDescription);
+        this.stats = TrainingStats.of(user.getUserID());
+        RecommendationRules rules = RecommendationRules.current();
+        this.rule = rules.rule(cellFor(rules, user, goal, stats));
+    }
+
+    RecommendationEngine(User user, FitnessGoal goal, TrainingStats stats, RecommendationRules.Rule rule) {
+        this.user = user;
+        this.goal = goal;
+        this.stats = stats;
+        this.rule = rule;
+    }
+
+    /**
+     * Returns the workout plan, diet plan and progress analysis for the user's goal,
+     * served from {@link RecommendationCache} unless the profile, goal, training data or
+     * rule table has changed since it was last computed.
+     */
+    public static Recommendation recommend(User user, String goalDescription) {
+        return recommend(user, asList(goalDescription));
+    }
+
+    /** As {@link #recommend(User, String)}, classifying all of the user's goals together (newest first). */
+    public static Recommendation recommend(User user, List<String> goalDescriptions) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null.");
+        }
+        TrainingStats stats = TrainingStats.of(user.getUserID());
+        FitnessGoal goal = GoalClassifier.getDefault().classify(goalDescriptions);
+        RecommendationRules rules = RecommendationRules.current();
+        int cell = cellFor(rules, user, goal, stats);
+        // The cell already encodes the goal and every band the rules look at.
+        return RecommendationCache.getShared().get(user, rules.getVersion() + ":" + cell, stats.getVersion(),
+                () -> compute(user, goal, rules.rule(cell), goalDescriptions, stats));
+    }
+
+    /**
+     * Computes a recommendation from already-loaded stats, with no caching and no I/O.
+     * Used by batch jobs that load each user's stats themselves.
+     */
+    public static Recommendation compute(User user, List<String> goalDescriptions, TrainingStats stats) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null.");
+        }
+        FitnessGoal goal = GoalClassifier.getDefault().classify(goalDescriptions);
+        RecommendationRules rules = RecommendationRules.current();
+        return compute(user, goal, rules.rule(cellFor(rules, user, goal, stats)), goalDescriptions, stats);
+    }
+
+    private static Recommendation compute(User user, FitnessGoal goal, RecommendationRules.Rule rule,
+                                          List<String> goalDescriptions, TrainingStats stats) {
+        RecommendationEngine engine = new RecommendationEngine(user, goal, stats, rule);
+        return new Recommendation(user.getUserID(), goalDescriptions.isEmpty() ? null : goalDescriptions.get(0),
+                engine.suggestWorkoutPlan(), engine.suggestDietPlan(), engine.analyzeProgress());
+    }
+
+    static int cellFor(RecommendationRules rules, User user, FitnessGoal goal, TrainingStats stats) {
+        return rules.cellFor(goal, user.calculateBMI(), user.getAge(), user.getGender(),
+                stats.getLast7Days().getWorkoutCount());
+    }
+
+    private static List<String> asList(String goalDescription) {
+        return goalDescription == null ? Collections.emptyList() : Collections.singletonList(goalDescription);
     }
 
     /**
@@ -55,15 +105,8 @@ public class RecommendationEngine {
      * @return A String containing the workout recommendation.
      */
     public String suggestWorkoutPlan() {
-        switch (goal) {
-            case WEIGHT_LOSS:
-                return "For weight loss, prioritize cardiovascular exercise (running, cycling) 3-4 times a week to maximize calorie burn. Complement this with 2 days of full-body strength training to preserve muscle mass.";
-            case MUSCLE_GAIN:
-                return "To build muscle, focus on a strength training split (e.g., Push/Pull/Legs) 4-5 times a week. Emphasize compound lifts like squats, deadlifts, and bench presses with progressive overload.";
-            case GENERAL_FITNESS:
-            default:
-                return "For general fitness, a balanced routine is optimal. Aim for 3 days of total-body strength training and 2 days of moderate-intensity cardio (like jogging or swimming) to improve overall health.";
-        }
+        int maintenanceCalories = calculateBMR(user);
+        return rule.renderWorkoutPlan(maintenanceCalories, maintenanceCalories + rule.getCalorieDelta(), targetProtein());
     }
 
     /**
@@ -73,19 +116,24 @@ public class RecommendationEngine {
      */
     public String suggestDietPlan() {
         int maintenanceCalories = calculateBMR(user);
-        int targetProtein = (int) (user.getWeight() * PROTEIN_PER_KG_BODYWEIGHT);
-
-        switch (goal) {
-            case WEIGHT_LOSS:
-                int deficitCalories = maintenanceCalories - WEIGHT_LOSS_CALORIE_DEFICIT;
-                return String.format("To lose weight, aim for a consistent calorie deficit of around %d kcal per day. Prioritize high-protein foods (approx. %dg/day) and fiber to promote satiety.", deficitCalories, targetProtein);
-            case MUSCLE_GAIN:
-                int surplusCalories = maintenanceCalories + MUSCLE_GAIN_CALORIE_SURPLUS;
-                return String.format("For muscle gain, a slight calorie surplus is needed. Aim for %d kcal per day, with a high protein intake of about %dg to fuel muscle repair and growth.", surplusCalories, targetProtein);
-            case GENERAL_FITNESS:
-            default:
-                return String.format("For general wellness, focus on a balanced diet of whole foods at maintenance calories (approx. %d kcal/day). Ensure a consistent protein intake of around %dg/day.", maintenanceCalories, targetProtein);
-        }
+        return rule.renderDietPlan(maintenanceCalories, maintenanceCalories + rule.getCalorieDelta(), targetProtein());
+    }
+
+    /** The diet plan for explicit calorie and protein targets, e.g. ones merged across several goals. */
+    String suggestDietPlan(int calories, int protein) {
+        return rule.renderDietPlan(calculateBMR(user), calories, protein);
+    }
+
+    RecommendationRules.Rule rule() {
+        return rule;
+    }
+
+    int maintenanceCalories() {
+        return calculateBMR(user);
+    }
+
+    private int targetProtein() {
+        return (int) (user.getWeight() * rule.getProteinPerKg());
     }
 
     /**
@@ -94,18 +142,13 @@ public class RecommendationEngine {
      * @return A String with a more insightful progress analysis.
      */
     public String analyzeProgress() {
-        List<Workout> workouts = workoutDAO.getWorkoutsByUser(user.getUserID());
-
-        if (workouts.isEmpty()) {
+        // Running totals kept in memory by TrainingStats, so this doesn't query at all.
+        if (stats.getWorkoutCount() == 0) {
             return "Log some workouts to see your progress analysis here!";
         }
-        
-        // This part would be more accurate if the Workout object had a date.
-        // For now, we analyze the whole list.
-        long workoutCount = workouts.size();
-        double totalCaloriesBurned = workouts.stream()
-                .mapToDouble(Workout::getCaloriesBurned)
-                .sum();
+
+        long workoutCount = stats.getWorkoutCount();
+        double totalCaloriesBurned = stats.getTotalCaloriesBurned();
                 
         String frequencyFeedback;
         if (workoutCount < 3) {
@@ -119,24 +162,6 @@ public class RecommendationEngine {
         return String.format("You've logged %d workout(s), burning a total of %.0f calories. %s", workoutCount, totalCaloriesBurned, frequencyFeedback);
     }
 
-    /**
-     * Determines the FitnessGoal enum from a user-provided string.
-     * This internal method makes the public-facing logic cleaner.
-     */
-    private FitnessGoal determineGoalFromString(String description) {
-        if (description == null) {
-            return FitnessGoal.GENERAL_FITNESS;
-        }
-        String desc = description.toLowerCase();
-        if (desc.contains("lose weight") || desc.contains("cardio") || desc.contains("burn fat")) {
-            return FitnessGoal.WEIGHT_LOSS;
-        } else if (desc.contains("build muscle") || desc.contains("strength") || desc.contains("bulk")) {
-            return FitnessGoal.MUSCLE_GAIN;
-        } else {
-            return FitnessGoal.GENERAL_FITNESS;
-        }
-    }
-
     /**
      * Calculates the Basal Metabolic Rate (BMR) using the Mifflin-St Jeor equation.
      * BMR is the number of calories your body needs at rest.
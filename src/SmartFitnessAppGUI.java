@@ -1,6 +1,7 @@
 import javax.swing.*;
 import javax.swing.border.*;
 import javax.swing.plaf.basic.BasicScrollBarUI;
+import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
@@ -11,6 +12,8 @@ import models.*;
 import database.*;
 
 public class SmartFitnessAppGUI extends JFrame {
+    private static final long serialVersionUID = 1L;
+
     // =================================================================================
     // FUTURISTIC THEME: COLORS & FONTS
     // =================================================================================
@@ -29,26 +32,44 @@ public class SmartFitnessAppGUI extends JFrame {
     private static final Font FONT_BUTTON = new Font("Segoe UI", Font.BOLD, 14);
     private static final Font FONT_MONOSPACE = new Font("Consolas", Font.PLAIN, 14);
 
-    // DAO instances (unchanged)
-    private UserDAO userDAO;
-    private WorkoutDAO workoutDAO;
-    private NutritionDAO nutritionDAO;
-    private GoalDAO goalDAO;
-    private ProgressTrackerDAO progressDAO;
-
     // Current user (unchanged)
     private User currentUser;
 
+    // Database work runs here, off the event dispatch thread
+    private BackgroundTasks tasks;
+    private JProgressBar busyBar;
+    private JLabel busyLabel;
+
+    // One load task per tab, keyed by tab index; a tab whose load was cancelled reloads when shown
+    private static final String[] TAB_LOADS = {"dashboard", "workouts", "nutrition", "goals", "progress"};
+    private final java.util.Set<String> staleTabs = new java.util.HashSet<>();
+
+    // The post-login loads run in parallel and are given this long, together, to arrive.
+    private static final java.time.Duration LOGIN_LOAD_TIMEOUT = java.time.Duration.ofSeconds(10);
+    // Bumped on every login and logout, so a join from an earlier session doesn't record timings.
+    private int session;
+
     // Main components (unchanged)
     private JPanel mainPanel;
     private CardLayout cardLayout;
     private JTabbedPane tabbedPane;
 
+    // The main card is built on first login, with only the dashboard in it. Every other tab
+    // starts as an empty slot and is built when first shown, or in idle moments after login.
+    private final JPanel[] tabSlots = new JPanel[TAB_LOADS.length];
+    private final boolean[] tabBuilt = new boolean[TAB_LOADS.length];
+
+    // Login components, kept so a startup benchmark can sign in
+    private JTextField loginUsernameField;
+    private JPasswordField loginPasswordField;
+    private JButton loginButton;
+
     // Dashboard components (unchanged)
     private JLabel welcomeLabel;
     private JTextArea dashboardStats;
     private JTextArea recommendationArea;
     private JButton recommendationButton;
+    private TrendChart calorieChart;
 
     // Workout components (unchanged)
     private JTextField workoutTypeField;
@@ -57,7 +78,7 @@ public class SmartFitnessAppGUI extends JFrame {
     private JSpinner workoutRepsSpinner;
     private JSpinner workoutWeightSpinner;
     private JSpinner workoutCaloriesSpinner;
-    private JTextArea workoutHistory;
+    private PagedHistoryModel<Workout> workoutHistory;
 
     // Nutrition components (unchanged)
     private JTextField foodItemField;
@@ -66,28 +87,27 @@ public class SmartFitnessAppGUI extends JFrame {
     private JSpinner nutritionCarbsSpinner;
     private JSpinner nutritionFatsSpinner;
     private JComboBox<String> mealTimeCombo;
-    private JTextArea nutritionHistory;
+    private PagedHistoryModel<Nutrition> nutritionHistory;
 
     // Goal components (unchanged)
     private JTextField goalDescriptionField;
     private JSpinner goalTargetSpinner;
     private JSpinner goalCurrentSpinner;
     private JComboBox<String> goalStatusCombo;
-    private JTextArea goalHistory;
+    private PagedHistoryModel<Goal> goalHistory;
 
     // Progress components (unchanged)
-    private JTextArea progressHistory;
+    private PagedHistoryModel<ProgressTracker> progressHistory;
+    private TrendChart weightChart;
     private JSpinner weightSpinner;
 
     public SmartFitnessAppGUI() {
-        // Initialize DAOs
-        userDAO = new UserDAO();
-        workoutDAO = new WorkoutDAO();
-        nutritionDAO = new NutritionDAO();
-        goalDAO = new GoalDAO();
-        progressDAO = new ProgressTrackerDAO();
-
+        // The DAOs are looked up on the worker threads that use them, so opening the backend
+        // (which main() has already started) never holds up the login screen.
         setGlobalUIProperties();
+        // Before the tasks: they report to it from the first login on, before the main card exists.
+        createBusyIndicator();
+        tasks = new BackgroundTasks(this::showBusy, DaoFactory.getMaxConcurrentQueries());
 
         // Setup frame
         setTitle("Smart Fitness System");
@@ -100,16 +120,35 @@ public class SmartFitnessAppGUI extends JFrame {
         mainPanel = new JPanel(cardLayout);
         mainPanel.setBackground(COLOR_BACKGROUND);
 
-        // Add login panel
+        // Add login panel; the main application panel is added on first login
         mainPanel.add(createLoginPanel(), "LOGIN");
 
-        // Add main application panel (will be populated after login)
-        mainPanel.add(createMainApplicationPanel(), "MAIN");
-
         add(mainPanel);
 
         // Start with login screen
         cardLayout.show(mainPanel, "LOGIN");
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Queued behind the window's first paint.
+                SwingUtilities.invokeLater(() -> StartupTimer.reached(StartupTimer.LOGIN_SCREEN));
+            }
+        });
+    }
+
+    // The backend's DAOs. Call these off the EDT: the first call may open the backend.
+    private static UserDAO userDAO() { return DaoFactory.get().users(); }
+    private static WorkoutDAO workoutDAO() { return DaoFactory.get().workouts(); }
+    private static NutritionDAO nutritionDAO() { return DaoFactory.get().nutrition(); }
+    private static GoalDAO goalDAO() { return DaoFactory.get().goals(); }
+    private static ProgressTrackerDAO progressDAO() { return DaoFactory.get().progress(); }
+    private static DailyTotalsDAO dailyTotalsDAO() { return DaoFactory.get().dailyTotals(); }
+
+    /** Signs in as if the user had typed the details and clicked Login (used by StartupBenchmark). */
+    void signIn(String username, String password) {
+        loginUsernameField.setText(username);
+        loginPasswordField.setText(password);
+        loginButton.doClick();
     }
 
     // =================================================================================
@@ -177,22 +216,38 @@ public class SmartFitnessAppGUI extends JFrame {
         JPanel buttonPanel = new JPanel(new GridLayout(1, 2, 15, 0));
         buttonPanel.setOpaque(false);
 
-        RoundedButton loginButton = new RoundedButton("Login", COLOR_PRIMARY_NEON, COLOR_SECONDARY_ACCENT);
+        loginButton = new RoundedButton("Login", COLOR_PRIMARY_NEON, COLOR_SECONDARY_ACCENT);
         loginButton.addActionListener(e -> {
             String username = usernameField.getText();
             String password = new String(passwordField.getPassword());
-
-            User user = userDAO.authenticateUser(username, password);
-            if (user != null) {
-                currentUser = user;
-                welcomeLabel.setText("Welcome back, " + user.getName() + "!");
-                refreshAllData();
-                cardLayout.show(mainPanel, "MAIN");
-                usernameField.setText("");
-                passwordField.setText("");
-            } else {
-                JOptionPane.showMessageDialog(this, "Invalid username or password!", "Login Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            JButton button = (JButton) e.getSource();
+            button.setEnabled(false);
+            button.setText("Signing in...");
+            // Login critical path: click -> authenticated -> first tab rendered -> every tab rendered.
+            long clicked = System.nanoTime();
+            tasks.submit("login", "Signing in", () -> userDAO().authenticateUser(username, password), user -> {
+                UiMetrics.record(user != null ? "login.authenticate" : "login.authenticate.refused", clicked);
+                if (user != null) {
+                    // Re-seed from the database in case another session wrote since we last saw this user.
+                    TrainingStats.forget(user.getUserID());
+                    currentUser = user;
+                    ensureMainPanel();
+                    welcomeLabel.setText("Welcome back, " + user.getName() + "!");
+                    loadAfterLogin(clicked);
+                    cardLayout.show(mainPanel, "MAIN");
+                    usernameField.setText("");
+                    passwordField.setText("");
+                } else {
+                    JOptionPane.showMessageDialog(this, "Invalid username or password!", "Login Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                UiMetrics.record("login.authenticate.failed", clicked);
+                JOptionPane.showMessageDialog(this, "Could not sign in: " + error.getMessage(), "Login Failed", JOptionPane.ERROR_MESSAGE);
+            })
+                    .whenEnded(() -> {
+                        button.setEnabled(true);
+                        button.setText("Login");
+                    });
         });
 
         RoundedButton registerButton = new RoundedButton("Register", COLOR_TEXT_MEDIUM, COLOR_TEXT_LIGHT.darker());
@@ -200,6 +255,8 @@ public class SmartFitnessAppGUI extends JFrame {
 
         buttonPanel.add(loginButton);
         buttonPanel.add(registerButton);
+        loginUsernameField = usernameField;
+        loginPasswordField = passwordField;
 
         gbc.gridy = 7; gbc.gridwidth = 2;
         centerPanel.add(buttonPanel, gbc);
@@ -211,7 +268,18 @@ public class SmartFitnessAppGUI extends JFrame {
     // =================================================================================
     // UI REDESIGN: MAIN APPLICATION PANEL
     // =================================================================================
+    /** Adds the main card the first time it is needed. */
+    private void ensureMainPanel() {
+        if (tabbedPane == null) {
+            long start = System.nanoTime();
+            mainPanel.add(createMainApplicationPanel(), "MAIN");
+            UiMetrics.record("build.main", start);
+        }
+    }
+
     private JPanel createMainApplicationPanel() {
+        createHistoryModels();
+        createCharts();
         JPanel mainAppPanel = new JPanel(new BorderLayout());
         mainAppPanel.setBackground(COLOR_BACKGROUND);
 
@@ -231,28 +299,127 @@ public class SmartFitnessAppGUI extends JFrame {
         RoundedButton logoutButton = new RoundedButton("Logout", COLOR_TEXT_MEDIUM, COLOR_TEXT_LIGHT.darker());
         logoutButton.setPreferredSize(new Dimension(100, 35));
         logoutButton.addActionListener(e -> {
+            // Nothing still loading for the old session may render after it ends. Saves still finish.
+            tasks.cancelLoads();
+            staleTabs.clear();
+            session++;
+            if (currentUser != null) {
+                TrainingStats.forget(currentUser.getUserID());
+            }
             currentUser = null;
             cardLayout.show(mainPanel, "LOGIN");
         });
         headerPanel.add(logoutButton, BorderLayout.EAST);
 
+        // Shown while anything is loading or saving; the window stays usable meanwhile.
+        JPanel busyPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 8));
+        busyPanel.setOpaque(false);
+        busyPanel.add(busyLabel);
+        busyPanel.add(busyBar);
+        headerPanel.add(busyPanel, BorderLayout.CENTER);
+
         mainAppPanel.add(headerPanel, BorderLayout.NORTH);
 
         // Tabbed Pane
         tabbedPane = new JTabbedPane(JTabbedPane.LEFT);
         tabbedPane.setFont(FONT_BUTTON);
         
-        tabbedPane.addTab("<html><body style='padding: 10px; text-align: center;'>DASHBOARD</body></html>", createDashboardTab());
-        tabbedPane.addTab("<html><body style='padding: 10px; text-align: center;'>WORKOUTS</body></html>", createWorkoutsTab());
-        tabbedPane.addTab("<html><body style='padding: 10px; text-align: center;'>NUTRITION</body></html>", createNutritionTab());
-        tabbedPane.addTab("<html><body style='padding: 10px; text-align: center;'>GOALS</body></html>", createGoalsTab());
-        tabbedPane.addTab("<html><body style='padding: 10px; text-align: center;'>PROGRESS</body></html>", createProgressTab());
+        String[] titles = {"DASHBOARD", "WORKOUTS", "NUTRITION", "GOALS", "PROGRESS"};
+        for (int i = 0; i < titles.length; i++) {
+            tabSlots[i] = new JPanel(new BorderLayout());
+            tabSlots[i].setBackground(COLOR_BACKGROUND);
+            tabbedPane.addTab("<html><body style='padding: 10px; text-align: center;'>" + titles[i] + "</body></html>", tabSlots[i]);
+        }
+        ensureTab(0);
+
+        tabbedPane.addChangeListener(e -> onTabChanged());
 
         mainAppPanel.add(tabbedPane, BorderLayout.CENTER);
 
         return mainAppPanel;
     }
 
+    /** Builds a tab's contents into its slot, if that hasn't happened yet. */
+    private void ensureTab(int tab) {
+        if (tab < 0 || tab >= tabBuilt.length || tabBuilt[tab]) {
+            return;
+        }
+        long start = System.nanoTime();
+        JPanel content;
+        switch (tab) {
+            case 0: content = createDashboardTab(); break;
+            case 1: content = createWorkoutsTab(); break;
+            case 2: content = createNutritionTab(); break;
+            case 3: content = createGoalsTab(); break;
+            default: content = createProgressTab(); break;
+        }
+        tabBuilt[tab] = true;
+        tabSlots[tab].add(content, BorderLayout.CENTER);
+        tabSlots[tab].revalidate();
+        UiMetrics.record("build." + TAB_LOADS[tab], start);
+    }
+
+    /** Builds the tabs not shown yet, one per EDT turn, so input is never held up for long. */
+    private void buildRemainingTabs() {
+        for (int i = 0; i < tabBuilt.length; i++) {
+            if (!tabBuilt[i]) {
+                int tab = i;
+                SwingUtilities.invokeLater(() -> {
+                    ensureTab(tab);
+                    buildRemainingTabs();
+                });
+                return;
+            }
+        }
+    }
+
+    /** Like the history models, the charts exist before their tabs are built, so the loads can fill them. */
+    private void createCharts() {
+        Color grid = new Color(64, 64, 64);
+        Font font = FONT_NORMAL.deriveFont(12f);
+        calorieChart = new TrendChart("No meals or workouts logged yet.", grid, COLOR_TEXT_MEDIUM, font);
+        weightChart = new TrendChart("No progress logged yet.", grid, COLOR_TEXT_MEDIUM, font);
+    }
+
+    /**
+     * The history models hold no components, so they exist before their tables do and the
+     * post-login loads can fill them whether or not the tab has been built.
+     */
+    private void createHistoryModels() {
+        workoutHistory = new PagedHistoryModel<>(TAB_LOADS[1], "workouts", tasks,
+                (userId, view) -> workoutDAO().countWorkouts(userId, view),
+                (userId, view, offset, limit) -> workoutDAO().getWorkoutsWindow(userId, view, offset, limit), List.of(
+                        PagedHistoryModel.column("Date", String.class, "workout_date", Workout::getDate),
+                        PagedHistoryModel.column("Type", String.class, "type", Workout::getType),
+                        PagedHistoryModel.column("Duration (min)", Integer.class, "duration", Workout::getDuration),
+                        PagedHistoryModel.column("Sets", Integer.class, "sets_count", Workout::getSets),
+                        PagedHistoryModel.column("Reps", Integer.class, "reps_count", Workout::getReps),
+                        PagedHistoryModel.column("Weight (kg)", Double.class, "weight", Workout::getWeight),
+                        PagedHistoryModel.column("Calories", Double.class, "calories_burned", Workout::getCaloriesBurned)));
+        nutritionHistory = new PagedHistoryModel<>(TAB_LOADS[2], "meals", tasks,
+                (userId, view) -> nutritionDAO().countMeals(userId, view),
+                (userId, view, offset, limit) -> nutritionDAO().getMealsWindow(userId, view, offset, limit), List.of(
+                        PagedHistoryModel.column("Date", String.class, "meal_date", Nutrition::getDate),
+                        PagedHistoryModel.column("Food Item", String.class, "food_item", Nutrition::getFoodItem),
+                        PagedHistoryModel.column("Calories", Double.class, "calorie_intake", Nutrition::getCalorieIntake),
+                        PagedHistoryModel.column("Protein (g)", Double.class, "protein", Nutrition::getProtein),
+                        PagedHistoryModel.column("Carbs (g)", Double.class, "carbs", Nutrition::getCarbs),
+                        PagedHistoryModel.column("Fats (g)", Double.class, "fats", Nutrition::getFats)));
+        goalHistory = new PagedHistoryModel<>(TAB_LOADS[3], "goals", tasks,
+                (userId, view) -> goalDAO().countGoals(userId, view),
+                (userId, view, offset, limit) -> goalDAO().getGoalsWindow(userId, view, offset, limit), List.of(
+                        PagedHistoryModel.column("Description", String.class, "description", Goal::getDescription),
+                        PagedHistoryModel.column("Current Value", Double.class, "current_value", Goal::getCurrentValue),
+                        PagedHistoryModel.column("Target Value", Double.class, "target_value", Goal::getTargetValue),
+                        PagedHistoryModel.column("Status", String.class, "status", Goal::getStatus)));
+        progressHistory = new PagedHistoryModel<>(TAB_LOADS[4], "progress entries", tasks,
+                (userId, view) -> progressDAO().countProgressEntries(userId, view),
+                (userId, view, offset, limit) -> progressDAO().getProgressWindow(userId, view, offset, limit), List.of(
+                        PagedHistoryModel.column("Date", String.class, "progress_date", ProgressTracker::getDate),
+                        PagedHistoryModel.column("Weight (kg)", Double.class, "weight", ProgressTracker::getWeight),
+                        PagedHistoryModel.column("BMI", Double.class, "bmi", ProgressTracker::getBmi)));
+    }
+
     // =================================================================================
     // UI REDESIGN: DASHBOARD TAB
     // =================================================================================
@@ -277,7 +444,7 @@ public class SmartFitnessAppGUI extends JFrame {
         styleScrollPane(scrollPane);
 
         RoundedButton refreshButton = new RoundedButton("Refresh Dashboard", COLOR_PRIMARY_NEON, COLOR_SECONDARY_ACCENT);
-        refreshButton.addActionListener(e -> refreshDashboard());
+        refreshButton.addActionListener(e -> refreshTab(0));
         JPanel buttonWrapper = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonWrapper.setOpaque(false);
         buttonWrapper.add(refreshButton);
@@ -315,6 +482,10 @@ public class SmartFitnessAppGUI extends JFrame {
 
         gbc.gridx = 1; gbc.gridy = 0;
         dashboardPanel.add(recommendationContainerPanel, gbc);
+
+        // Bottom Panel for the calorie trend
+        gbc.gridx = 0; gbc.gridy = 1; gbc.gridwidth = 2; gbc.weighty = 0.8;
+        dashboardPanel.add(createChartPanel("Calories In vs. Out", COLOR_PRIMARY_NEON, calorieChart), gbc);
         
         return dashboardPanel;
     }
@@ -338,6 +509,86 @@ public class SmartFitnessAppGUI extends JFrame {
         return mainTabPanel;
     }
 
+    /**
+     * A history table that pages rows in from the database as it scrolls. Header clicks and
+     * the filter box change the query, not the rows already on screen.
+     */
+    private RoundedPanel createHistoryPanel(String title, String filterHint, PagedHistoryModel<?> model) {
+        RoundedPanel historyPanel = new RoundedPanel(20, COLOR_PANEL);
+        historyPanel.setLayout(new BorderLayout());
+        JPanel header = createSectionHeader(title, COLOR_PRIMARY_NEON);
+        JTextField filterField = new JTextField(18);
+        styleTextField(filterField);
+        filterField.setToolTipText(filterHint);
+        header.add(filterField, BorderLayout.EAST);
+        historyPanel.add(header, BorderLayout.NORTH);
+
+        JTable table = new JTable(model) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                long start = System.nanoTime();
+                super.paintComponent(g);
+                UiMetrics.record("paint.HistoryTable", start);
+            }
+        };
+        styleTable(table);
+        JScrollPane scrollPane = new JScrollPane(table);
+        styleScrollPane(scrollPane);
+        historyPanel.add(scrollPane, BorderLayout.CENTER);
+
+        JLabel statusLabel = createFormLabel(model.getStatus());
+        statusLabel.setBorder(new EmptyBorder(5, 15, 10, 15));
+        model.setStatusListener(() -> statusLabel.setText(model.getStatus()));
+        historyPanel.add(statusLabel, BorderLayout.SOUTH);
+
+        Runnable backToTop = () -> {
+            for (int i = 0; i < table.getColumnCount(); i++) {
+                table.getColumnModel().getColumn(i).setHeaderValue(model.getColumnName(table.convertColumnIndexToModel(i)));
+            }
+            table.getTableHeader().repaint();
+            scrollPane.getViewport().setViewPosition(new Point(0, 0));
+        };
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0 && model.toggleSort(table.convertColumnIndexToModel(column))) {
+                    backToTop.run();
+                }
+            }
+        });
+        // Wait for a pause in typing so each keystroke isn't a query.
+        Timer filterDelay = new Timer(250, e -> {
+            if (model.setFilter(filterField.getText())) {
+                backToTop.run();
+            }
+        });
+        filterDelay.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override public void insertUpdate(javax.swing.event.DocumentEvent e) { filterDelay.restart(); }
+            @Override public void removeUpdate(javax.swing.event.DocumentEvent e) { filterDelay.restart(); }
+            @Override public void changedUpdate(javax.swing.event.DocumentEvent e) { filterDelay.restart(); }
+        });
+        // Page rows in (and out) as the visible window moves.
+        scrollPane.getViewport().addChangeListener(e -> {
+            Rectangle view = scrollPane.getViewport().getViewRect();
+            int first = Math.max(0, table.rowAtPoint(new Point(0, view.y)));
+            int last = table.rowAtPoint(new Point(0, view.y + view.height - 1));
+            model.setVisibleRows(first, last < 0 ? first + view.height / table.getRowHeight() : last);
+        });
+        return historyPanel;
+    }
+
+    private RoundedPanel createChartPanel(String title, Color accentColor, TrendChart chart) {
+        RoundedPanel chartPanel = new RoundedPanel(20, COLOR_PANEL);
+        chartPanel.setLayout(new BorderLayout());
+        chartPanel.add(createSectionHeader(title, accentColor), BorderLayout.NORTH);
+        chart.setBorder(new EmptyBorder(0, 10, 10, 10));
+        chart.setPreferredSize(new Dimension(600, 220));
+        chartPanel.add(chart, BorderLayout.CENTER);
+        return chartPanel;
+    }
+
     private JPanel createWorkoutsTab() {
         // Form Panel
         RoundedPanel formPanel = new RoundedPanel(20, COLOR_PANEL);
@@ -360,18 +611,11 @@ public class SmartFitnessAppGUI extends JFrame {
         gbc.gridy++; workoutWeightSpinner = new JSpinner(new SpinnerNumberModel(50.0, 0.0, 500.0, 1.0)); styleSpinner(workoutWeightSpinner); formPanel.add(workoutWeightSpinner, gbc);
         gbc.gridx = 2; gbc.gridy = 4; gbc.gridwidth = 2; gbc.fill = GridBagConstraints.NONE; gbc.anchor = GridBagConstraints.CENTER;
         RoundedButton addButton = new RoundedButton("Add Workout", COLOR_SUCCESS, COLOR_SUCCESS.darker());
-        addButton.addActionListener(e -> addWorkout());
+        addButton.addActionListener(e -> addWorkout((JButton) e.getSource()));
         formPanel.add(addButton, gbc);
         
         // History Panel
-        RoundedPanel historyPanel = new RoundedPanel(20, COLOR_PANEL);
-        historyPanel.setLayout(new BorderLayout());
-        historyPanel.add(createSectionHeader("Workout History", COLOR_PRIMARY_NEON), BorderLayout.NORTH);
-        workoutHistory = new JTextArea(20, 50);
-        styleTextArea(workoutHistory, FONT_MONOSPACE);
-        JScrollPane scrollPane = new JScrollPane(workoutHistory);
-        styleScrollPane(scrollPane);
-        historyPanel.add(scrollPane, BorderLayout.CENTER);
+        RoundedPanel historyPanel = createHistoryPanel("Workout History", "Filter by type", workoutHistory);
 
         return createDataTabPanel(formPanel, historyPanel);
     }
@@ -398,18 +642,11 @@ public class SmartFitnessAppGUI extends JFrame {
         gbc.gridy++; nutritionFatsSpinner = new JSpinner(new SpinnerNumberModel(5.0, 0.0, 200.0, 0.5)); styleSpinner(nutritionFatsSpinner); formPanel.add(nutritionFatsSpinner, gbc);
         gbc.gridx = 1; gbc.gridy = 5; gbc.fill = GridBagConstraints.NONE; gbc.anchor = GridBagConstraints.CENTER;
         RoundedButton addButton = new RoundedButton("Add Meal", COLOR_SUCCESS, COLOR_SUCCESS.darker());
-        addButton.addActionListener(e -> addMeal());
+        addButton.addActionListener(e -> addMeal((JButton) e.getSource()));
         formPanel.add(addButton, gbc);
         
         // History Panel
-        RoundedPanel historyPanel = new RoundedPanel(20, COLOR_PANEL);
-        historyPanel.setLayout(new BorderLayout());
-        historyPanel.add(createSectionHeader("Nutrition History", COLOR_PRIMARY_NEON), BorderLayout.NORTH);
-        nutritionHistory = new JTextArea(20, 50);
-        styleTextArea(nutritionHistory, FONT_MONOSPACE);
-        JScrollPane scrollPane = new JScrollPane(nutritionHistory);
-        styleScrollPane(scrollPane);
-        historyPanel.add(scrollPane, BorderLayout.CENTER);
+        RoundedPanel historyPanel = createHistoryPanel("Nutrition History", "Filter by food", nutritionHistory);
 
         return createDataTabPanel(formPanel, historyPanel);
     }
@@ -432,18 +669,11 @@ public class SmartFitnessAppGUI extends JFrame {
         gbc.gridy++; goalStatusCombo = new JComboBox<>(new String[]{"In Progress", "Completed", "Not Started"}); styleComboBox(goalStatusCombo); formPanel.add(goalStatusCombo, gbc);
         gbc.gridx = 3; gbc.gridy = 4; gbc.fill = GridBagConstraints.NONE;
         RoundedButton addButton = new RoundedButton("Add Goal", COLOR_SECONDARY_ACCENT, COLOR_SECONDARY_ACCENT.darker());
-        addButton.addActionListener(e -> addGoal());
+        addButton.addActionListener(e -> addGoal((JButton) e.getSource()));
         formPanel.add(addButton, gbc);
 
         // History Panel
-        RoundedPanel historyPanel = new RoundedPanel(20, COLOR_PANEL);
-        historyPanel.setLayout(new BorderLayout());
-        historyPanel.add(createSectionHeader("Active Goals", COLOR_PRIMARY_NEON), BorderLayout.NORTH);
-        goalHistory = new JTextArea(20, 50);
-        styleTextArea(goalHistory, FONT_MONOSPACE);
-        JScrollPane scrollPane = new JScrollPane(goalHistory);
-        styleScrollPane(scrollPane);
-        historyPanel.add(scrollPane, BorderLayout.CENTER);
+        RoundedPanel historyPanel = createHistoryPanel("Active Goals", "Filter by description", goalHistory);
 
         return createDataTabPanel(formPanel, historyPanel);
     }
@@ -456,16 +686,13 @@ public class SmartFitnessAppGUI extends JFrame {
         gbc.fill = GridBagConstraints.BOTH;
         gbc.weightx = 1.0;
 
+        // Trend Panel
+        gbc.gridx = 0; gbc.gridy = 0; gbc.weighty = 0.8; gbc.insets = new Insets(0, 0, 20, 0);
+        progressPanel.add(createChartPanel("Weight & BMI Trend", COLOR_PRIMARY_NEON, weightChart), gbc);
+
         // History Panel
-        RoundedPanel historyPanel = new RoundedPanel(20, COLOR_PANEL);
-        historyPanel.setLayout(new BorderLayout());
-        historyPanel.add(createSectionHeader("Progress History", COLOR_PRIMARY_NEON), BorderLayout.NORTH);
-        progressHistory = new JTextArea(20, 50);
-        styleTextArea(progressHistory, FONT_MONOSPACE);
-        JScrollPane scrollPane = new JScrollPane(progressHistory);
-        styleScrollPane(scrollPane);
-        historyPanel.add(scrollPane, BorderLayout.CENTER);
-        gbc.gridx = 0; gbc.gridy = 0; gbc.weighty = 1.0;
+        RoundedPanel historyPanel = createHistoryPanel("Progress History", "Filter by date (e.g. 2024-05)", progressHistory);
+        gbc.gridy = 1; gbc.weighty = 1.0; gbc.insets = new Insets(0, 0, 0, 0);
         progressPanel.add(historyPanel, gbc);
 
         // Input Panel
@@ -478,9 +705,9 @@ public class SmartFitnessAppGUI extends JFrame {
         styleSpinner(weightSpinner);
         inputPanel.add(weightSpinner);
         RoundedButton saveButton = new RoundedButton("Save Progress", COLOR_SUCCESS, COLOR_SUCCESS.darker());
-        saveButton.addActionListener(e -> saveProgress());
+        saveButton.addActionListener(e -> saveProgress((JButton) e.getSource()));
         inputPanel.add(saveButton);
-        gbc.gridy = 1; gbc.weighty = 0; gbc.insets = new Insets(20, 0, 0, 0);
+        gbc.gridy = 2; gbc.weighty = 0; gbc.insets = new Insets(20, 0, 0, 0);
         progressPanel.add(inputPanel, gbc);
 
         return progressPanel;
@@ -492,6 +719,7 @@ public class SmartFitnessAppGUI extends JFrame {
     
     /** A custom JPanel that paints with rounded corners. */
     private static class RoundedPanel extends JPanel {
+        private static final long serialVersionUID = 1L;
         private final int cornerRadius;
         private final Color backgroundColor;
         public RoundedPanel(int radius, Color bgColor) {
@@ -502,6 +730,7 @@ public class SmartFitnessAppGUI extends JFrame {
         }
         @Override
         protected void paintComponent(Graphics g) {
+            long start = System.nanoTime();
             super.paintComponent(g);
             Dimension arcs = new Dimension(cornerRadius, cornerRadius);
             int width = getWidth();
@@ -510,11 +739,13 @@ public class SmartFitnessAppGUI extends JFrame {
             graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             graphics.setColor(backgroundColor);
             graphics.fillRoundRect(0, 0, width - 1, height - 1, arcs.width, arcs.height);
+            UiMetrics.record("paint.RoundedPanel", start);
         }
     }
 
     /** A custom JButton that is rounded and has hover effects. */
     private static class RoundedButton extends JButton {
+        private static final long serialVersionUID = 1L;
         private Color backgroundColor;
         private final Color hoverColor;
         private boolean hovered = false;
@@ -540,6 +771,7 @@ public class SmartFitnessAppGUI extends JFrame {
         
         @Override
         protected void paintComponent(Graphics g) {
+            long start = System.nanoTime();
             Graphics2D g2 = (Graphics2D) g.create();
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
@@ -553,6 +785,7 @@ public class SmartFitnessAppGUI extends JFrame {
             
             super.paintComponent(g2);
             g2.dispose();
+            UiMetrics.record("paint.RoundedButton", start);
         }
     }
 
@@ -630,6 +863,24 @@ public class SmartFitnessAppGUI extends JFrame {
         area.setBorder(null);
     }
     
+    private void styleTable(JTable table) {
+        table.setFont(FONT_NORMAL);
+        table.setBackground(COLOR_BACKGROUND);
+        table.setForeground(COLOR_TEXT_LIGHT);
+        table.setGridColor(COLOR_PANEL);
+        table.setShowVerticalLines(false);
+        table.setSelectionBackground(COLOR_SECONDARY_ACCENT.darker());
+        table.setSelectionForeground(COLOR_WHITE);
+        table.setRowHeight(26);
+        table.setFillsViewportHeight(true);
+        JTableHeader header = table.getTableHeader();
+        header.setFont(FONT_BUTTON);
+        header.setBackground(COLOR_PANEL);
+        header.setForeground(COLOR_PRIMARY_NEON);
+        header.setReorderingAllowed(false);
+        header.setCursor(new Cursor(Cursor.HAND_CURSOR));
+    }
+
     private void styleScrollPane(JScrollPane scrollPane) {
         scrollPane.setBorder(null);
         scrollPane.getViewport().setBackground(COLOR_BACKGROUND);
@@ -723,34 +974,40 @@ public class SmartFitnessAppGUI extends JFrame {
         RoundedButton registerButton = new RoundedButton("Complete Registration", COLOR_SUCCESS, COLOR_SUCCESS.darker());
         registerButton.addActionListener(e -> {
             User newUser = new User(0, nameField.getText(), (int) ageSpinner.getValue(), (String) genderCombo.getSelectedItem(), (double) heightSpinner.getValue(), (double) weightSpinnerReg.getValue(), usernameField.getText(), new String(passwordField.getPassword()));
-            if (userDAO.createUser(newUser)) {
-                JOptionPane.showMessageDialog(dialog, "Registration successful! You can now log in.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                dialog.dispose();
-            } else {
-                JOptionPane.showMessageDialog(dialog, "Registration failed. Username may already be taken.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            registerButton.setEnabled(false);
+            tasks.submit(null, "Registering", () -> userDAO().createUser(newUser), created -> {
+                if (created) {
+                    JOptionPane.showMessageDialog(dialog, "Registration successful! You can now log in.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    dialog.dispose();
+                } else {
+                    JOptionPane.showMessageDialog(dialog, "Registration failed. Username may already be taken.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }, null).whenEnded(() -> registerButton.setEnabled(true));
         });
         dialog.add(registerButton, gbc);
         dialog.setVisible(true);
     }
     
-    private void addWorkout() {
+    private void addWorkout(JButton trigger) {
         String type = workoutTypeField.getText();
         if (type.trim().isEmpty()) {
             JOptionPane.showMessageDialog(this, "Workout type cannot be empty.", "Validation Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
         Workout workout = new Workout(0, type, (int) workoutDurationSpinner.getValue(), (int) workoutSetsSpinner.getValue(), (int) workoutRepsSpinner.getValue(), (double) workoutWeightSpinner.getValue(), (double) workoutCaloriesSpinner.getValue());
-        if (workoutDAO.addWorkout(workout, currentUser.getUserID())) {
-            JOptionPane.showMessageDialog(this, "Workout added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            workoutTypeField.setText("");
-            refreshWorkouts();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to add workout.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        int userId = currentUser.getUserID();
+        save(trigger, "Saving workout", () -> workoutDAO().addWorkout(workout, userId), saved -> {
+            if (saved != null) {
+                JOptionPane.showMessageDialog(this, "Workout added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                workoutTypeField.setText("");
+                refreshTab(1);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to add workout.", "Database Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
-    private void addMeal() {
+    private void addMeal(JButton trigger) {
         String food = foodItemField.getText();
         if (food.trim().isEmpty()) {
             JOptionPane.showMessageDialog(this, "Food item cannot be empty.", "Validation Error", JOptionPane.ERROR_MESSAGE);
@@ -758,138 +1015,361 @@ public class SmartFitnessAppGUI extends JFrame {
         }
         Nutrition meal = new Nutrition(0, food, (double) nutritionCaloriesSpinner.getValue(), (double) nutritionProteinSpinner.getValue(), (double) nutritionCarbsSpinner.getValue(), (double) nutritionFatsSpinner.getValue());
         String mealTime = (String) mealTimeCombo.getSelectedItem();
-        if (nutritionDAO.addMeal(meal, currentUser.getUserID(), mealTime)) {
-            JOptionPane.showMessageDialog(this, "Meal added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            foodItemField.setText("");
-            refreshNutrition();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to add meal.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        int userId = currentUser.getUserID();
+        save(trigger, "Saving meal", () -> nutritionDAO().addMeal(meal, userId, mealTime), saved -> {
+            if (saved != null) {
+                JOptionPane.showMessageDialog(this, "Meal added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                foodItemField.setText("");
+                refreshTab(2);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to add meal.", "Database Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
-    private void addGoal() {
+    private void addGoal(JButton trigger) {
         String description = goalDescriptionField.getText();
         if (description.trim().isEmpty()) {
             JOptionPane.showMessageDialog(this, "Goal description cannot be empty.", "Validation Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
         Goal goal = new Goal(0, description, (double) goalTargetSpinner.getValue(), (double) goalCurrentSpinner.getValue(), (String) goalStatusCombo.getSelectedItem());
-        if (goalDAO.addGoal(goal, currentUser.getUserID())) {
-            JOptionPane.showMessageDialog(this, "Goal added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            goalDescriptionField.setText("");
-            refreshGoals();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to add goal.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        int userId = currentUser.getUserID();
+        save(trigger, "Saving goal", () -> goalDAO().addGoal(goal, userId), saved -> {
+            if (saved != null) {
+                JOptionPane.showMessageDialog(this, "Goal added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                goalDescriptionField.setText("");
+                refreshTab(3);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to add goal.", "Database Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
-    private void saveProgress() {
+    private void saveProgress(JButton trigger) {
         double weight = (double) weightSpinner.getValue();
         double heightInMeters = currentUser.getHeight() / 100.0;
         double bmi = (heightInMeters > 0) ? weight / (heightInMeters * heightInMeters) : 0;
         ProgressTracker progress = new ProgressTracker(0, LocalDate.now().toString(), weight, bmi);
-        if (progressDAO.addProgressEntry(progress, currentUser.getUserID())) {
-            JOptionPane.showMessageDialog(this, "Progress saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            refreshProgress();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to save progress.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        int userId = currentUser.getUserID();
+        save(trigger, "Saving progress", () -> progressDAO().addProgressEntry(progress, userId), saved -> {
+            if (saved != null) {
+                JOptionPane.showMessageDialog(this, "Progress saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                refreshTab(4);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to save progress.", "Database Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    /** Runs a write in the background with its button disabled, so a double click can't save twice. */
+    private <T> void save(JButton trigger, String description, java.util.concurrent.Callable<T> write, java.util.function.Consumer<T> onDone) {
+        trigger.setEnabled(false);
+        tasks.submit(null, description, write, onDone::accept,
+                error -> JOptionPane.showMessageDialog(this, description + " failed: " + error.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE))
+                .whenEnded(() -> trigger.setEnabled(true));
     }
 
     private void generateRecommendation() {
         if (currentUser == null) return;
-        List<Goal> goals = goalDAO.getGoalsByUser(currentUser.getUserID());
-        if (goals.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Please set at least one goal in the 'Goals' tab first.", "No Goal Set", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-        String goalDescription = goals.get(0).getDescription();
-        RecommendationEngine engine = new RecommendationEngine(currentUser, goalDescription);
-        String workoutPlan = engine.suggestWorkoutPlan();
-        String dietPlan = engine.suggestDietPlan();
-        String progressAnalysis = engine.analyzeProgress();
-        StringBuilder sb = new StringBuilder();
-        sb.append("Based on your goal: '").append(goalDescription).append("'\n\n");
-        sb.append("--- WORKOUT PLAN ---\n").append(workoutPlan).append("\n\n");
-        sb.append("--- DIET PLAN ---\n").append(dietPlan).append("\n\n");
-        sb.append("--- PROGRESS ANALYSIS ---\n").append(progressAnalysis);
-        recommendationArea.setText(sb.toString());
+        User user = currentUser;
+        recommendationButton.setEnabled(false);
+        tasks.submit("recommendation", "Preparing recommendation", () -> {
+            // The goals are tracked by TrainingStats, so this needs no database round trip once seeded.
+            TrainingStats stats = TrainingStats.of(user.getUserID());
+            List<String> goals = stats.getActiveGoals();
+            if (goals.isEmpty()) {
+                return null;
+            }
+            // One plan merged across every active goal; memoized until the profile, goals or training data change.
+            Recommendation rec = MultiGoalPlanner.recommend(user, goals, stats);
+            StringBuilder sb = new StringBuilder();
+            if (goals.size() == 1) {
+                sb.append("Based on your goal: '").append(goals.get(0)).append("'\n\n");
+            } else {
+                sb.append("Based on your goals: '").append(String.join("', '", goals)).append("'\n\n");
+            }
+            sb.append("--- WORKOUT PLAN ---\n").append(rec.getWorkoutPlan()).append("\n\n");
+            sb.append("--- DIET PLAN ---\n").append(rec.getDietPlan()).append("\n\n");
+            sb.append("--- PROGRESS ANALYSIS ---\n").append(rec.getProgressAnalysis());
+            return sb.toString();
+        }, text -> {
+            if (text == null) {
+                JOptionPane.showMessageDialog(this, "Please set at least one goal that isn't completed in the 'Goals' tab first.", "No Goal Set", JOptionPane.WARNING_MESSAGE);
+            } else {
+                recommendationArea.setText(text);
+            }
+        }, error -> recommendationArea.setText("Could not build a recommendation right now: " + error.getMessage()))
+                .whenEnded(() -> recommendationButton.setEnabled(true));
     }
     
-    private void refreshAllData() {
-        refreshDashboard();
-        refreshWorkouts();
-        refreshNutrition();
-        refreshGoals();
-        refreshProgress();
+    /** Starts every tab's load at once; each tab renders as soon as its own data arrives. */
+    private List<BackgroundTasks.Task> refreshAllData() {
+        List<BackgroundTasks.Task> loads = new java.util.ArrayList<>(TAB_LOADS.length);
+        for (int i = 0; i < TAB_LOADS.length; i++) {
+            BackgroundTasks.Task load = refreshTab(i);
+            if (load != null) {
+                loads.add(load);
+            }
+        }
+        return loads;
     }
-    
-    private void refreshDashboard() {
-        if (currentUser == null) return;
-        List<Workout> todaysWorkouts = workoutDAO.getTodaysWorkouts(currentUser.getUserID());
-        double[] nutritionTotals = nutritionDAO.getDailyNutritionTotals(currentUser.getUserID());
-        double caloriesBurned = todaysWorkouts.stream().mapToDouble(Workout::getCaloriesBurned).sum();
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("DATE: %s\n", LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")).toUpperCase()));
-        sb.append("=========================================\n");
-        sb.append(String.format("Calories Consumed : %.0f kcal\n", nutritionTotals[0]));
-        sb.append(String.format("Calories Burned   : %.0f kcal\n", caloriesBurned));
-        sb.append("-----------------------------------------\n");
-        sb.append(String.format("Protein           : %.1f g\n", nutritionTotals[1]));
-        sb.append(String.format("Carbohydrates     : %.1f g\n", nutritionTotals[2]));
-        sb.append(String.format("Fats              : %.1f g\n", nutritionTotals[3]));
-        dashboardStats.setText(sb.toString());
-    }
-
-    private void refreshWorkouts() {
-        if (currentUser == null) return;
-        List<Workout> workouts = workoutDAO.getWorkoutsByUser(currentUser.getUserID());
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("%-25s | %-10s | %-5s | %-5s | %-10s | %-10s\n", "Type", "Duration", "Sets", "Reps", "Weight", "Calories"));
-        sb.append("----------------------------------------------------------------------------------\n");
-        for (Workout w : workouts) {
-            sb.append(String.format("%-25s | %-10d | %-5d | %-5d | %-10.1f | %-10.1f\n", w.getType(), w.getDuration(), w.getSets(), w.getReps(), w.getWeight(), w.getCaloriesBurned()));
+
+    /**
+     * Fans out the post-login loads and joins them under one timeout. A load that misses the
+     * timeout is cancelled. The tab on screen retries straight away; the others reload when
+     * opened. Timings from {@code clickedNanos} go to UiMetrics as login.*. Once the loads
+     * settle, the tabs not shown yet are built in the background.
+     */
+    private void loadAfterLogin(long clickedNanos) {
+        int loginSession = ++session;
+        // Nothing from the previous session stays on screen while this one's data is on its way.
+        for (int i = 0; i < TAB_LOADS.length; i++) {
+            resetTab(i, null);
+        }
+        List<BackgroundTasks.Task> loads = refreshAllData();
+        boolean[] rendered = {false};
+        for (BackgroundTasks.Task load : loads) {
+            load.whenEnded(() -> {
+                if (!rendered[0] && !load.cancelled && session == loginSession) {
+                    rendered[0] = true;
+                    UiMetrics.record("login.firstRender", clickedNanos);
+                }
+            });
         }
-        workoutHistory.setText(sb.toString());
+        tasks.join(loads, LOGIN_LOAD_TIMEOUT, () -> {
+            if (session == loginSession) {
+                UiMetrics.record("login.criticalPath", clickedNanos);
+            }
+            buildRemainingTabs();
+        }, late -> {
+            buildRemainingTabs();
+            if (session != loginSession) {
+                return;
+            }
+            UiMetrics.record("login.criticalPath.timedOut", clickedNanos);
+            List<String> names = new java.util.ArrayList<>();
+            for (BackgroundTasks.Task load : late) {
+                names.add(load.key);
+                staleTabs.add(load.key);
+                resetTab(java.util.Arrays.asList(TAB_LOADS).indexOf(load.key), "Still loading; open this tab again to retry.");
+            }
+            System.err.println("Error loading after login: " + String.join(", ", names)
+                    + " did not arrive within " + LOGIN_LOAD_TIMEOUT.toMillis() + " ms");
+            int selected = tabbedPane.getSelectedIndex();
+            if (selected >= 0 && selected < TAB_LOADS.length && staleTabs.contains(TAB_LOADS[selected])) {
+                refreshTab(selected);
+            }
+        });
     }
 
-    private void refreshNutrition() {
-        if (currentUser == null) return;
-        List<Nutrition> meals = nutritionDAO.getMealsByUser(currentUser.getUserID());
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("%-25s | %-10s | %-10s | %-10s | %-10s\n", "Food Item", "Calories", "Protein", "Carbs", "Fats"));
-        sb.append("-------------------------------------------------------------------------------\n");
-        for (Nutrition m : meals) {
-            sb.append(String.format("%-25s | %-10.1f | %-10.1f | %-10.1f | %-10.1f\n", m.getFoodItem(), m.getCalorieIntake(), m.getProtein(), m.getCarbs(), m.getFats()));
+    /** Empties a tab and shows {@code message} in it, or that it is loading if the message is null. */
+    private void resetTab(int tab, String message) {
+        switch (tab) {
+            case 0:
+                dashboardStats.setText(message == null ? "Loading..." : message);
+                calorieChart.showMessage(message == null ? "Loading..." : message);
+                break;
+            case 1: workoutHistory.clear(message); break;
+            case 2: nutritionHistory.clear(message); break;
+            case 3: goalHistory.clear(message); break;
+            case 4:
+                progressHistory.clear(message);
+                weightChart.showMessage(message == null ? "Loading..." : message);
+                break;
+            default: break;
         }
-        nutritionHistory.setText(sb.toString());
     }
 
-    private void refreshGoals() {
-        if (currentUser == null) return;
-        List<Goal> goals = goalDAO.getGoalsByUser(currentUser.getUserID());
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("%-35s | %-15s | %-15s | %-15s\n", "Description", "Current Value", "Target Value", "Status"));
-        sb.append("-------------------------------------------------------------------------------------------\n");
-        for (Goal g : goals) {
-            sb.append(String.format("%-35s | %-15.1f | %-15.1f | %-15s\n", g.getDescription(), g.getCurrentValue(), g.getTargetValue(), g.getStatus()));
+    /** Reloads one tab. The time until it renders goes to UiMetrics as refresh.<tab>, unless it is cancelled. */
+    private BackgroundTasks.Task refreshTab(int index) {
+        long start = System.nanoTime();
+        BackgroundTasks.Task load;
+        switch (index) {
+            case 0: load = refreshDashboard(); break;
+            case 1: load = refreshWorkouts(); break;
+            case 2: load = refreshNutrition(); break;
+            case 3: load = refreshGoals(); break;
+            case 4: load = refreshProgress(); break;
+            default: load = null; break;
         }
-        goalHistory.setText(sb.toString());
+        if (load != null) {
+            load.whenEnded(() -> {
+                if (!load.cancelled) {
+                    UiMetrics.record("refresh." + TAB_LOADS[index], start);
+                    if (index == 0) {
+                        StartupTimer.reached(StartupTimer.FIRST_DASHBOARD);
+                    }
+                }
+            });
+        }
+        return load;
     }
 
-    private void refreshProgress() {
+    /**
+     * A load the user has switched away from is stale: cancel it rather than let it hold a
+     * connection, and reload that tab when it is shown again.
+     */
+    private void onTabChanged() {
+        int selected = tabbedPane.getSelectedIndex();
+        ensureTab(selected);
         if (currentUser == null) return;
-        List<ProgressTracker> progressList = progressDAO.getProgressHistory(currentUser.getUserID());
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("%-15s | %-15s | %-15s\n", "Date", "Weight (kg)", "BMI"));
-        sb.append("--------------------------------------------------\n");
-        for (ProgressTracker p : progressList) {
-            sb.append(String.format("%-15s | %-15.1f | %-15.2f\n", p.getDate(), p.getWeight(), p.getBmi()));
+        for (int i = 0; i < TAB_LOADS.length; i++) {
+            if (i != selected && tasks.isRunning(TAB_LOADS[i])) {
+                tasks.cancel(TAB_LOADS[i]);
+                staleTabs.add(TAB_LOADS[i]);
+            }
         }
-        progressHistory.setText(sb.toString());
+        if (selected >= 0 && selected < TAB_LOADS.length && staleTabs.contains(TAB_LOADS[selected])) {
+            refreshTab(selected);
+        }
+    }
+
+    /** Builds a view's text in the background and swaps it in on the EDT; a newer load of the same view wins. */
+    private BackgroundTasks.Task load(int tab, String description, java.util.concurrent.Callable<String> render, JTextArea target) {
+        staleTabs.remove(TAB_LOADS[tab]);
+        return tasks.submit(TAB_LOADS[tab], description, render, target::setText, null);
     }
     
+    private BackgroundTasks.Task refreshDashboard() {
+        if (currentUser == null) return null;
+        int userId = currentUser.getUserID();
+        tasks.submit(TAB_LOADS[0] + ":chart", "Loading calorie chart",
+                () -> calorieSeries(dailyTotalsDAO().getDailyTotalsBetween(userId, LocalDate.EPOCH, LocalDate.now())),
+                calorieChart::setSeries, null);
+        return load(0, "Loading dashboard", () -> {
+            // Served from the in-memory running totals; only the first refresh after login queries.
+            TrainingStats stats = TrainingStats.of(userId);
+            DashboardSnapshot snapshot = stats.getDashboardSnapshot();
+            DailyTotals today = snapshot.getToday();
+            DailyTotals week = stats.getLast7Days();
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("DATE: %s\n", LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")).toUpperCase()));
+            sb.append("=========================================\n");
+            sb.append(String.format("Calories Consumed : %.0f kcal\n", today.getCaloriesIn()));
+            sb.append(String.format("Calories Burned   : %.0f kcal\n", today.getCaloriesBurned()));
+            sb.append(String.format("Workouts Logged   : %d\n", today.getWorkoutCount()));
+            sb.append("-----------------------------------------\n");
+            sb.append(String.format("Protein           : %.1f g\n", today.getProtein()));
+            sb.append(String.format("Carbohydrates     : %.1f g\n", today.getCarbs()));
+            sb.append(String.format("Fats              : %.1f g\n", today.getFats()));
+            sb.append("-----------------------------------------\n");
+            if (snapshot.hasWeight()) {
+                sb.append(String.format("Latest Weight     : %.1f kg (%s)\n", snapshot.getLatestWeight(), snapshot.getLatestWeightDate()));
+                sb.append(String.format("Latest BMI        : %.2f\n", snapshot.getLatestBmi()));
+            } else {
+                sb.append("Latest Weight     : not logged yet\n");
+            }
+            sb.append("-----------------------------------------\n");
+            sb.append(String.format("Last 7 Days       : %d workout(s), %.0f kcal burned\n", week.getWorkoutCount(), week.getCaloriesBurned()));
+            sb.append(String.format("Workout Streak    : %d day(s) (best %d)\n", stats.getCurrentStreak(), stats.getLongestStreak()));
+            return sb.toString();
+        }, dashboardStats);
+    }
+
+    private BackgroundTasks.Task refreshWorkouts() {
+        if (currentUser == null) return null;
+        return workoutHistory.reload(currentUser.getUserID());
+    }
+
+    private BackgroundTasks.Task refreshNutrition() {
+        if (currentUser == null) return null;
+        return nutritionHistory.reload(currentUser.getUserID());
+    }
+
+    private BackgroundTasks.Task refreshGoals() {
+        if (currentUser == null) return null;
+        return goalHistory.reload(currentUser.getUserID());
+    }
+
+    private BackgroundTasks.Task refreshProgress() {
+        if (currentUser == null) return null;
+        int userId = currentUser.getUserID();
+        tasks.submit(TAB_LOADS[4] + ":chart", "Loading progress chart",
+                () -> progressSeries(progressDAO().getProgressHistory(userId)), weightChart::setSeries, null);
+        return progressHistory.reload(userId);
+    }
+
+    /** Calories in and burned per day, from the daily rollup (oldest first). */
+    private static List<TrendChart.Series> calorieSeries(List<DailyTotals> days) {
+        if (days.isEmpty()) {
+            return List.of();
+        }
+        double[] x = new double[days.size()];
+        double[] in = new double[days.size()];
+        double[] burned = new double[days.size()];
+        for (int i = 0; i < days.size(); i++) {
+            DailyTotals day = days.get(i);
+            x[i] = epochDay(day.getDate());
+            in[i] = day.getCaloriesIn();
+            burned[i] = day.getCaloriesBurned();
+        }
+        return List.of(new TrendChart.Series("Calories in", COLOR_PRIMARY_NEON, "%.0f kcal", false, x, in),
+                new TrendChart.Series("Calories burned", COLOR_SUCCESS, "%.0f kcal", false, x, burned));
+    }
+
+    /** Weight (left axis) and BMI (right axis) per entry; the history comes newest first. */
+    private static List<TrendChart.Series> progressSeries(List<ProgressTracker> newestFirst) {
+        int n = newestFirst.size();
+        if (n == 0) {
+            return List.of();
+        }
+        double[] x = new double[n];
+        double[] weight = new double[n];
+        double[] bmi = new double[n];
+        for (int i = 0; i < n; i++) {
+            ProgressTracker entry = newestFirst.get(n - 1 - i);
+            x[i] = epochDay(entry.getDate());
+            weight[i] = entry.getWeight();
+            bmi[i] = entry.getBmi();
+        }
+        return List.of(new TrendChart.Series("Weight (kg)", COLOR_PRIMARY_NEON, "%.1f kg", false, x, weight),
+                new TrendChart.Series("BMI", COLOR_SUCCESS, "%.1f", true, x, bmi));
+    }
+
+    private static double epochDay(String date) {
+        return LocalDate.parse(date.substring(0, 10)).toEpochDay();
+    }
+
+    /** The busy label and bar for the main card's header; hidden until a task is running. */
+    private void createBusyIndicator() {
+        busyLabel = new JLabel();
+        busyLabel.setFont(FONT_NORMAL);
+        busyLabel.setForeground(COLOR_TEXT_MEDIUM);
+        busyBar = new JProgressBar();
+        busyBar.setIndeterminate(true);
+        busyBar.setPreferredSize(new Dimension(120, 6));
+        busyBar.setBorderPainted(false);
+        busyBar.setForeground(COLOR_PRIMARY_NEON);
+        busyBar.setBackground(COLOR_PANEL);
+        busyLabel.setVisible(false);
+        busyBar.setVisible(false);
+    }
+
+    private void showBusy(int running, String latest) {
+        busyBar.setVisible(running > 0);
+        busyLabel.setVisible(running > 0);
+        if (running > 0) {
+            busyLabel.setText(running > 1 ? latest + "... (+" + (running - 1) + " more)" : latest + "...");
+        }
+    }
+
     public static void main(String[] args) {
+        StartupTimer.started();
+        // Times every EDT event and logs stack samples when one stalls the UI.
+        EdtWatchdog.install();
+
+        // Warm up the storage backend while the window is being built, so login doesn't wait on it.
+        Thread poolWarmUp = new Thread(() -> {
+            try {
+                DaoFactory.get().initialize();
+            } catch (java.sql.SQLException | IllegalStateException e) {
+                System.err.println("Error initializing database: " + e.getMessage());
+            }
+        }, "db-pool-warmup");
+        poolWarmUp.setDaemon(true);
+        poolWarmUp.start();
+
         SwingUtilities.invokeLater(() -> {
             new SmartFitnessAppGUI().setVisible(true);
         });
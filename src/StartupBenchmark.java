@@ -0,0 +1,177 @@
+import javax.swing.SwingUtilities;
+import java.awt.Frame;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start benchmark for the GUI. Each run starts a fresh JVM, which opens the app, waits
+ * for the login screen, signs in as the given user and waits for the first dashboard. It
+ * reports the time from main() to the login screen and to the first dashboard, plus the JVM's
+ * own boot time before main(). Needs a display and an existing account.
+ *
+ * <p>With {@code -Dstartup.cds=app.jsa} the runs use that class-data sharing archive. If the
+ * archive doesn't exist yet, one training run creates it first (-XX:ArchiveClassesAtExit). The
+ * JVM only archives classes from jars, so run from a jar for this. The app can then be started
+ * with {@code -XX:SharedArchiveFile=app.jsa} and the same class path. Extra JVM options for
+ * every run go in {@code -Dstartup.jvmArgs}. db.* and ui.* properties are passed on to each run.
+ * Usage: java StartupBenchmark username password [runs]
+ */
+public final class StartupBenchmark {
+    private static final String ONCE = "--once";
+    private static final String RESULT = "STARTUP ";
+    private static final Duration TIMEOUT = Duration.ofSeconds(Integer.getInteger("startup.timeoutSec", 60));
+
+    /** One run's timings, in milliseconds. */
+    private static final class Run {
+        final long jvmBoot;
+        final long loginScreen;
+        final long firstDashboard;
+
+        Run(long jvmBoot, long loginScreen, long firstDashboard) {
+            this.jvmBoot = jvmBoot;
+            this.loginScreen = loginScreen;
+            this.firstDashboard = firstDashboard;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("login screen %5d ms, first dashboard %5d ms (JVM boot before main %d ms)",
+                    loginScreen, firstDashboard, jvmBoot);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && ONCE.equals(args[0])) {
+            runOnce(args[1], args[2]);
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: java StartupBenchmark username password [runs]");
+            System.exit(2);
+        }
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        List<String> jvmArgs = new ArrayList<>();
+        String extra = System.getProperty("startup.jvmArgs", "").trim();
+        if (!extra.isEmpty()) {
+            jvmArgs.addAll(Arrays.asList(extra.split("\\s+")));
+        }
+        String cds = System.getProperty("startup.cds");
+        if (cds != null) {
+            String directory = classPathDirectory();
+            if (directory != null) {
+                System.err.println("Error: class-data sharing needs the app on the class path as jar files, not "
+                        + directory + " (e.g. jar cf smart-fitness.jar -C out .)");
+                System.exit(2);
+            }
+            Path archive = Paths.get(cds).toAbsolutePath();
+            if (!Files.exists(archive)) {
+                System.out.println("Creating class-data sharing archive " + archive + "...");
+                List<String> training = new ArrayList<>(jvmArgs);
+                training.add("-XX:ArchiveClassesAtExit=" + archive);
+                if (launch(training, args[0], args[1]) == null || !Files.exists(archive)) {
+                    System.err.println("Error creating class-data sharing archive " + archive);
+                    System.exit(1);
+                }
+            }
+            jvmArgs.add("-XX:SharedArchiveFile=" + archive);
+        }
+
+        List<Run> results = new ArrayList<>();
+        for (int i = 1; i <= runs; i++) {
+            Run run = launch(jvmArgs, args[0], args[1]);
+            if (run == null) {
+                System.exit(1);
+            }
+            results.add(run);
+            System.out.println("Run " + i + ": " + run);
+        }
+        long[] login = results.stream().mapToLong(r -> r.loginScreen).sorted().toArray();
+        long[] dashboard = results.stream().mapToLong(r -> r.firstDashboard).sorted().toArray();
+        System.out.printf("Login screen:    median %d ms, best %d ms%n", login[login.length / 2], login[0]);
+        System.out.printf("First dashboard: median %d ms, best %d ms%n", dashboard[dashboard.length / 2], dashboard[0]);
+    }
+
+    /** Runs the app once in a new JVM; null if the run failed (the reason is on stderr). */
+    private static Run launch(List<String> jvmArgs, String username, String password) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("db.") || name.startsWith("ui.")) {
+                command.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupBenchmark.class.getName());
+        command.addAll(List.of(ONCE, username, password));
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        Run run = null;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith(RESULT)) {
+                    long[] ms = Arrays.stream(line.substring(RESULT.length()).trim().split(" ")).mapToLong(Long::parseLong).toArray();
+                    run = new Run(ms[0], ms[1], ms[2]);
+                }
+            }
+        }
+        if (!process.waitFor(TIMEOUT.toMillis() + 10_000, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            System.err.println("Error in startup run: it did not exit");
+            return null;
+        }
+        return process.exitValue() == 0 ? run : null;
+    }
+
+    /** The first directory on the class path, or null if it is all jars; the JVM won't archive from directories. */
+    private static String classPathDirectory() {
+        for (String entry : System.getProperty("java.class.path").split(java.io.File.pathSeparator)) {
+            if (Files.isDirectory(Paths.get(entry))) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static void runOnce(String username, String password) throws Exception {
+        SmartFitnessAppGUI.main(new String[0]);
+        Duration loginScreen = StartupTimer.await(StartupTimer.LOGIN_SCREEN, TIMEOUT);
+        if (loginScreen == null) {
+            fail("the login screen did not appear within " + TIMEOUT.getSeconds() + " s");
+        }
+        SwingUtilities.invokeAndWait(() -> {
+            for (Frame frame : Frame.getFrames()) {
+                if (frame instanceof SmartFitnessAppGUI) {
+                    ((SmartFitnessAppGUI) frame).signIn(username, password);
+                }
+            }
+        });
+        Duration firstDashboard = StartupTimer.await(StartupTimer.FIRST_DASHBOARD, TIMEOUT);
+        if (firstDashboard == null) {
+            fail("no dashboard within " + TIMEOUT.getSeconds() + " s of signing in (wrong password?)");
+        }
+        // Read only now, so loading the management classes isn't part of the timings.
+        long sinceMain = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) - StartupTimer.startedAtMillis();
+        long jvmBoot = Math.max(0, ManagementFactory.getRuntimeMXBean().getUptime() - sinceMain);
+        System.out.println(RESULT + jvmBoot + " " + loginScreen.toMillis() + " " + firstDashboard.toMillis());
+        System.exit(0);
+    }
+
+    private static void fail(String why) {
+        System.err.println("Error in startup run: " + why);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,64 @@
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup milestones, timed from the moment main() is entered: the login screen showing, then
+ * the first dashboard rendering after login. Each milestone counts once per run. It also goes to
+ * {@link UiMetrics} as {@code startup.<milestone>}, so it shows up in the UI log and in JFR.
+ * In a real session the first dashboard includes however long the user took to sign in;
+ * {@link StartupBenchmark} signs in straight away.
+ */
+final class StartupTimer {
+    static final String LOGIN_SCREEN = "loginScreen";
+    static final String FIRST_DASHBOARD = "firstDashboard";
+
+    private static volatile long start = System.nanoTime();
+    private static final Map<String, Duration> reached = new LinkedHashMap<>();
+    private static final Map<String, CountDownLatch> waiting = new LinkedHashMap<>();
+
+    private StartupTimer() {}
+
+    /** Marks the start of the run; call first thing in main(). */
+    static void started() {
+        start = System.nanoTime();
+    }
+
+    /** Records a milestone the first time it is reached; later calls are ignored. */
+    static void reached(String milestone) {
+        long now = System.nanoTime();
+        synchronized (StartupTimer.class) {
+            if (reached.containsKey(milestone)) {
+                return;
+            }
+            reached.put(milestone, Duration.ofNanos(now - start));
+            latch(milestone).countDown();
+        }
+        UiMetrics.record("startup." + milestone, start);
+    }
+
+    /** When the run started, as {@link System#nanoTime()} in milliseconds. */
+    static long startedAtMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(start);
+    }
+
+    /** When the milestone was reached, or null if it hasn't been. */
+    static synchronized Duration get(String milestone) {
+        return reached.get(milestone);
+    }
+
+    /** Waits up to {@code timeout} for the milestone. Returns its time, or null if it didn't come. */
+    static Duration await(String milestone, Duration timeout) throws InterruptedException {
+        CountDownLatch latch;
+        synchronized (StartupTimer.class) {
+            latch = latch(milestone);
+        }
+        return latch.await(timeout.toMillis(), TimeUnit.MILLISECONDS) ? get(milestone) : null;
+    }
+
+    private static CountDownLatch latch(String milestone) {
+        return waiting.computeIfAbsent(milestone, k -> new CountDownLatch(1));
+    }
+}
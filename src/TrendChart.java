@@ -0,0 +1,376 @@
+import javax.swing.JComponent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A Java2D line chart of daily series over time, e.g. weight and BMI, or calories in and out.
+ * A series can go on the right axis with its own scale, so kilograms and BMI can share a chart.
+ *
+ * <p>Each series is cut down with {@link Downsampling#lttb} to about one point per pixel of
+ * plot width, so years of daily entries draw as fast as a month of them. The axes, grid and
+ * lines are rendered once into a {@link BufferedImage}. Repaints just copy it, and only new
+ * data or a new size renders again. The hover marker is drawn over the copy on each paint.
+ * Only touched on the EDT.
+ */
+final class TrendChart extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    /** One line: a value per day, oldest first. Days are epoch days. */
+    static final class Series {
+        final String name;
+        final Color color;
+        final String format;
+        final boolean rightAxis;
+        final double[] days;
+        final double[] values;
+
+        /** @param format how the hover marker shows a value, e.g. {@code "%.1f kg"} */
+        Series(String name, Color color, String format, boolean rightAxis, double[] days, double[] values) {
+            if (days.length != values.length) {
+                throw new IllegalArgumentException("A series needs one value per day.");
+            }
+            this.name = name;
+            this.color = color;
+            this.format = format;
+            this.rightAxis = rightAxis;
+            this.days = days;
+            this.values = values;
+        }
+    }
+
+    private static final int PAD = 16;
+    private static final int AXIS_WIDTH = 56;
+    private static final int GRID_LINES = 4;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("MMM d, yyyy");
+
+    private final String emptyText;
+    private final Color gridColor;
+    private final Color textColor;
+    private List<Series> series = List.of();
+    private String message;
+
+    // The last rendering, and the size and device scale it was rendered for.
+    private BufferedImage cache;
+    private int cacheWidth;
+    private int cacheHeight;
+    private double cacheScale;
+
+    // Where the cached rendering put the plot and what it maps onto it; the hover reads these.
+    private boolean plotted;
+    private int plotLeft;
+    private int plotRight;
+    private int plotTop;
+    private int plotBottom;
+    private double firstDay;
+    private double lastDay;
+    private double[] leftRange;
+    private double[] rightRange;
+    private int hoverX = -1;
+
+    /** @param emptyText shown when there is nothing to plot, e.g. "No progress logged yet." */
+    TrendChart(String emptyText, Color gridColor, Color textColor, Font font) {
+        this.emptyText = emptyText;
+        this.gridColor = gridColor;
+        this.textColor = textColor;
+        setFont(font);
+        setOpaque(false);
+        MouseAdapter hover = new MouseAdapter() {
+            @Override public void mouseMoved(MouseEvent e) { hoverX = e.getX(); repaint(); }
+            @Override public void mouseExited(MouseEvent e) { hoverX = -1; repaint(); }
+        };
+        addMouseListener(hover);
+        addMouseMotionListener(hover);
+    }
+
+    /** Plots these series in place of whatever was there; an empty list shows the empty text. */
+    void setSeries(List<Series> series) {
+        this.series = new ArrayList<>(series);
+        this.message = null;
+        invalidateCache();
+    }
+
+    /** Drops the data and shows {@code message} instead, e.g. while loading. */
+    void showMessage(String message) {
+        this.series = List.of();
+        this.message = message;
+        invalidateCache();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        Graphics2D g2 = (Graphics2D) g;
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        // Render at the screen's pixel density (e.g. 2x on HiDPI), so the copy is 1:1.
+        double scale = g2.getTransform().getScaleX();
+        if (cache == null || cacheWidth != width || cacheHeight != height || cacheScale != scale) {
+            render(width, height, scale);
+        }
+        g2.drawImage(cache, 0, 0, width, height, null);
+        paintHover(g2);
+        UiMetrics.record("paint.TrendChart", start);
+    }
+
+    private void invalidateCache() {
+        cache = null;
+        repaint();
+    }
+
+    private void render(int width, int height, double scale) {
+        long start = System.nanoTime();
+        int pixelWidth = Math.max(1, (int) Math.ceil(width * scale));
+        int pixelHeight = Math.max(1, (int) Math.ceil(height * scale));
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(pixelWidth, pixelHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.scale(scale, scale);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(getFont());
+            renderChart(g, width, height, scale);
+        } finally {
+            g.dispose();
+        }
+        cache = image;
+        cacheWidth = width;
+        cacheHeight = height;
+        cacheScale = scale;
+        UiMetrics.record("render.TrendChart", start);
+    }
+
+    private void renderChart(Graphics2D g, int width, int height, double scale) {
+        plotted = false;
+        FontMetrics fm = g.getFontMetrics();
+        boolean hasData = false;
+        boolean hasRight = false;
+        for (Series s : series) {
+            hasData |= s.days.length > 0;
+            hasRight |= s.rightAxis && s.days.length > 0;
+        }
+        if (!hasData) {
+            String text = message != null ? message : emptyText;
+            g.setColor(textColor);
+            g.drawString(text, (width - fm.stringWidth(text)) / 2, height / 2);
+            return;
+        }
+
+        int left = AXIS_WIDTH;
+        int right = width - (hasRight ? AXIS_WIDTH : PAD);
+        int top = PAD + fm.getHeight();
+        int bottom = height - PAD - fm.getHeight();
+        if (right - left < 10 || bottom - top < 10) {
+            return;
+        }
+        double firstDay = Double.MAX_VALUE;
+        double lastDay = -Double.MAX_VALUE;
+        for (Series s : series) {
+            if (s.days.length > 0) {
+                firstDay = Math.min(firstDay, s.days[0]);
+                lastDay = Math.max(lastDay, s.days[s.days.length - 1]);
+            }
+        }
+        if (lastDay == firstDay) {
+            // A single day still gets a visible width.
+            firstDay -= 1;
+            lastDay += 1;
+        }
+        double[] leftRange = range(false);
+        double[] rightRange = range(true);
+
+        // Grid and value labels
+        g.setStroke(new BasicStroke(1f));
+        for (int i = 0; i <= GRID_LINES; i++) {
+            int y = bottom - i * (bottom - top) / GRID_LINES;
+            g.setColor(gridColor);
+            g.drawLine(left, y, right, y);
+            g.setColor(textColor);
+            if (leftRange != null) {
+                String label = axisLabel(leftRange, i);
+                g.drawString(label, left - 6 - fm.stringWidth(label), y + fm.getAscent() / 2);
+            }
+            if (rightRange != null) {
+                g.drawString(axisLabel(rightRange, i), right + 6, y + fm.getAscent() / 2);
+            }
+        }
+
+        // Date labels: first, middle and last day
+        g.setColor(textColor);
+        int labelY = bottom + 4 + fm.getAscent();
+        String first = LocalDate.ofEpochDay((long) firstDay).format(DAY);
+        String middle = LocalDate.ofEpochDay((long) ((firstDay + lastDay) / 2)).format(DAY);
+        String last = LocalDate.ofEpochDay((long) lastDay).format(DAY);
+        g.drawString(first, left, labelY);
+        g.drawString(middle, (left + right - fm.stringWidth(middle)) / 2, labelY);
+        g.drawString(last, right - fm.stringWidth(last), labelY);
+
+        // Legend
+        int legendX = left;
+        for (Series s : series) {
+            g.setColor(s.color);
+            g.fillRect(legendX, PAD + fm.getAscent() / 2 - 2, 14, 4);
+            g.setColor(textColor);
+            g.drawString(s.name, legendX + 20, PAD + fm.getAscent() - 2);
+            legendX += 20 + fm.stringWidth(s.name) + 24;
+        }
+
+        // Lines, one kept point per device pixel of plot width at most
+        int threshold = (int) ((right - left) * scale);
+        g.setStroke(new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        for (int k = 0; k < series.size(); k++) {
+            Series s = series.get(k);
+            double[] r = s.rightAxis ? rightRange : leftRange;
+            int[] kept = Downsampling.lttb(s.days, s.values, threshold);
+            double[] xs = new double[kept.length];
+            double[] ys = new double[kept.length];
+            Path2D.Double line = new Path2D.Double(Path2D.WIND_NON_ZERO, kept.length);
+            for (int i = 0; i < kept.length; i++) {
+                xs[i] = left + (s.days[kept[i]] - firstDay) / (lastDay - firstDay) * (right - left);
+                ys[i] = bottom - (s.values[kept[i]] - r[0]) / (r[1] - r[0]) * (bottom - top);
+                if (i == 0) {
+                    line.moveTo(xs[i], ys[i]);
+                } else {
+                    line.lineTo(xs[i], ys[i]);
+                }
+            }
+            g.setColor(s.color);
+            if (kept.length == 1) {
+                g.fillOval((int) xs[0] - 3, (int) ys[0] - 3, 6, 6);
+            } else if (kept.length > 1) {
+                g.draw(line);
+            }
+        }
+
+        plotLeft = left;
+        plotRight = right;
+        plotTop = top;
+        plotBottom = bottom;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.leftRange = leftRange;
+        this.rightRange = rightRange;
+        plotted = true;
+    }
+
+    /**
+     * Draws the marker on the logged day nearest the mouse, with each series' value on that day.
+     * The day and values come from the full series, not the downsampled points, so every series
+     * reports the same day and a series with nothing logged that day is left out.
+     */
+    private void paintHover(Graphics2D g) {
+        if (hoverX < 0 || !plotted) {
+            return;
+        }
+        double mouseDay = firstDay + (hoverX - plotLeft) / (double) (plotRight - plotLeft) * (lastDay - firstDay);
+        double day = Double.NaN;
+        for (Series s : series) {
+            if (s.days.length > 0) {
+                double candidate = s.days[nearest(s.days, mouseDay)];
+                if (Double.isNaN(day) || Math.abs(candidate - mouseDay) < Math.abs(day - mouseDay)) {
+                    day = candidate;
+                }
+            }
+        }
+        if (Double.isNaN(day)) {
+            return;
+        }
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(getFont());
+        FontMetrics fm = g.getFontMetrics();
+        int markerX = (int) Math.round(plotLeft + (day - firstDay) / (lastDay - firstDay) * (plotRight - plotLeft));
+        g.setColor(gridColor.brighter());
+        g.drawLine(markerX, plotTop, markerX, plotBottom);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(LocalDate.ofEpochDay((long) day).format(DAY));
+        for (Series s : series) {
+            int i = Arrays.binarySearch(s.days, day);
+            if (i < 0) {
+                continue;
+            }
+            double[] r = s.rightAxis ? rightRange : leftRange;
+            int y = (int) Math.round(plotBottom - (s.values[i] - r[0]) / (r[1] - r[0]) * (plotBottom - plotTop));
+            lines.add(s.name + ": " + String.format(s.format, s.values[i]));
+            g.setColor(s.color);
+            g.fillOval(markerX - 4, y - 4, 8, 8);
+        }
+
+        int boxWidth = 0;
+        for (String line : lines) {
+            boxWidth = Math.max(boxWidth, fm.stringWidth(line));
+        }
+        boxWidth += 12;
+        int boxHeight = lines.size() * fm.getHeight() + 8;
+        int boxX = markerX + 10 + boxWidth < getWidth() ? markerX + 10 : markerX - 10 - boxWidth;
+        int boxY = plotTop;
+        g.setColor(new Color(0, 0, 0, 180));
+        g.fillRoundRect(boxX, boxY, boxWidth, boxHeight, 8, 8);
+        g.setColor(textColor);
+        for (int i = 0; i < lines.size(); i++) {
+            g.drawString(lines.get(i), boxX + 6, boxY + 4 + fm.getAscent() + i * fm.getHeight());
+        }
+    }
+
+    /** Min and max of one axis's series with a little headroom, or null if no series uses it. */
+    private double[] range(boolean rightAxis) {
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (Series s : series) {
+            if (s.rightAxis != rightAxis) {
+                continue;
+            }
+            for (double v : s.values) {
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+        }
+        if (min > max) {
+            return null;
+        }
+        double margin = max > min ? (max - min) * 0.05 : Math.max(1, Math.abs(max) * 0.05);
+        return new double[] {min - margin, max + margin};
+    }
+
+    private static String axisLabel(double[] range, int line) {
+        double value = range[0] + line * (range[1] - range[0]) / GRID_LINES;
+        return range[1] - range[0] >= 20 ? String.format("%.0f", value) : String.format("%.1f", value);
+    }
+
+    /** Index of the value in the ascending {@code xs} closest to {@code x}. */
+    private static int nearest(double[] xs, double x) {
+        int i = Arrays.binarySearch(xs, x);
+        if (i >= 0) {
+            return i;
+        }
+        int after = -i - 1;
+        if (after == 0) {
+            return 0;
+        }
+        if (after == xs.length) {
+            return xs.length - 1;
+        }
+        return x - xs[after - 1] <= xs[after] - x ? after - 1 : after;
+    }
+}
@@ -0,0 +1,116 @@
+import database.LatencyHistogram;
+import database.OperationStats;
+import jdk.jfr.EventType;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms for work done on the event dispatch thread: paints, EDT events, tab
+ * refreshes and the steps from the login click to the loaded tabs. It is the GUI's
+ * counterpart to DaoMetrics. Usage:
+ * {@code long start = System.nanoTime(); ...; UiMetrics.record("paint.RoundedPanel", start);}.
+ *
+ * <p>Each timing also becomes a {@link UiTimingEvent} when a Flight Recorder recording enables
+ * it. The histograms are appended to a local log every {@code ui.metrics.logIntervalSec}
+ * seconds and at exit. The log is {@code ui.log}, by default ui-performance.log in the working
+ * directory. {@link EdtWatchdog}'s stall reports go to the same log.
+ */
+final class UiMetrics {
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final EventType TIMING_EVENT = EventType.getEventType(UiTimingEvent.class);
+    private static final Path LOG = Paths.get(System.getProperty("ui.log", "ui-performance.log"));
+    private static volatile boolean logFailed;
+
+    private UiMetrics() {}
+
+    /** Records the time from {@code startNanos} (a {@link System#nanoTime()} reading) until now. */
+    static void record(String operation, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        LatencyHistogram histogram = HISTOGRAMS.get(operation);
+        if (histogram == null) {
+            histogram = HISTOGRAMS.computeIfAbsent(operation, k -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+        if (TIMING_EVENT.isEnabled()) {
+            UiTimingEvent event = new UiTimingEvent();
+            event.operation = operation;
+            event.took = nanos;
+            event.commit();
+        }
+    }
+
+    /** Histograms by operation name, sorted. */
+    static List<OperationStats> getOperations() {
+        List<OperationStats> result = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> e : new TreeMap<>(HISTOGRAMS).entrySet()) {
+            LatencyHistogram h = e.getValue();
+            result.add(new OperationStats(e.getKey(), h.getCount(), 0, 0, h.getMeanMicros(),
+                    h.percentileMicros(50), h.percentileMicros(99), h.getMaxMicros()));
+        }
+        return result;
+    }
+
+    /** One line per operation. */
+    static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (OperationStats stats : getOperations()) {
+            sb.append(stats).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends the histograms to the log every {@code intervalSeconds} (0 for never) and once
+     * more at exit. Call once, at startup.
+     */
+    static void startLogging(int intervalSeconds) {
+        Runtime.getRuntime().addShutdownHook(new Thread(UiMetrics::logSummary, "ui-metrics-shutdown"));
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        Thread writer = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(intervalSeconds * 1000L);
+                    logSummary();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "ui-metrics-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Appends a timestamped entry to the local UI log. Safe to call from any thread. */
+    static synchronized void log(String entry) {
+        try (Writer out = Files.newBufferedWriter(LOG, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(LocalDateTime.now() + " " + entry);
+            out.write(System.lineSeparator());
+        } catch (IOException e) {
+            // Say so once; the histograms and JFR events still work without the file.
+            if (!logFailed) {
+                logFailed = true;
+                System.err.println("Error writing UI log " + LOG.toAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void logSummary() {
+        if (!HISTOGRAMS.isEmpty()) {
+            log("UI timings:" + System.lineSeparator() + summary().stripTrailing());
+        }
+    }
+}
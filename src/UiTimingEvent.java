@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event emitted for every timed paint, EDT event, tab refresh and login step.
+ * Disabled unless a recording enables it with {@code ui.Timing#enabled=true}. The timing
+ * is taken before the event is created, so it is carried in {@code took} rather than in
+ * the event's own duration.
+ */
+@Name("ui.Timing")
+@Label("UI Timing")
+@Category({"Smart Fitness", "UI"})
+@Description("One paint, EDT event, tab refresh or login step")
+@StackTrace(false)
+@Enabled(false)
+final class UiTimingEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Took")
+    @Timespan(Timespan.NANOSECONDS)
+    long took;
+}
@@ -0,0 +1,81 @@
+package database;
+
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Shared JDBC batching loop for the DAOs' multi-row insert methods.
+ * Rows are sent in chunks of {@code batchSize} and committed together at the end.
+ */
+final class BatchInserter {
+
+    /** Binds one row's values onto the INSERT statement. */
+    interface RowBinder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    /** Extra work to do in the same transaction once all rows are in (e.g. updating a rollup). */
+    interface AfterInsert<T> {
+        void apply(Connection connection, List<T> rows) throws SQLException;
+    }
+
+    private BatchInserter() {}
+
+    static <T> BatchResult insertAll(String sql, List<T> rows, int batchSize, RowBinder<T> binder, String what) {
+        return insertAll(sql, rows, batchSize, binder, null, what);
+    }
+
+    static <T> BatchResult insertAll(String sql, List<T> rows, int batchSize, RowBinder<T> binder,
+                                     AfterInsert<T> afterInsert, String what) {
+        if (rows == null || rows.isEmpty()) {
+            return new BatchResult(new int[0], new int[0]);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+
+        int[] updateCounts = new int[rows.size()];
+        int[] generatedIds = new int[rows.size()];
+
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int chunkStart = 0;
+                for (int i = 0; i < rows.size(); i++) {
+                    binder.bind(stmt, rows.get(i));
+                    stmt.addBatch();
+                    if (i - chunkStart + 1 == batchSize || i == rows.size() - 1) {
+                        int[] counts = stmt.executeBatch();
+                        System.arraycopy(counts, 0, updateCounts, chunkStart, counts.length);
+                        readGeneratedKeys(stmt, counts, generatedIds, chunkStart);
+                        chunkStart = i + 1;
+                    }
+                }
+                if (afterInsert != null) {
+                    afterInsert.apply(connection, rows);
+                }
+                connection.commit();
+                return new BatchResult(updateCounts, generatedIds);
+            } catch (SQLException e) {
+                connection.rollback();
+                System.err.println("Error adding " + what + " batch: " + e.getMessage());
+                return BatchResult.failed(rows.size(), e.getMessage());
+            }
+        } catch (SQLException e) {
+            System.err.println("Error adding " + what + " batch: " + e.getMessage());
+            return BatchResult.failed(rows.size(), e.getMessage());
+        }
+    }
+
+    /** Generated keys come back in row order, one per row that was actually inserted. */
+    private static void readGeneratedKeys(PreparedStatement stmt, int[] counts, int[] ids, int offset) throws SQLException {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            for (int j = 0; j < counts.length; j++) {
+                boolean inserted = counts[j] > 0 || counts[j] == Statement.SUCCESS_NO_INFO;
+                if (inserted && keys.next()) {
+                    ids[offset + j] = keys.getInt(1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package database;
+
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Outcome of one of the batch insert methods (addWorkouts, addMeals, addProgressEntries).
+ * The whole batch runs in one transaction, so either every row is inserted or none is.
+ */
+public class BatchResult {
+    private final boolean success;
+    private final int[] updateCounts;
+    private final int[] generatedIds;
+    private final String errorMessage;
+
+    BatchResult(int[] updateCounts, int[] generatedIds) {
+        this.success = true;
+        this.updateCounts = updateCounts;
+        this.generatedIds = generatedIds;
+        this.errorMessage = null;
+    }
+
+    private BatchResult(int rowCount, String errorMessage) {
+        this.success = false;
+        this.updateCounts = new int[rowCount];
+        Arrays.fill(this.updateCounts, Statement.EXECUTE_FAILED);
+        this.generatedIds = new int[rowCount];
+        this.errorMessage = errorMessage;
+    }
+
+    static BatchResult failed(int rowCount, String errorMessage) {
+        return new BatchResult(rowCount, errorMessage);
+    }
+
+    /** Every row inserted, with the given IDs in row order. */
+    static BatchResult allInserted(int[] generatedIds) {
+        int[] updateCounts = new int[generatedIds.length];
+        Arrays.fill(updateCounts, 1);
+        return new BatchResult(updateCounts, generatedIds);
+    }
+
+    public boolean isSuccess() { return success; }
+    public int size() { return updateCounts.length; }
+    public String getErrorMessage() { return errorMessage; }
+
+    /** True if row {@code index} (in the order it was passed in) was written. */
+    public boolean isRowInserted(int index) {
+        int count = updateCounts[index];
+        return count > 0 || count == Statement.SUCCESS_NO_INFO;
+    }
+
+    /** The auto-increment ID of row {@code index}, or 0 if the row wasn't inserted. */
+    public int getGeneratedId(int index) {
+        return generatedIds[index];
+    }
+
+    public int[] getGeneratedIds() {
+        return generatedIds.clone();
+    }
+
+    public int getInsertedCount() {
+        int inserted = 0;
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (isRowInserted(i)) inserted++;
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,269 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * A small bounded JDBC connection pool used behind {@link DatabaseConnection}.
+ * Callers get a proxy whose close() hands the physical connection back to the pool,
+ * so the existing try-with-resources code in the DAOs works unchanged.
+ */
+final class ConnectionPool {
+    private final String url;
+    private final Properties props;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final long validationIntervalMs;
+    private final long leakThresholdMs;
+
+    // One permit per connection that may be handed out at the same time.
+    private final Semaphore permits;
+    // Most recently returned connection sits at the head, so hot connections get reused first.
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    ConnectionPool(String url, Properties props, int maxSize, long borrowTimeoutMs,
+                   long validationIntervalMs, long leakThresholdMs) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive.");
+        }
+        this.url = url;
+        this.props = props;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.permits = new Semaphore(maxSize, true);
+
+        if (leakThresholdMs > 0) {
+            housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-pool-leak-detector");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1000, leakThresholdMs / 2);
+            housekeeper.scheduleAtFixedRate(this::reportLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            housekeeper = null;
+        }
+    }
+
+    /** Opens up to {@code count} physical connections ahead of the first request. */
+    void warmUp(int count) throws SQLException {
+        int target = Math.min(count, maxSize);
+        while (idle.size() + borrowed.size() < target) {
+            idle.offerLast(open());
+        }
+    }
+
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMs + " ms waiting for a database connection ("
+                        + borrowed.size() + "/" + maxSize + " in use).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null && !isUsable(pc)) {
+                pc.closePhysical();
+            }
+            if (pc == null) {
+                pc = open();
+            }
+            pc.onBorrow(leakThresholdMs > 0 ? new Throwable("Connection acquired here") : null);
+            borrowed.add(pc);
+            return pc.newLease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    int getIdleCount() { return idle.size(); }
+    int getActiveCount() { return borrowed.size(); }
+    int getMaxSize() { return maxSize; }
+
+    void shutdown() {
+        closed = true;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            pc.closePhysical();
+        }
+        // Borrowed connections are closed as they come back.
+    }
+
+    private PooledConnection open() throws SQLException {
+        return new PooledConnection(DriverManager.getConnection(url, props));
+    }
+
+    /** Connections that sat idle longer than the validation interval are pinged before reuse. */
+    private boolean isUsable(PooledConnection pc) {
+        try {
+            if (pc.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pc.lastReturnedAt < validationIntervalMs) {
+                return true;
+            }
+            return pc.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        if (!borrowed.remove(pc)) {
+            return;
+        }
+        try {
+            boolean healthy = pc.resetState();
+            if (closed || !healthy) {
+                pc.closePhysical();
+            } else {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reportLeaks() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pc : borrowed) {
+            if (!pc.leakReported && pc.acquiredAt > 0 && now - pc.acquiredAt > leakThresholdMs) {
+                pc.leakReported = true;
+                System.err.println("Possible connection leak: connection held for " + (now - pc.acquiredAt)
+                        + " ms without being closed.");
+                if (pc.acquiredStack != null) {
+                    pc.acquiredStack.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /** A physical connection plus the bookkeeping the pool needs for it. */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final int defaultIsolation;
+        private volatile long acquiredAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile Throwable acquiredStack;
+        private volatile boolean leakReported;
+        private volatile boolean dirty;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+
+        void onBorrow(Throwable stack) {
+            acquiredAt = System.currentTimeMillis();
+            acquiredStack = stack;
+            leakReported = false;
+        }
+
+        /**
+         * Each borrow gets its own proxy, so a handle that was already closed
+         * can't reach the physical connection after someone else has borrowed it.
+         */
+        Connection newLease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new Lease(this));
+        }
+
+        /** Undoes anything a caller changed so the next borrower gets a clean connection. */
+        boolean resetState() {
+            acquiredStack = null;
+            if (!dirty) {
+                return true;
+            }
+            try {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.setReadOnly(false);
+                physical.setTransactionIsolation(defaultIsolation);
+                dirty = false;
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Discarding pooled connection that could not be reset: " + e.getMessage());
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /** The caller's view of a borrowed connection; close() returns it to the pool. */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pc;
+        private volatile boolean logicallyClosed;
+
+        Lease(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || pc.physical.isClosed();
+                case "equals":
+                    return p == args[0];
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "toString":
+                    return "Pooled[" + pc.physical + "]";
+                case "setAutoCommit":
+                case "setReadOnly":
+                case "setTransactionIsolation":
+                    pc.dirty = true;
+                    break;
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Connection is closed.");
+            }
+            try {
+                return method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package database;
+
+import models.DailyTotals;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Per-user, per-day rollup of nutrition and workout totals, kept up to date by the
+ * workout and nutrition DAOs. Get the configured implementation from {@link DaoFactory#dailyTotals()}.
+ */
+public interface DailyTotalsDAO {
+
+    /** Today's totals for the user; all zeros if nothing has been logged yet today. */
+    DailyTotals getTodaysTotals(int userId);
+
+    /**
+     * One row per day that has any activity between {@code from} and {@code to}, inclusive.
+     * Throws IllegalStateException if the read fails, so it isn't mistaken for no activity.
+     */
+    List<DailyTotals> getDailyTotalsBetween(int userId, LocalDate from, LocalDate to);
+
+    /** Summed totals over a date range (e.g. a week or a month); the date is the range start. */
+    DailyTotals getTotalsBetween(int userId, LocalDate from, LocalDate to);
+
+    default DailyTotals getWeeklyTotals(int userId) {
+        LocalDate today = LocalDate.now();
+        return getTotalsBetween(userId, today.minusDays(6), today);
+    }
+
+    default DailyTotals getMonthlyTotals(int userId) {
+        LocalDate today = LocalDate.now();
+        return getTotalsBetween(userId, today.minusDays(29), today);
+    }
+
+    /**
+     * Recomputes the rollup from the raw workouts and meals.
+     * Pass a user ID to rebuild one user, or 0 to rebuild everyone.
+     */
+    boolean rebuild(int userId);
+}
@@ -0,0 +1,28 @@
+package database;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted for every instrumented DAO call and connection borrow.
+ * Disabled unless a recording enables it, e.g. -XX:StartFlightRecording with
+ * {@code database.DaoCall#enabled=true}; the duration is the event's own timing.
+ */
+@Name("database.DaoCall")
+@Label("DAO Call")
+@Category({"Smart Fitness", "Database"})
+@Description("One DAO method call or connection borrow")
+@StackTrace(false)
+final class DaoCallEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,204 @@
+package database;
+
+import models.DailyTotals;
+import models.Goal;
+import models.Nutrition;
+import models.ProgressTracker;
+import models.Recommendation;
+import models.User;
+import models.Workout;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Checks that both backends behave the same through the DAO interfaces: the memory-only
+ * and file-backed embedded stores always, and MySQL as well when run with
+ * {@code -Ddb.backend=mysql}. Also restarts a file-backed store, including after a crash
+ * that cut its last journal line short. Prints each failed check and exits with 1 if there
+ * were any.
+ * Usage: java [-Ddb.backend=mysql] database.DaoContractCheck
+ */
+public final class DaoContractCheck {
+    private final List<String> failures = new ArrayList<>();
+    private int checks;
+
+    public static void main(String[] args) throws Exception {
+        DaoContractCheck check = new DaoContractCheck();
+
+        DaoFactory memory = DaoFactory.inMemory();
+        check.contract("embedded (memory)", memory);
+        check.embeddedCopies(memory);
+        memory.shutdown();
+
+        Path journal = Files.createTempFile("smartfitness-check", ".journal");
+        try {
+            DaoFactory file = DaoFactory.embedded(journal, false);
+            check.contract("embedded (file)", file);
+            file.shutdown();
+        } finally {
+            Files.deleteIfExists(journal);
+        }
+        check.embeddedRestarts();
+
+        if (DaoFactory.MYSQL.equals(DatabaseConnection.getConfig().getProperty("db.backend", "").trim())) {
+            DaoFactory mysql = DaoFactory.get();
+            mysql.initialize();
+            check.contract("mysql", mysql);
+            mysql.shutdown();
+        }
+        check.report();
+    }
+
+    /** What every backend must do; leaves nothing behind. */
+    private void contract(String backend, DaoFactory dao) {
+        String username = "contract-" + System.nanoTime();
+        expect(backend + ": create user", true,
+                dao.users().createUser(new User(0, "Contract", 30, "Female", 170, 65, username, "pw")));
+        expect(backend + ": duplicate username is refused", false,
+                dao.users().createUser(new User(0, "Other", 40, "Male", 180, 80, username, "other")));
+        expect(backend + ": wrong password", null, dao.users().authenticateUser(username, "wrong"));
+        User user = dao.users().authenticateUser(username, "pw");
+        if (user == null) {
+            failures.add(backend + ": could not sign in, skipping the rest");
+            return;
+        }
+        int userId = user.getUserID();
+        try {
+            expect(backend + ": user is listed", true, dao.users().getUsersAfter(userId - 1, 1).stream()
+                    .anyMatch(u -> u.getUserID() == userId));
+            expect(backend + ": update user", true,
+                    dao.users().updateUser(new User(userId, "Renamed", 31, "Female", 171, 64, username, "pw")));
+            expect(backend + ": updated name", "Renamed", dao.users().authenticateUser(username, "pw").getName());
+
+            Workout run = dao.workouts().addWorkout(new Workout(0, "Running", 30, 0, 0, 0, 300), userId);
+            expect(backend + ": added workout has an ID", true, run != null && run.getWorkoutID() > 0);
+            expect(backend + ": added workout has a date", true, run != null && run.getDate() != null);
+            BatchResult batch = dao.workouts().addWorkouts(Arrays.asList(
+                    new Workout(0, "Cycling", 45, 0, 0, 0, 400),
+                    new Workout(0, "Squats", 20, 4, 10, 60, 150)), userId, 100);
+            expect(backend + ": workout batch", 2, batch.getInsertedCount());
+            expect(backend + ": async workout", true,
+                    dao.workouts().addWorkoutAsync(new Workout(0, "Rowing", 25, 0, 0, 0, 250), userId).join() > 0);
+
+            List<Workout> workouts = dao.workouts().getWorkoutsByUser(userId);
+            expect(backend + ": workouts listed", 4, workouts.size());
+            expect(backend + ": today's workouts", 4, dao.workouts().getTodaysWorkouts(userId).size());
+            expect(backend + ": workouts paged", workouts.stream().map(Workout::getWorkoutID).collect(Collectors.toList()),
+                    dao.workouts().streamWorkoutsByUser(userId, 3).map(Workout::getWorkoutID).collect(Collectors.toList()));
+            HistoryView byCalories = HistoryView.NEWEST_FIRST.sortedBy("calories_burned", true);
+            expect(backend + ": workout window", Arrays.asList("Squats", "Rowing"),
+                    dao.workouts().getWorkoutsWindow(userId, byCalories, 0, 2).stream()
+                            .map(Workout::getType).collect(Collectors.toList()));
+            expect(backend + ": filtered workout count", 1,
+                    dao.workouts().countWorkouts(userId, HistoryView.NEWEST_FIRST.filteredBy("cycl")));
+            expect(backend + ": workout stats", 1100.0,
+                    dao.workouts().getWorkoutStats(userId, 4).getTotalCaloriesBurned());
+
+            dao.nutrition().addMeal(new Nutrition(0, "Oats", 350, 12, 60, 6), userId, "Breakfast");
+            dao.nutrition().addMeals(Collections.singletonList(new Nutrition(0, "Salad", 250, 8, 20, 14)),
+                    userId, "Lunch", 100);
+            expect(backend + ": meals listed", 2, dao.nutrition().getMealsByUser(userId).size());
+            expect(backend + ": nutrition totals", 600.0, dao.nutrition().getDailyNutritionTotals(userId)[0]);
+            DailyTotals today = dao.dailyTotals().getTodaysTotals(userId);
+            expect(backend + ": daily calories in", 600.0, today.getCaloriesIn());
+            expect(backend + ": daily calories burned", 1100.0, today.getCaloriesBurned());
+            expect(backend + ": daily workout count", 4, today.getWorkoutCount());
+            expect(backend + ": rebuild", true, dao.dailyTotals().rebuild(userId));
+            expect(backend + ": daily calories in after rebuild", 600.0,
+                    dao.dailyTotals().getTodaysTotals(userId).getCaloriesIn());
+
+            dao.progress().addProgressEntry(new ProgressTracker(0, null, 64.5, 22.3), userId);
+            expect(backend + ": progress listed", 1, dao.progress().getProgressHistory(userId).size());
+            expect(backend + ": dashboard weight", 64.5, dao.dashboard().getSnapshot(userId).getLatestWeight());
+            expect(backend + ": dashboard calories in", 600.0,
+                    dao.dashboard().getSnapshot(userId).getToday().getCaloriesIn());
+
+            Goal goal = dao.goals().addGoal(new Goal(0, "Run 10k", 10, 2, "In Progress"), userId);
+            expect(backend + ": added goal has an ID", true, goal != null && goal.getGoalID() > 0);
+            expect(backend + ": goals listed", 1, dao.goals().getGoalsByUser(userId).size());
+
+            dao.recommendations().saveRecommendations(Collections.singletonList(
+                    new Recommendation(userId, "Run 10k", "Run", "Eat", "Fine")), 100);
+            Recommendation saved = dao.recommendations().getRecommendation(userId);
+            expect(backend + ": recommendation saved", "Run", saved == null ? null : saved.getWorkoutPlan());
+            expect(backend + ": recommendation timestamped", true, saved != null && saved.getGeneratedAt() != null);
+
+            expect(backend + ": rows for an unknown user are refused", null,
+                    dao.workouts().addWorkout(new Workout(0, "Running", 30, 0, 0, 0, 300), Integer.MAX_VALUE));
+        } finally {
+            expect(backend + ": delete user", true, dao.users().deleteUser(userId));
+        }
+        expect(backend + ": deleted user can't sign in", null, dao.users().authenticateUser(username, "pw"));
+        expect(backend + ": deleted user's workouts are gone", 0, dao.workouts().getWorkoutsByUser(userId).size());
+    }
+
+    /** Rows handed out by the embedded store are the caller's to change. */
+    private void embeddedCopies(DaoFactory dao) {
+        dao.users().createUser(new User(0, "Copies", 30, "Female", 170, 65, "copies", "pw"));
+        int userId = dao.users().authenticateUser("copies", "pw").getUserID();
+        dao.workouts().addWorkout(new Workout(0, "Running", 30, 0, 0, 0, 300), userId).setDate("1999-01-01");
+        dao.workouts().getWorkoutsByUser(userId).get(0).setDate("1999-01-01");
+        dao.progress().addProgressEntry(new ProgressTracker(0, null, 64.5, 22.3), userId).setWeight(99);
+        dao.progress().getProgressHistory(userId).get(0).setWeight(99);
+        expect("embedded: stored workout unchanged", 1, dao.workouts().getTodaysWorkouts(userId).size());
+        expect("embedded: stored progress unchanged", 64.5, dao.progress().getProgressHistory(userId).get(0).getWeight());
+        dao.users().deleteUser(userId);
+    }
+
+    private void embeddedRestarts() throws IOException, SQLException {
+        Path journal = Files.createTempFile("smartfitness-check", ".journal");
+        try {
+            DaoFactory factory = DaoFactory.embedded(journal, false);
+            factory.users().createUser(new User(0, "Restart", 30, "Female", 170, 65, "restart", "pw"));
+            int userId = factory.users().authenticateUser("restart", "pw").getUserID();
+            factory.workouts().addWorkout(new Workout(0, "Running", 30, 0, 0, 0, 300), userId);
+            factory.workouts().addWorkout(new Workout(0, "Cycling", 45, 0, 0, 0, 400), userId);
+            factory.shutdown();
+
+            factory = DaoFactory.embedded(journal, false);
+            expect("workouts after a clean restart", 2, factory.workouts().getWorkoutsByUser(userId).size());
+            factory.shutdown();
+
+            // A crash mid-write leaves the start of a record without its newline.
+            Files.write(journal, ("W\t" + userId + "\t99\t2024-01-01\t2024-01-0").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+            factory = DaoFactory.embedded(journal, false);
+            expect("workouts after a torn last line", 2, factory.workouts().getWorkoutsByUser(userId).size());
+            factory.workouts().addWorkout(new Workout(0, "Rowing", 20, 0, 0, 0, 200), userId);
+            factory.shutdown();
+
+            factory = DaoFactory.embedded(journal, false);
+            expect("workouts added after a torn line survive the next restart", 3,
+                    factory.workouts().getWorkoutsByUser(userId).size());
+            factory.shutdown();
+        } finally {
+            Files.deleteIfExists(journal);
+        }
+    }
+
+    private void expect(String what, Object expected, Object actual) {
+        checks++;
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            failures.add(what + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    private void report() {
+        for (String failure : failures) {
+            System.out.println("FAILED " + failure);
+        }
+        System.out.println((checks - failures.size()) + " of " + checks + " checks passed.");
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package database;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Hands out the DAOs for the storage backend chosen by {@code db.backend}:
+ * {@code mysql} (the default) talks to the server configured by db.url, while
+ * {@code embedded} keeps everything in-process, journalled to {@code db.embedded.file}.
+ */
+public final class DaoFactory {
+    public static final String MYSQL = "mysql";
+    public static final String EMBEDDED = "embedded";
+
+    private static volatile DaoFactory instance;
+
+    private final String backend;
+    private final EmbeddedStore store;
+    private final UserDAO users;
+    private final WorkoutDAO workouts;
+    private final NutritionDAO nutrition;
+    private final GoalDAO goals;
+    private final ProgressTrackerDAO progress;
+    private final DailyTotalsDAO dailyTotals;
+    private final DashboardDAO dashboard;
+    private final RecommendationDAO recommendations;
+
+    private DaoFactory(String backend, EmbeddedStore store) {
+        this.backend = backend;
+        this.store = store;
+        if (store != null) {
+            users = new EmbeddedUserDAO(store);
+            workouts = new EmbeddedWorkoutDAO(store);
+            nutrition = new EmbeddedNutritionDAO(store);
+            goals = new EmbeddedGoalDAO(store);
+            progress = new EmbeddedProgressTrackerDAO(store);
+            dailyTotals = new EmbeddedDailyTotalsDAO(store);
+            dashboard = new EmbeddedDashboardDAO(store);
+            recommendations = new EmbeddedRecommendationDAO(store);
+        } else {
+            users = new MySqlUserDAO();
+            workouts = new MySqlWorkoutDAO();
+            dailyTotals = new MySqlDailyTotalsDAO();
+            nutrition = new MySqlNutritionDAO(dailyTotals);
+            goals = new MySqlGoalDAO();
+            progress = new MySqlProgressTrackerDAO();
+            dashboard = new MySqlDashboardDAO();
+            recommendations = new MySqlRecommendationDAO();
+        }
+    }
+
+    /**
+     * The DAOs for the configured backend; the embedded store is opened on first use.
+     * Throws IllegalStateException if it can't be opened (the next call tries again).
+     */
+    public static DaoFactory get() {
+        DaoFactory f = instance;
+        if (f != null) {
+            return f;
+        }
+        synchronized (DaoFactory.class) {
+            if (instance == null) {
+                instance = create(DatabaseConnection.getConfig());
+            }
+            return instance;
+        }
+    }
+
+    /** A memory-only embedded backend, independent of the shared one (for tests and benchmarks). */
+    public static DaoFactory inMemory() {
+        try {
+            return new DaoFactory(EMBEDDED, EmbeddedStore.open(null, false));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e); // Nothing to read or write without a journal file.
+        }
+    }
+
+    /** An embedded backend journalled to {@code journalFile}, outside the shared instance. */
+    static DaoFactory embedded(Path journalFile, boolean sync) throws SQLException {
+        return new DaoFactory(EMBEDDED, EmbeddedStore.open(journalFile, sync));
+    }
+
+    private static DaoFactory create(Properties config) {
+        String backend = config.getProperty("db.backend", MYSQL).trim().toLowerCase();
+        if (EMBEDDED.equals(backend)) {
+            try {
+                return new DaoFactory(EMBEDDED, EmbeddedStore.open(config));
+            } catch (SQLException e) {
+                // Carrying on in memory would quietly lose everything logged from here on.
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        if (!MYSQL.equals(backend)) {
+            throw new IllegalArgumentException("Unknown db.backend '" + backend + "' (expected mysql or embedded).");
+        }
+        return new DaoFactory(MYSQL, null);
+    }
+
+    /**
+     * Gets the backend ready so the first DAO call doesn't pay for it: for MySQL this warms up
+     * the connection pool and applies migrations; the embedded store is already open.
+     */
+    public void initialize() throws SQLException {
+        if (store == null) {
+            DatabaseConnection.initialize();
+        }
+    }
+
+    public void shutdown() {
+        if (store != null) {
+            store.close();
+        } else {
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    public String getBackend() { return backend; }
+
+    /**
+     * How many queries the backend can usefully run at once: the MySQL pool size
+     * (db.pool.maxSize). Size worker pools that do database work to this. Static, so it can
+     * be read without opening the backend.
+     */
+    public static int getMaxConcurrentQueries() {
+        return DatabaseConnection.getMaxPoolSize();
+    }
+
+    public UserDAO users() { return users; }
+    public WorkoutDAO workouts() { return workouts; }
+    public NutritionDAO nutrition() { return nutrition; }
+    public GoalDAO goals() { return goals; }
+    public ProgressTrackerDAO progress() { return progress; }
+    public DailyTotalsDAO dailyTotals() { return dailyTotals; }
+    public DashboardDAO dashboard() { return dashboard; }
+    public RecommendationDAO recommendations() { return recommendations; }
+}
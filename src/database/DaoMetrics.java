@@ -0,0 +1,186 @@
+package database;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+/**
+ * Per-operation latency histograms, row counts and error counts for the DAOs.
+ * Usage: {@code try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.addWorkout")) { ... }}.
+ * Every call also emits a {@link DaoCallEvent} for Flight Recorder, and calls slower than
+ * {@code db.metrics.slowQueryMs} are logged. Everything is readable over JMX as
+ * {@code database:type=DaoMetrics}.
+ */
+public final class DaoMetrics {
+    static final String CONNECTION_ACQUIRE = "DatabaseConnection.getConnection";
+    private static final int SLOW_LOG_SIZE = 50;
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    /** One timed call; close it when the call is done (try-with-resources). */
+    public static final class Call implements AutoCloseable {
+        private final String operation;
+        private final long start;
+        private final DaoCallEvent event;
+        private int rows;
+        private boolean failed;
+
+        private Call(String operation) {
+            this.operation = operation;
+            DaoCallEvent e = new DaoCallEvent();
+            if (e.isEnabled()) {
+                e.begin();
+                this.event = e;
+            } else {
+                this.event = null;
+            }
+            this.start = System.nanoTime();
+        }
+
+        /** Records how many rows the call read or wrote. */
+        public void rows(int count) {
+            this.rows = count;
+        }
+
+        /** Marks the call as failed; its latency is still recorded. */
+        public void failed() {
+            this.failed = true;
+        }
+
+        @Override
+        public void close() {
+            record(operation, System.nanoTime() - start, rows, failed, event);
+        }
+    }
+
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+    private static final AtomicLong slowQueryCount = new AtomicLong();
+    private static final ArrayDeque<String> slowLog = new ArrayDeque<>(SLOW_LOG_SIZE);
+    private static volatile long slowQueryThresholdNanos = 1_000_000L
+            * DatabaseConnection.intProperty(DatabaseConnection.getConfig(), "db.metrics.slowQueryMs", 200);
+
+    static {
+        registerMBean();
+    }
+
+    private DaoMetrics() {}
+
+    public static Call begin(String operation) {
+        return new Call(operation);
+    }
+
+    /** A snapshot of every operation recorded so far, sorted by name. */
+    public static List<OperationStats> getOperations() {
+        List<OperationStats> result = new ArrayList<>();
+        for (Map.Entry<String, Stats> entry : STATS.entrySet()) {
+            Stats s = entry.getValue();
+            LatencyHistogram h = s.latency;
+            result.add(new OperationStats(entry.getKey(), h.getCount(), s.errors.sum(), s.rows.sum(),
+                    h.getMeanMicros(), h.percentileMicros(50), h.percentileMicros(99), h.getMaxMicros()));
+        }
+        result.sort((a, b) -> a.getOperation().compareTo(b.getOperation()));
+        return result;
+    }
+
+    /** Null if the operation hasn't been called yet. */
+    public static OperationStats getOperation(String operation) {
+        for (OperationStats stats : getOperations()) {
+            if (stats.getOperation().equals(operation)) {
+                return stats;
+            }
+        }
+        return null;
+    }
+
+    public static long getSlowQueryThresholdMs() {
+        return slowQueryThresholdNanos / 1_000_000L;
+    }
+
+    public static void setSlowQueryThresholdMs(long thresholdMs) {
+        slowQueryThresholdNanos = Math.max(0, thresholdMs) * 1_000_000L;
+    }
+
+    public static List<String> getRecentSlowQueries() {
+        synchronized (slowLog) {
+            return new ArrayList<>(slowLog);
+        }
+    }
+
+    public static void reset() {
+        STATS.clear();
+        slowQueryCount.set(0);
+        synchronized (slowLog) {
+            slowLog.clear();
+        }
+    }
+
+    /** One line per operation, handy for logging on shutdown. */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (OperationStats stats : getOperations()) {
+            sb.append(stats).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static void record(String operation, long nanos, int rows, boolean failed, DaoCallEvent event) {
+        Stats stats = STATS.computeIfAbsent(operation, k -> new Stats());
+        stats.latency.record(nanos);
+        stats.rows.add(rows);
+        if (failed) {
+            stats.errors.increment();
+        }
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.rows = rows;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+
+        if (nanos >= slowQueryThresholdNanos) {
+            String entry = String.format("%s %s took %.1f ms (%d rows%s)", LocalDateTime.now(), operation,
+                    nanos / 1_000_000.0, rows, failed ? ", failed" : "");
+            slowQueryCount.incrementAndGet();
+            synchronized (slowLog) {
+                if (slowLog.size() == SLOW_LOG_SIZE) {
+                    slowLog.removeFirst();
+                }
+                slowLog.addLast(entry);
+            }
+            System.err.println("Slow DAO call: " + entry);
+        }
+    }
+
+    private static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new DaoMetricsMXBean() {
+                @Override public List<OperationStats> getOperations() { return DaoMetrics.getOperations(); }
+                @Override public long getSlowQueryThresholdMs() { return DaoMetrics.getSlowQueryThresholdMs(); }
+                @Override public void setSlowQueryThresholdMs(long ms) { DaoMetrics.setSlowQueryThresholdMs(ms); }
+                @Override public long getSlowQueryCount() { return slowQueryCount.get(); }
+                @Override public List<String> getRecentSlowQueries() { return DaoMetrics.getRecentSlowQueries(); }
+                @Override public String getPoolStatus() { return DatabaseConnection.getPoolStatus(); }
+                @Override public String getCacheStatus() { return QueryCache.getShared().toString(); }
+                @Override public void reset() { DaoMetrics.reset(); }
+            }, new ObjectName("database:type=DaoMetrics"));
+        } catch (Exception e) {
+            // Metrics still work without JMX (e.g. already registered by another class loader).
+            System.err.println("Error registering DAO metrics MBean: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package database;
+
+import java.util.List;
+
+/** JMX view of {@link DaoMetrics}, registered as {@code database:type=DaoMetrics}. */
+public interface DaoMetricsMXBean {
+    List<OperationStats> getOperations();
+
+    long getSlowQueryThresholdMs();
+
+    void setSlowQueryThresholdMs(long thresholdMs);
+
+    long getSlowQueryCount();
+
+    /** The most recent slow calls, newest last. */
+    List<String> getRecentSlowQueries();
+
+    String getPoolStatus();
+
+    String getCacheStatus();
+
+    void reset();
+}
@@ -0,0 +1,13 @@
+package database;
+
+import models.DashboardSnapshot;
+
+/**
+ * Everything the dashboard shows for today, read in one go.
+ * Get the configured implementation from {@link DaoFactory#dashboard()}.
+ */
+public interface DashboardDAO {
+
+    /** Today's dashboard figures; zeros and no weight if the read fails. */
+    DashboardSnapshot getSnapshot(int userId);
+}
@@ -1,35 +1,175 @@
 package database;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.*;
 import java.util.Properties;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/smart_fitness_app";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "root"; // Change to your password
+    // Defaults, used when db.properties / -D system properties don't override them.
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/smart_fitness_app";
+    private static final String DEFAULT_USERNAME = "root";
+    private static final String DEFAULT_PASSWORD = "root"; // Change to your password (or set db.password)
+    private static final int DEFAULT_POOL_SIZE = 8;
+    private static final int DEFAULT_INITIAL_SIZE = 2;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final String CONFIG_FILE = "db.properties";
+
+    private static volatile Properties config;
+    private static volatile ConnectionPool pool;
 
     private DatabaseConnection() {} // Private constructor
 
     /**
-     * Provides a new database connection for each call.
-     * This is the standard, safe approach for database operations.
+     * Borrows a connection from the shared pool.
+     * Closing the returned connection (e.g. via try-with-resources) hands it back to the pool.
      */
     public static Connection getConnection() throws SQLException {
+        // Recorded separately so pool waits can be told apart from slow queries.
+        try (DaoMetrics.Call call = DaoMetrics.begin(DaoMetrics.CONNECTION_ACQUIRE)) {
+            try {
+                return getPool().borrow();
+            } catch (SQLException e) {
+                call.failed();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Creates the pool and opens the initial connections so the first DAO call
+     * doesn't pay for TCP and authentication, then applies any pending schema
+     * migrations (unless db.migrateOnStartup=false). Safe to call more than once.
+     */
+    public static void initialize() throws SQLException {
+        getPool();
+        if (!"false".equalsIgnoreCase(getConfig().getProperty("db.migrateOnStartup"))) {
+            SchemaMigrator.migrate();
+        }
+    }
+
+    /** Closes all idle connections; borrowed ones are closed as they are returned. */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /** A one-line summary of pool usage, handy for logging. */
+    public static String getPoolStatus() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            return "pool not started";
+        }
+        return String.format("active=%d, idle=%d, max=%d", p.getActiveCount(), p.getIdleCount(), p.getMaxSize());
+    }
+
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool p = pool;
+        if (p != null) {
+            return p;
+        }
+        synchronized (DatabaseConnection.class) {
+            if (pool == null) {
+                pool = createPool(getConfig());
+            }
+            return pool;
+        }
+    }
+
+    private static ConnectionPool createPool(Properties config) throws SQLException {
         // This line explicitly loads the driver to prevent "No suitable driver" errors.
+        // It now runs once per pool instead of once per call.
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
+            Class.forName(config.getProperty("db.driver", "com.mysql.cj.jdbc.Driver"));
         } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found.", e);
+            throw new SQLException("JDBC Driver not found: " + e.getMessage(), e);
         }
 
         Properties props = new Properties();
-        props.setProperty("user", USERNAME);
-        props.setProperty("password", PASSWORD);
+        props.setProperty("user", config.getProperty("db.username", DEFAULT_USERNAME));
+        props.setProperty("password", config.getProperty("db.password", DEFAULT_PASSWORD));
         props.setProperty("useSSL", "false");
         props.setProperty("serverTimezone", "UTC");
         props.setProperty("allowPublicKeyRetrieval", "true");
+        // Lets the driver send a JDBC batch of INSERTs as one multi-row statement.
+        props.setProperty("rewriteBatchedStatements", "true");
 
-        // Return a new connection instance directly
-        return DriverManager.getConnection(URL, props);
+        int maxSize = intProperty(config, "db.pool.maxSize", DEFAULT_POOL_SIZE);
+        ConnectionPool newPool = new ConnectionPool(
+                config.getProperty("db.url", DEFAULT_URL),
+                props,
+                maxSize,
+                intProperty(config, "db.pool.borrowTimeoutMs", 10_000),
+                intProperty(config, "db.pool.validationIntervalMs", 30_000),
+                intProperty(config, "db.pool.leakThresholdMs", 60_000));
+        try {
+            newPool.warmUp(intProperty(config, "db.pool.initialSize", Math.min(DEFAULT_INITIAL_SIZE, maxSize)));
+        } catch (SQLException e) {
+            newPool.shutdown();
+            throw e;
+        }
+        return newPool;
+    }
+
+    /** How many rows the batch insert methods send per executeBatch() call (db.batchSize). */
+    static int getDefaultBatchSize() {
+        return Math.max(1, intProperty(getConfig(), "db.batchSize", DEFAULT_BATCH_SIZE));
+    }
+
+    /** The most connections the pool will open (db.pool.maxSize). */
+    static int getMaxPoolSize() {
+        return Math.max(1, intProperty(getConfig(), "db.pool.maxSize", DEFAULT_POOL_SIZE));
+    }
+
+    static Properties getConfig() {
+        Properties c = config;
+        if (c == null) {
+            c = loadConfig();
+            config = c;
+        }
+        return c;
+    }
+
+    /**
+     * Reads db.properties from the working directory or the classpath,
+     * then lets -Ddb.* system properties override individual keys.
+     */
+    static Properties loadConfig() {
+        Properties config = new Properties();
+        Path file = Paths.get(CONFIG_FILE);
+        try (InputStream in = Files.exists(file)
+                ? Files.newInputStream(file)
+                : DatabaseConnection.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (in != null) {
+                config.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading " + CONFIG_FILE + ": " + e.getMessage());
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("db.")) {
+                config.setProperty(key, System.getProperty(key));
+            }
+        }
+        return config;
+    }
+
+    static int intProperty(Properties config, String key, int defaultValue) {
+        String value = config.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package database;
+
+import models.DailyTotals;
+import java.time.LocalDate;
+import java.util.List;
+
+class EmbeddedDailyTotalsDAO implements DailyTotalsDAO {
+    private final EmbeddedStore store;
+
+    EmbeddedDailyTotalsDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public DailyTotals getTodaysTotals(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.getTodaysTotals")) {
+            DailyTotals today = store.getTotals(userId, LocalDate.now());
+            call.rows(1);
+            return today;
+        }
+    }
+
+    @Override
+    public List<DailyTotals> getDailyTotalsBetween(int userId, LocalDate from, LocalDate to) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.getDailyTotalsBetween")) {
+            List<DailyTotals> days = store.getTotalsBetween(userId, from, to);
+            call.rows(days.size());
+            return days;
+        }
+    }
+
+    @Override
+    public DailyTotals getTotalsBetween(int userId, LocalDate from, LocalDate to) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.getTotalsBetween")) {
+            double in = 0, protein = 0, carbs = 0, fats = 0, burned = 0;
+            int count = 0;
+            for (DailyTotals day : store.getTotalsBetween(userId, from, to)) {
+                in += day.getCaloriesIn();
+                protein += day.getProtein();
+                carbs += day.getCarbs();
+                fats += day.getFats();
+                burned += day.getCaloriesBurned();
+                count += day.getWorkoutCount();
+            }
+            call.rows(1);
+            return new DailyTotals(from.toString(), in, protein, carbs, fats, burned, count);
+        }
+    }
+
+    /** The rollup is derived in memory from the stored rows, so a rebuild can't fail. */
+    @Override
+    public boolean rebuild(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.rebuild")) {
+            call.rows(store.rebuildTotals(userId));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package database;
+
+import models.DashboardSnapshot;
+import java.time.LocalDate;
+
+class EmbeddedDashboardDAO implements DashboardDAO {
+    private final EmbeddedStore store;
+
+    EmbeddedDashboardDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public DashboardSnapshot getSnapshot(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DashboardDAO.getSnapshot")) {
+            DashboardSnapshot snapshot = store.getDashboardSnapshot(userId, LocalDate.now());
+            call.rows(1);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package database;
+
+import models.Goal;
+import java.sql.SQLException;
+import java.util.List;
+
+class EmbeddedGoalDAO implements GoalDAO {
+    private final EmbeddedStore store;
+
+    EmbeddedGoalDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Goal addGoal(Goal goal, int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("GoalDAO.addGoal")) {
+            try {
+                Goal saved = store.addGoal(userId, goal);
+                TrainingStats.goalAdded(userId, saved);
+                call.rows(1);
+                return saved;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding goal: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public List<Goal> getGoalsByUser(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("GoalDAO.getGoalsByUser")) {
+            List<Goal> rows = store.getGoals(userId);
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+
+    @Override
+    public int countGoals(int userId, HistoryView view) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WindowQuery.goals.count")) {
+            int count = store.countGoals(userId, view);
+            call.rows(1);
+            return count;
+        }
+    }
+
+    @Override
+    public List<Goal> getGoalsWindow(int userId, HistoryView view, int offset, int limit) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WindowQuery.goals")) {
+            List<Goal> rows = store.getGoals(userId, view, offset, limit);
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+}
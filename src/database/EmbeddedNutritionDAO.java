@@ -0,0 +1,121 @@
+package database;
+
+import models.DailyTotals;
+import models.Nutrition;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+class EmbeddedNutritionDAO implements NutritionDAO {
+    private final EmbeddedStore store;
+
+    EmbeddedNutritionDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Nutrition addMeal(Nutrition nutrition, int userId, String mealTime) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("NutritionDAO.addMeal")) {
+            try {
+                Nutrition saved = store.addMeals(userId, Collections.singletonList(nutrition), mealTime).get(0);
+                TrainingStats.mealsAdded(userId, Collections.singletonList(saved), new int[] {saved.getNutritionID()});
+                call.rows(1);
+                return saved;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding meal: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /** Writes are already in-process and immediate, so this just completes synchronously. */
+    @Override
+    public CompletableFuture<Integer> addMealAsync(Nutrition nutrition, int userId, String mealTime) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("NutritionDAO.addMealAsync")) {
+            try {
+                Nutrition saved = store.addMeals(userId, Collections.singletonList(nutrition), mealTime).get(0);
+                TrainingStats.mealsAdded(userId, Collections.singletonList(saved), new int[] {saved.getNutritionID()});
+                call.rows(1);
+                return CompletableFuture.completedFuture(saved.getNutritionID());
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding meal: " + e.getMessage());
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    @Override
+    public BatchResult addMeals(List<Nutrition> meals, int userId, String mealTime, int batchSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("NutritionDAO.addMeals")) {
+            try {
+                List<Nutrition> saved = store.addMeals(userId, meals, mealTime);
+                int[] ids = saved.stream().mapToInt(Nutrition::getNutritionID).toArray();
+                TrainingStats.mealsAdded(userId, saved, ids);
+                call.rows(ids.length);
+                return BatchResult.allInserted(ids);
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding meal batch: " + e.getMessage());
+                return BatchResult.failed(meals.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public List<Nutrition> getMealsByUser(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("NutritionDAO.getMealsByUser")) {
+            List<Nutrition> rows = store.getMeals(userId);
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+
+    @Override
+    public Page<Nutrition> getMealsPage(int userId, PageCursor after, int pageSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("HistoryQuery.nutrition")) {
+            Page<Nutrition> page = store.getMealsPage(userId, after, pageSize);
+            call.rows(page.getItems().size());
+            return page;
+        }
+    }
+
+    @Override
+    public Stream<Nutrition> streamMealsByUser(int userId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        return Page.stream(after -> getMealsPage(userId, after, pageSize));
+    }
+
+    @Override
+    public double[] getDailyNutritionTotals(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.getTodaysTotals")) {
+            DailyTotals today = store.getTotals(userId, LocalDate.now());
+            call.rows(1);
+            return new double[]{today.getCaloriesIn(), today.getProtein(), today.getCarbs(), today.getFats()};
+        }
+    }
+
+    @Override
+    public int countMeals(int userId, HistoryView view) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WindowQuery.nutrition.count")) {
+            int count = store.countMeals(userId, view);
+            call.rows(1);
+            return count;
+        }
+    }
+
+    @Override
+    public List<Nutrition> getMealsWindow(int userId, HistoryView view, int offset, int limit) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WindowQuery.nutrition")) {
+            List<Nutrition> rows = store.getMeals(userId, view, offset, limit);
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+}
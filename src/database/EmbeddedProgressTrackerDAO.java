@@ -0,0 +1,92 @@
+package database;
+
+import models.ProgressTracker;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+class EmbeddedProgressTrackerDAO implements ProgressTrackerDAO {
+    private final EmbeddedStore store;
+
+    EmbeddedProgressTrackerDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public ProgressTracker addProgressEntry(ProgressTracker progress, int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("ProgressTrackerDAO.addProgressEntry")) {
+            try {
+                ProgressTracker saved = store.addProgress(userId, Collections.singletonList(progress)).get(0);
+                TrainingStats.progressAdded(userId, Collections.singletonList(saved), new int[] {saved.getProgressID()});
+                call.rows(1);
+                return saved;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding progress entry: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public BatchResult addProgressEntries(List<ProgressTracker> entries, int userId, int batchSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("ProgressTrackerDAO.addProgressEntries")) {
+            try {
+                List<ProgressTracker> saved = store.addProgress(userId, entries);
+                int[] ids = saved.stream().mapToInt(ProgressTracker::getProgressID).toArray();
+                TrainingStats.progressAdded(userId, saved, ids);
+                call.rows(ids.length);
+                return BatchResult.allInserted(ids);
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding progress entry batch: " + e.getMessage());
+                return BatchResult.failed(entries.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public List<ProgressTracker> getProgressHistory(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("ProgressTrackerDAO.getProgressHistory")) {
+            List<ProgressTracker> rows = store.getProgress(userId);
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+
+    @Override
+    public Page<ProgressTracker> getProgressPage(int userId, PageCursor after, int pageSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("HistoryQuery.progress_tracker")) {
+            Page<ProgressTracker> page = store.getProgressPage(userId, after, pageSize);
+            call.rows(page.getItems().size());
+            return page;
+        }
+    }
+
+    @Override
+    public Stream<ProgressTracker> streamProgressHistory(int userId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        return Page.stream(after -> getProgressPage(userId, after, pageSize));
+    }
+
+    @Override
+    public int countProgressEntries(int userId, HistoryView view) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WindowQuery.progress_tracker.count")) {
+            int count = store.countProgress(userId, view);
+            call.rows(1);
+            return count;
+        }
+    }
+
+    @Override
+    public List<ProgressTracker> getProgressWindow(int userId, HistoryView view, int offset, int limit) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WindowQuery.progress_tracker")) {
+            List<ProgressTracker> rows = store.getProgress(userId, view, offset, limit);
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+}
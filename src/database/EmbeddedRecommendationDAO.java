@@ -0,0 +1,38 @@
+package database;
+
+import models.Recommendation;
+import java.sql.SQLException;
+import java.util.List;
+
+class EmbeddedRecommendationDAO implements RecommendationDAO {
+    private final EmbeddedStore store;
+
+    EmbeddedRecommendationDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public BatchResult saveRecommendations(List<Recommendation> recommendations, int batchSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("RecommendationDAO.saveRecommendations")) {
+            try {
+                store.saveRecommendations(recommendations);
+                call.rows(recommendations.size());
+                // Keyed by user ID, so like the MySQL table there are no generated keys.
+                return BatchResult.allInserted(new int[recommendations.size()]);
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding recommendation batch: " + e.getMessage());
+                return BatchResult.failed(recommendations.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Recommendation getRecommendation(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("RecommendationDAO.getRecommendation")) {
+            Recommendation recommendation = store.getRecommendation(userId);
+            call.rows(recommendation == null ? 0 : 1);
+            return recommendation;
+        }
+    }
+}
@@ -0,0 +1,735 @@
+package database;
+
+import models.DailyTotals;
+import models.DashboardSnapshot;
+import models.Goal;
+import models.Nutrition;
+import models.ProgressTracker;
+import models.Recommendation;
+import models.User;
+import models.Workout;
+import models.WorkoutStats;
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process store behind the embedded DAOs, for single-user installs that don't want a
+ * database server. Everything lives in memory; every write is first appended to a journal
+ * file (one line per row) that is replayed on startup. With no journal file configured
+ * the store is purely in memory, which is what tests and benchmarks want.
+ */
+final class EmbeddedStore {
+    private static final int TOTAL_CALORIES_IN = 0, TOTAL_PROTEIN = 1, TOTAL_CARBS = 2, TOTAL_FATS = 3,
+            TOTAL_BURNED = 4, TOTAL_WORKOUTS = 5;
+    private static final String NULL_FIELD = "\\N";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, User> users = new TreeMap<>();
+    private final Map<String, Integer> userIdsByName = new HashMap<>();
+    private int lastUserId;
+    private final EmbeddedTable<Workout> workouts = new EmbeddedTable<>();
+    private final EmbeddedTable<Nutrition> meals = new EmbeddedTable<>();
+    private final EmbeddedTable<ProgressTracker> progress = new EmbeddedTable<>();
+    private final EmbeddedTable<Goal> goals = new EmbeddedTable<>();
+    // Latest precomputed recommendation per user
+    private final Map<Integer, Recommendation> recommendations = new HashMap<>();
+    // user -> day -> [calories in, protein, carbs, fats, calories burned, workout count]
+    private final Map<Integer, TreeMap<LocalDate, double[]>> totals = new HashMap<>();
+
+    private final Path journalFile;
+    private final boolean sync;
+    private FileOutputStream journalStream;
+    private Writer journal;
+
+    private EmbeddedStore(Path journalFile, boolean sync) {
+        this.journalFile = journalFile;
+        this.sync = sync;
+    }
+
+    /** Opens the store, replaying {@code journalFile} if it exists. Pass null for memory only. */
+    static EmbeddedStore open(Path journalFile, boolean sync) throws SQLException {
+        EmbeddedStore store = new EmbeddedStore(journalFile, sync);
+        if (journalFile != null) {
+            try {
+                if (Files.exists(journalFile)) {
+                    store.dropTornTail();
+                    store.replay();
+                }
+                store.journalStream = new FileOutputStream(journalFile.toFile(), true);
+                store.journal = new OutputStreamWriter(store.journalStream, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new SQLException("Could not open embedded store " + journalFile + ": " + e.getMessage(), e);
+            }
+        }
+        return store;
+    }
+
+    /** Opens the store configured by db.embedded.file (empty for memory only) and db.embedded.sync. */
+    static EmbeddedStore open(java.util.Properties config) throws SQLException {
+        String file = config.getProperty("db.embedded.file", "smartfitness-data.journal").trim();
+        return open(file.isEmpty() ? null : Paths.get(file), "true".equalsIgnoreCase(config.getProperty("db.embedded.sync")));
+    }
+
+    void close() {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing embedded store: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Users ---
+
+    /** Returns the stored user with its new ID; fails if the username is taken. */
+    User createUser(User user) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            if (userIdsByName.containsKey(user.getUsername())) {
+                throw new SQLException("Duplicate username '" + user.getUsername() + "'.", "23000");
+            }
+            User stored = withId(user, lastUserId + 1);
+            append(userLine(stored));
+            applyUser(stored);
+            return stored;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    User authenticate(String username, String password) {
+        return read(() -> {
+            Integer id = userIdsByName.get(username);
+            User user = id == null ? null : users.get(id);
+            // Users are immutable, so the stored one can be shared.
+            return user != null && user.getPassword().equals(password) ? user : null;
+        });
+    }
+
+    /** Updates the profile fields; username and password are kept. False if there is no such user. */
+    boolean updateUser(User user) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            User existing = users.get(user.getUserID());
+            if (existing == null) {
+                return false;
+            }
+            User stored = new User(existing.getUserID(), user.getName(), user.getAge(), user.getGender(),
+                    user.getHeight(), user.getWeight(), existing.getUsername(), existing.getPassword());
+            append(userLine(stored));
+            applyUser(stored);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean deleteUser(int userId) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            if (!users.containsKey(userId)) {
+                return false;
+            }
+            append("X\t" + userId + "\n");
+            applyDeleteUser(userId);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} users with IDs above {@code afterUserId}, in ID order. */
+    List<User> getUsersAfter(int afterUserId, int limit) {
+        return read(() -> {
+            List<User> page = new ArrayList<>(Math.min(limit, users.size()));
+            for (User user : users.tailMap(afterUserId, false).values()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(user);
+            }
+            return page;
+        });
+    }
+
+    // --- Rows ---
+
+    /** Stores the workouts as one unit and returns them with their IDs, dates and timestamps. */
+    List<Workout> addWorkouts(int userId, List<Workout> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.writeLock().lock();
+        try {
+            requireUser(userId);
+            LocalDateTime now = now();
+            List<Workout> stored = new ArrayList<>(rows.size());
+            StringBuilder lines = new StringBuilder();
+            int id = workouts.nextId() - 1;
+            for (Workout w : rows) {
+                Workout s = new Workout(++id, w.getType(), w.getDuration(), w.getSets(), w.getReps(),
+                        w.getWeight(), w.getCaloriesBurned());
+                s.setDate(now.toLocalDate().toString());
+                s.setCreatedAt(Timestamp.valueOf(now).toString());
+                stored.add(s);
+                lines.append(join("W", userId, s.getWorkoutID(), s.getDate(), s.getCreatedAt(), s.getType(),
+                        s.getDuration(), s.getSets(), s.getReps(), s.getWeight(), s.getCaloriesBurned()));
+            }
+            append(lines.toString());
+            for (Workout s : stored) {
+                applyWorkout(userId, s);
+            }
+            return copies(stored, EmbeddedStore::copyWorkout);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Nutrition> addMeals(int userId, List<Nutrition> rows, String mealTime) throws SQLException {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.writeLock().lock();
+        try {
+            requireUser(userId);
+            LocalDateTime now = now();
+            List<Nutrition> stored = new ArrayList<>(rows.size());
+            StringBuilder lines = new StringBuilder();
+            int id = meals.nextId() - 1;
+            for (Nutrition m : rows) {
+                Nutrition s = new Nutrition(++id, m.getFoodItem(), m.getCalorieIntake(), m.getProtein(),
+                        m.getCarbs(), m.getFats());
+                s.setDate(now.toLocalDate().toString());
+                s.setCreatedAt(Timestamp.valueOf(now).toString());
+                stored.add(s);
+                lines.append(join("M", userId, s.getNutritionID(), s.getDate(), s.getCreatedAt(), s.getFoodItem(),
+                        s.getCalorieIntake(), s.getProtein(), s.getCarbs(), s.getFats(), mealTime));
+            }
+            append(lines.toString());
+            for (Nutrition s : stored) {
+                applyMeal(userId, s);
+            }
+            return copies(stored, EmbeddedStore::copyMeal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<ProgressTracker> addProgress(int userId, List<ProgressTracker> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.writeLock().lock();
+        try {
+            requireUser(userId);
+            String today = now().toLocalDate().toString();
+            List<ProgressTracker> stored = new ArrayList<>(rows.size());
+            StringBuilder lines = new StringBuilder();
+            int id = progress.nextId() - 1;
+            for (ProgressTracker p : rows) {
+                ProgressTracker s = new ProgressTracker(++id, today, p.getWeight(), p.getBmi());
+                stored.add(s);
+                lines.append(join("P", userId, s.getProgressID(), s.getDate(), s.getWeight(), s.getBmi()));
+            }
+            append(lines.toString());
+            for (ProgressTracker s : stored) {
+                applyProgress(userId, s);
+            }
+            return copies(stored, EmbeddedStore::copyProgress);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Goal addGoal(int userId, Goal goal) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            requireUser(userId);
+            LocalDateTime now = now();
+            Goal s = new Goal(goals.nextId(), goal.getDescription(), goal.getTargetValue(),
+                    goal.getCurrentValue(), goal.getStatus());
+            s.setCreatedAt(Timestamp.valueOf(now).toString());
+            append(join("G", userId, s.getGoalID(), s.getCreatedAt(), s.getDescription(),
+                    s.getTargetValue(), s.getCurrentValue(), s.getStatus()));
+            applyGoal(userId, s);
+            return copyGoal(s);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces each user's stored recommendation; all or nothing, like a JDBC batch in one transaction. */
+    void saveRecommendations(List<Recommendation> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String generatedAt = Timestamp.valueOf(now()).toString();
+            List<Recommendation> stored = new ArrayList<>(rows.size());
+            StringBuilder lines = new StringBuilder();
+            for (Recommendation r : rows) {
+                requireUser(r.getUserID());
+                Recommendation s = new Recommendation(r.getUserID(), r.getGoal(), r.getWorkoutPlan(),
+                        r.getDietPlan(), r.getProgressAnalysis());
+                s.setGeneratedAt(generatedAt);
+                stored.add(s);
+                lines.append(join("R", s.getUserID(), s.getGeneratedAt(), s.getGoal(), s.getWorkoutPlan(),
+                        s.getDietPlan(), s.getProgressAnalysis()));
+            }
+            append(lines.toString());
+            for (Recommendation s : stored) {
+                recommendations.put(s.getUserID(), s);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Recommendation getRecommendation(int userId) { return read(() -> copyRecommendation(recommendations.get(userId))); }
+
+    // --- Reads (rows are copied, so callers can't change what is stored) ---
+
+    List<Workout> getWorkouts(int userId) { return read(() -> copies(workouts.newestFirst(userId), EmbeddedStore::copyWorkout)); }
+    Page<Workout> getWorkoutsPage(int userId, PageCursor after, int limit) { return read(() -> copies(workouts.page(userId, after, limit), EmbeddedStore::copyWorkout)); }
+    int countWorkouts(int userId, HistoryView view) { return read(() -> HistoryColumns.WORKOUTS.apply(workouts.newestFirst(userId), view).size()); }
+    List<Workout> getWorkouts(int userId, HistoryView view, int offset, int limit) { return read(() -> copies(HistoryColumns.window(HistoryColumns.WORKOUTS.apply(workouts.newestFirst(userId), view), offset, limit), EmbeddedStore::copyWorkout)); }
+    List<Workout> getWorkoutsOn(int userId, LocalDate day) { return read(() -> copies(workouts.onDate(userId, day), EmbeddedStore::copyWorkout)); }
+
+    /** Totals over every stored workout, plus buckets for the weeks since {@code weeks - 1} Mondays ago. */
+    WorkoutStats getWorkoutStats(int userId, int weeks, LocalDate today) {
+        return read(() -> {
+            List<EmbeddedTable.Row<Workout>> rows = workouts.rows(userId);
+            if (rows.isEmpty()) {
+                return WorkoutStats.empty();
+            }
+            LocalDate from = weeks > 0 ? today.with(DayOfWeek.MONDAY).minusWeeks(weeks - 1) : LocalDate.MAX;
+            TreeMap<LocalDate, WorkoutStats.Week> buckets = new TreeMap<>();
+            double calories = 0;
+            int minutes = 0;
+            for (EmbeddedTable.Row<Workout> row : rows) {
+                Workout w = row.value;
+                calories += w.getCaloriesBurned();
+                minutes += w.getDuration();
+                if (!row.date.isBefore(from)) {
+                    LocalDate monday = row.date.with(DayOfWeek.MONDAY);
+                    WorkoutStats.Week week = buckets.get(monday);
+                    buckets.put(monday, new WorkoutStats.Week(monday.toString(),
+                            (week == null ? 0 : week.getWorkoutCount()) + 1,
+                            (week == null ? 0 : week.getCaloriesBurned()) + w.getCaloriesBurned(),
+                            (week == null ? 0 : week.getTotalMinutes()) + w.getDuration()));
+                }
+            }
+            return new WorkoutStats(rows.size(), calories, minutes, rows.get(0).date.toString(),
+                    rows.get(rows.size() - 1).date.toString(), new ArrayList<>(buckets.values()));
+        });
+    }
+
+    List<Nutrition> getMeals(int userId) { return read(() -> copies(meals.newestFirst(userId), EmbeddedStore::copyMeal)); }
+    Page<Nutrition> getMealsPage(int userId, PageCursor after, int limit) { return read(() -> copies(meals.page(userId, after, limit), EmbeddedStore::copyMeal)); }
+    int countMeals(int userId, HistoryView view) { return read(() -> HistoryColumns.MEALS.apply(meals.newestFirst(userId), view).size()); }
+    List<Nutrition> getMeals(int userId, HistoryView view, int offset, int limit) { return read(() -> copies(HistoryColumns.window(HistoryColumns.MEALS.apply(meals.newestFirst(userId), view), offset, limit), EmbeddedStore::copyMeal)); }
+
+    List<ProgressTracker> getProgress(int userId) { return read(() -> copies(progress.newestFirst(userId), EmbeddedStore::copyProgress)); }
+    Page<ProgressTracker> getProgressPage(int userId, PageCursor after, int limit) { return read(() -> copies(progress.page(userId, after, limit), EmbeddedStore::copyProgress)); }
+    int countProgress(int userId, HistoryView view) { return read(() -> HistoryColumns.PROGRESS.apply(progress.newestFirst(userId), view).size()); }
+    List<ProgressTracker> getProgress(int userId, HistoryView view, int offset, int limit) { return read(() -> copies(HistoryColumns.window(HistoryColumns.PROGRESS.apply(progress.newestFirst(userId), view), offset, limit), EmbeddedStore::copyProgress)); }
+    ProgressTracker getLatestProgress(int userId) { return read(() -> copyProgress(progress.latest(userId))); }
+
+    List<Goal> getGoals(int userId) { return read(() -> copies(goals.newestFirst(userId), EmbeddedStore::copyGoal)); }
+    int countGoals(int userId, HistoryView view) { return read(() -> HistoryColumns.GOALS.apply(goals.newestFirst(userId), view).size()); }
+    List<Goal> getGoals(int userId, HistoryView view, int offset, int limit) { return read(() -> copies(HistoryColumns.window(HistoryColumns.GOALS.apply(goals.newestFirst(userId), view), offset, limit), EmbeddedStore::copyGoal)); }
+
+    /** The user's totals for one day; all zeros if nothing was logged. */
+    DailyTotals getTotals(int userId, LocalDate day) {
+        return read(() -> {
+            TreeMap<LocalDate, double[]> days = totals.get(userId);
+            double[] t = days == null ? null : days.get(day);
+            return toDailyTotals(day, t == null ? new double[6] : t);
+        });
+    }
+
+    /** Today's totals and the latest progress entry, read under one lock so they agree. */
+    DashboardSnapshot getDashboardSnapshot(int userId, LocalDate today) {
+        return read(() -> {
+            DailyTotals totalsToday = getTotals(userId, today);
+            ProgressTracker latest = progress.latest(userId);
+            return latest == null
+                    ? new DashboardSnapshot(totalsToday, 0, 0, null)
+                    : new DashboardSnapshot(totalsToday, latest.getWeight(), latest.getBmi(), latest.getDate());
+        });
+    }
+
+    /** One entry per day with any activity in [from, to], oldest first. */
+    List<DailyTotals> getTotalsBetween(int userId, LocalDate from, LocalDate to) {
+        return read(() -> {
+            List<DailyTotals> result = new ArrayList<>();
+            TreeMap<LocalDate, double[]> days = totals.get(userId);
+            if (days != null) {
+                for (Map.Entry<LocalDate, double[]> day : days.subMap(from, true, to, true).entrySet()) {
+                    result.add(toDailyTotals(day.getKey(), day.getValue()));
+                }
+            }
+            return result;
+        });
+    }
+
+    /** Recomputes the rollup from the stored rows and returns how many day rows it holds; 0 rebuilds every user. */
+    int rebuildTotals(int userId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> ids = new ArrayList<>();
+            int rebuilt = 0;
+            if (userId > 0) {
+                ids.add(userId);
+            } else {
+                ids.addAll(users.keySet());
+            }
+            for (int id : ids) {
+                totals.remove(id);
+                for (EmbeddedTable.Row<Workout> row : workouts.rows(id)) {
+                    addToTotals(id, row.date, TOTAL_BURNED, row.value.getCaloriesBurned());
+                    addToTotals(id, row.date, TOTAL_WORKOUTS, 1);
+                }
+                for (EmbeddedTable.Row<Nutrition> row : meals.rows(id)) {
+                    addMealToTotals(id, row.date, row.value);
+                }
+                TreeMap<LocalDate, double[]> days = totals.get(id);
+                rebuilt += days == null ? 0 : days.size();
+            }
+            return rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Copies handed out to callers ---
+
+    private static <T> List<T> copies(List<T> rows, UnaryOperator<T> copy) {
+        List<T> result = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            result.add(copy.apply(row));
+        }
+        return result;
+    }
+
+    private static <T> Page<T> copies(Page<T> page, UnaryOperator<T> copy) {
+        return new Page<>(copies(page.getItems(), copy), page.getNextCursor());
+    }
+
+    private static Workout copyWorkout(Workout w) {
+        Workout c = new Workout(w.getWorkoutID(), w.getType(), w.getDuration(), w.getSets(), w.getReps(),
+                w.getWeight(), w.getCaloriesBurned());
+        c.setDate(w.getDate());
+        c.setCreatedAt(w.getCreatedAt());
+        return c;
+    }
+
+    private static Nutrition copyMeal(Nutrition m) {
+        Nutrition c = new Nutrition(m.getNutritionID(), m.getFoodItem(), m.getCalorieIntake(), m.getProtein(),
+                m.getCarbs(), m.getFats());
+        c.setDate(m.getDate());
+        c.setCreatedAt(m.getCreatedAt());
+        return c;
+    }
+
+    private static ProgressTracker copyProgress(ProgressTracker p) {
+        return p == null ? null : new ProgressTracker(p.getProgressID(), p.getDate(), p.getWeight(), p.getBmi());
+    }
+
+    private static Goal copyGoal(Goal g) {
+        Goal c = new Goal(g.getGoalID(), g.getDescription(), g.getTargetValue(), g.getCurrentValue(), g.getStatus());
+        c.setCreatedAt(g.getCreatedAt());
+        return c;
+    }
+
+    private static Recommendation copyRecommendation(Recommendation r) {
+        if (r == null) {
+            return null;
+        }
+        Recommendation c = new Recommendation(r.getUserID(), r.getGoal(), r.getWorkoutPlan(), r.getDietPlan(),
+                r.getProgressAnalysis());
+        c.setGeneratedAt(r.getGeneratedAt());
+        return c;
+    }
+
+    // --- Applying changes to memory (shared by live writes and journal replay) ---
+
+    private void applyUser(User user) {
+        User previous = users.put(user.getUserID(), user);
+        if (previous != null) {
+            userIdsByName.remove(previous.getUsername());
+        }
+        userIdsByName.put(user.getUsername(), user.getUserID());
+        lastUserId = Math.max(lastUserId, user.getUserID());
+    }
+
+    private void applyDeleteUser(int userId) {
+        User removed = users.remove(userId);
+        if (removed != null) {
+            userIdsByName.remove(removed.getUsername());
+        }
+        workouts.removeUser(userId);
+        meals.removeUser(userId);
+        progress.removeUser(userId);
+        goals.removeUser(userId);
+        totals.remove(userId);
+        recommendations.remove(userId);
+    }
+
+    private void applyWorkout(int userId, Workout w) {
+        LocalDate date = LocalDate.parse(w.getDate());
+        workouts.insert(userId, new EmbeddedTable.Row<>(date, Timestamp.valueOf(w.getCreatedAt()), w.getWorkoutID(), w));
+        addToTotals(userId, date, TOTAL_BURNED, w.getCaloriesBurned());
+        addToTotals(userId, date, TOTAL_WORKOUTS, 1);
+    }
+
+    private void applyMeal(int userId, Nutrition m) {
+        LocalDate date = LocalDate.parse(m.getDate());
+        meals.insert(userId, new EmbeddedTable.Row<>(date, Timestamp.valueOf(m.getCreatedAt()), m.getNutritionID(), m));
+        addMealToTotals(userId, date, m);
+    }
+
+    private void applyProgress(int userId, ProgressTracker p) {
+        progress.insert(userId, new EmbeddedTable.Row<>(LocalDate.parse(p.getDate()), null, p.getProgressID(), p));
+    }
+
+    private void applyGoal(int userId, Goal g) {
+        Timestamp createdAt = Timestamp.valueOf(g.getCreatedAt());
+        goals.insert(userId, new EmbeddedTable.Row<>(createdAt.toLocalDateTime().toLocalDate(), createdAt, g.getGoalID(), g));
+    }
+
+    private void addMealToTotals(int userId, LocalDate date, Nutrition m) {
+        addToTotals(userId, date, TOTAL_CALORIES_IN, m.getCalorieIntake());
+        addToTotals(userId, date, TOTAL_PROTEIN, m.getProtein());
+        addToTotals(userId, date, TOTAL_CARBS, m.getCarbs());
+        addToTotals(userId, date, TOTAL_FATS, m.getFats());
+    }
+
+    private void addToTotals(int userId, LocalDate date, int field, double amount) {
+        totals.computeIfAbsent(userId, k -> new TreeMap<>())
+                .computeIfAbsent(date, k -> new double[6])[field] += amount;
+    }
+
+    // --- Journal ---
+
+    private void append(String lines) throws SQLException {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.write(lines);
+            journal.flush();
+            if (sync) {
+                journalStream.getFD().sync();
+            }
+        } catch (IOException e) {
+            throw new SQLException("Could not write to embedded store " + journalFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cuts off a last line that a crash left without its newline. Replaying it could pick up a
+     * half-written value, and appending after it would glue the next record onto the fragment.
+     */
+    private void dropTornTail() throws IOException {
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long end = size;
+            ByteBuffer block = ByteBuffer.allocate(4096);
+            while (end > 0) {
+                int length = (int) Math.min(block.capacity(), end);
+                block.clear().limit(length);
+                long start = end - length;
+                while (block.hasRemaining()) {
+                    if (channel.read(block, start + block.position()) < 0) {
+                        break;
+                    }
+                }
+                int i = length - 1;
+                while (i >= 0 && block.get(i) != '\n') {
+                    i--;
+                }
+                if (i >= 0) {
+                    end = start + i + 1;
+                    break;
+                }
+                end = start;
+            }
+            if (end < size) {
+                System.err.println("Embedded store " + journalFile + " ends in an unfinished line ("
+                        + (size - end) + " bytes), dropping it.");
+                channel.truncate(end);
+            }
+        }
+    }
+
+    private void replay() throws IOException {
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    replayLine(line.split("\t", -1));
+                } catch (RuntimeException e) {
+                    // Most likely a line cut short by a crash mid-write; everything before it is intact.
+                    System.err.println("Error reading embedded store " + journalFile + " line " + lineNumber
+                            + ", skipping: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void replayLine(String[] f) {
+        switch (f[0]) {
+            case "U":
+                applyUser(new User(Integer.parseInt(f[1]), unescape(f[2]), Integer.parseInt(f[3]), unescape(f[4]),
+                        Double.parseDouble(f[5]), Double.parseDouble(f[6]), unescape(f[7]), unescape(f[8])));
+                break;
+            case "X":
+                applyDeleteUser(Integer.parseInt(f[1]));
+                break;
+            case "W": {
+                Workout w = new Workout(Integer.parseInt(f[2]), unescape(f[5]), Integer.parseInt(f[6]),
+                        Integer.parseInt(f[7]), Integer.parseInt(f[8]), Double.parseDouble(f[9]), Double.parseDouble(f[10]));
+                w.setDate(f[3]);
+                w.setCreatedAt(f[4]);
+                applyWorkout(Integer.parseInt(f[1]), w);
+                break;
+            }
+            case "M": {
+                Nutrition m = new Nutrition(Integer.parseInt(f[2]), unescape(f[5]), Double.parseDouble(f[6]),
+                        Double.parseDouble(f[7]), Double.parseDouble(f[8]), Double.parseDouble(f[9]));
+                m.setDate(f[3]);
+                m.setCreatedAt(f[4]);
+                applyMeal(Integer.parseInt(f[1]), m);
+                break;
+            }
+            case "P":
+                applyProgress(Integer.parseInt(f[1]), new ProgressTracker(Integer.parseInt(f[2]), f[3],
+                        Double.parseDouble(f[4]), Double.parseDouble(f[5])));
+                break;
+            case "G": {
+                Goal g = new Goal(Integer.parseInt(f[2]), unescape(f[4]), Double.parseDouble(f[5]),
+                        Double.parseDouble(f[6]), unescape(f[7]));
+                g.setCreatedAt(f[3]);
+                applyGoal(Integer.parseInt(f[1]), g);
+                break;
+            }
+            case "R": {
+                Recommendation r = new Recommendation(Integer.parseInt(f[1]), unescape(f[3]), unescape(f[4]),
+                        unescape(f[5]), unescape(f[6]));
+                r.setGeneratedAt(f[2]);
+                recommendations.put(r.getUserID(), r);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("unknown record type '" + f[0] + "'");
+        }
+    }
+
+    private static String userLine(User u) {
+        return join("U", u.getUserID(), u.getName(), u.getAge(), u.getGender(), u.getHeight(), u.getWeight(),
+                u.getUsername(), u.getPassword());
+    }
+
+    private static String join(Object... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                sb.append('\t');
+            }
+            sb.append(fields[i] == null ? NULL_FIELD : escape(fields[i].toString()));
+        }
+        return sb.append('\n').toString();
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String s) {
+        if (NULL_FIELD.equals(s)) {
+            return null;
+        }
+        if (s.indexOf('\\') < 0) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                char n = s.charAt(++i);
+                sb.append(n == 't' ? '\t' : n == 'n' ? '\n' : n == 'r' ? '\r' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // --- Helpers ---
+
+    private <R> R read(Supplier<R> body) {
+        lock.readLock().lock();
+        try {
+            return body.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void requireUser(int userId) throws SQLException {
+        if (!users.containsKey(userId)) {
+            throw new SQLException("No user with ID " + userId + ".", "23000");
+        }
+    }
+
+    private static LocalDateTime now() {
+        // Second precision, like a MySQL TIMESTAMP column.
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private static User withId(User u, int id) {
+        return new User(id, u.getName(), u.getAge(), u.getGender(), u.getHeight(), u.getWeight(),
+                u.getUsername(), u.getPassword());
+    }
+
+    private static DailyTotals toDailyTotals(LocalDate day, double[] t) {
+        return new DailyTotals(day.toString(), t[TOTAL_CALORIES_IN], t[TOTAL_PROTEIN], t[TOTAL_CARBS], t[TOTAL_FATS],
+                t[TOTAL_BURNED], (int) t[TOTAL_WORKOUTS]);
+    }
+}
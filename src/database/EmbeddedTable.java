@@ -0,0 +1,123 @@
+package database;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One table of the embedded store: each user's rows kept in (date, created_at, id) order,
+ * the same order the SQL history queries use. New rows are almost always the newest,
+ * so inserts append; reads walk backwards from the end. Not thread-safe on its own;
+ * {@link EmbeddedStore} guards every table with its lock.
+ */
+final class EmbeddedTable<T> {
+
+    static final class Row<T> {
+        final LocalDate date;
+        final Timestamp createdAt; // null for tables ordered by (date, id) only
+        final int id;
+        final T value;
+
+        Row(LocalDate date, Timestamp createdAt, int id, T value) {
+            this.date = date;
+            this.createdAt = createdAt;
+            this.id = id;
+            this.value = value;
+        }
+
+        int compareTo(LocalDate otherDate, Timestamp otherCreatedAt, int otherId) {
+            int c = date.compareTo(otherDate);
+            if (c == 0 && createdAt != null && otherCreatedAt != null) {
+                c = createdAt.compareTo(otherCreatedAt);
+            }
+            return c != 0 ? c : Integer.compare(id, otherId);
+        }
+    }
+
+    private final Map<Integer, ArrayList<Row<T>>> byUser = new HashMap<>();
+    private int lastId;
+
+    int nextId() {
+        return ++lastId;
+    }
+
+    void insert(int userId, Row<T> row) {
+        lastId = Math.max(lastId, row.id);
+        ArrayList<Row<T>> rows = byUser.computeIfAbsent(userId, k -> new ArrayList<>());
+        int i = rows.size();
+        while (i > 0 && rows.get(i - 1).compareTo(row.date, row.createdAt, row.id) > 0) {
+            i--;
+        }
+        rows.add(i, row);
+    }
+
+    List<Row<T>> rows(int userId) {
+        return byUser.getOrDefault(userId, new ArrayList<>());
+    }
+
+    /** The user's rows, newest first. */
+    List<T> newestFirst(int userId) {
+        List<Row<T>> rows = rows(userId);
+        List<T> result = new ArrayList<>(rows.size());
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            result.add(rows.get(i).value);
+        }
+        return result;
+    }
+
+    /** Same contract as the keyset-paginated SQL history reads. */
+    Page<T> page(int userId, PageCursor after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        List<Row<T>> rows = rows(userId);
+        int i = rows.size() - 1;
+        if (after != null) {
+            LocalDate date = after.date.toLocalDate();
+            while (i >= 0 && rows.get(i).compareTo(date, after.createdAt, after.id) >= 0) {
+                i--;
+            }
+        }
+        List<T> items = new ArrayList<>(Math.min(limit, i + 1));
+        Row<T> last = null;
+        for (; i >= 0 && items.size() < limit; i--) {
+            last = rows.get(i);
+            items.add(last.value);
+        }
+        PageCursor next = i >= 0 && last != null
+                ? new PageCursor(Date.valueOf(last.date), last.createdAt, last.id)
+                : null;
+        return new Page<>(items, next);
+    }
+
+    /** The user's rows dated {@code day}, newest first. */
+    List<T> onDate(int userId, LocalDate day) {
+        List<Row<T>> rows = rows(userId);
+        List<T> result = new ArrayList<>();
+        for (int i = rows.size() - 1; i >= 0 && !rows.get(i).date.isBefore(day); i--) {
+            if (rows.get(i).date.equals(day)) {
+                result.add(rows.get(i).value);
+            }
+        }
+        return result;
+    }
+
+    /** The user's newest row, or null. */
+    T latest(int userId) {
+        List<Row<T>> rows = rows(userId);
+        return rows.isEmpty() ? null : rows.get(rows.size() - 1).value;
+    }
+
+    void removeUser(int userId) {
+        byUser.remove(userId);
+    }
+
+    Iterable<Integer> userIds() {
+        return Collections.unmodifiableSet(byUser.keySet());
+    }
+}
@@ -0,0 +1,76 @@
+package database;
+
+import models.User;
+import java.sql.SQLException;
+import java.util.List;
+
+class EmbeddedUserDAO implements UserDAO {
+    private final EmbeddedStore store;
+
+    EmbeddedUserDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean createUser(User user) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.createUser")) {
+            try {
+                store.createUser(user);
+                call.rows(1);
+                return true;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error creating user: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public User authenticateUser(String username, String password) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.authenticateUser")) {
+            User user = store.authenticate(username, password);
+            call.rows(user == null ? 0 : 1);
+            return user;
+        }
+    }
+
+    @Override
+    public boolean updateUser(User user) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.updateUser")) {
+            try {
+                boolean updated = store.updateUser(user);
+                call.rows(updated ? 1 : 0);
+                return updated;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error updating user: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteUser(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.deleteUser")) {
+            try {
+                boolean deleted = store.deleteUser(userId);
+                call.rows(deleted ? 1 : 0);
+                return deleted;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error deleting user: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public List<User> getUsersAfter(int afterUserId, int limit) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.getUsersAfter")) {
+            List<User> users = store.getUsersAfter(afterUserId, limit);
+            call.rows(users.size());
+            return users;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package database;
+
+import models.Workout;
+import models.WorkoutStats;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+class EmbeddedWorkoutDAO implements WorkoutDAO {
+    private final EmbeddedStore store;
+
+    EmbeddedWorkoutDAO(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Workout addWorkout(Workout workout, int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.addWorkout")) {
+            try {
+                Workout saved = store.addWorkouts(userId, Collections.singletonList(workout)).get(0);
+                TrainingStats.workoutsAdded(userId, Collections.singletonList(saved), new int[] {saved.getWorkoutID()});
+                call.rows(1);
+                return saved;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding workout: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /** Writes are already in-process and immediate, so this just completes synchronously. */
+    @Override
+    public CompletableFuture<Integer> addWorkoutAsync(Workout workout, int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.addWorkoutAsync")) {
+            try {
+                Workout saved = store.addWorkouts(userId, Collections.singletonList(workout)).get(0);
+                TrainingStats.workoutsAdded(userId, Collections.singletonList(saved), new int[] {saved.getWorkoutID()});
+                call.rows(1);
+                return CompletableFuture.completedFuture(saved.getWorkoutID());
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding workout: " + e.getMessage());
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    @Override
+    public BatchResult addWorkouts(List<Workout> workouts, int userId, int batchSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.addWorkouts")) {
+            try {
+                List<Workout> saved = store.addWorkouts(userId, workouts);
+                int[] ids = saved.stream().mapToInt(Workout::getWorkoutID).toArray();
+                TrainingStats.workoutsAdded(userId, saved, ids);
+                call.rows(ids.length);
+                return BatchResult.allInserted(ids);
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding workout batch: " + e.getMessage());
+                return BatchResult.failed(workouts.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public List<Workout> getWorkoutsByUser(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.getWorkoutsByUser")) {
+            List<Workout> rows = store.getWorkouts(userId);
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+
+    @Override
+    public Page<Workout> getWorkoutsPage(int userId, PageCursor after, int pageSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("HistoryQuery.workouts")) {
+            Page<Workout> page = store.getWorkoutsPage(userId, after, pageSize);
+            call.rows(page.getItems().size());
+            return page;
+        }
+    }
+
+    @Override
+    public Stream<Workout> streamWorkoutsByUser(int userId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        return Page.stream(after -> getWorkoutsPage(userId, after, pageSize));
+    }
+
+    @Override
+    public List<Workout> getTodaysWorkouts(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.getTodaysWorkouts")) {
+            List<Workout> rows = store.getWorkoutsOn(userId, LocalDate.now());
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+
+    @Override
+    public WorkoutStats getWorkoutStats(int userId, int weeks) {
+        if (weeks < 0) {
+            throw new IllegalArgumentException("Week count can't be negative.");
+        }
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.getWorkoutStats")) {
+            WorkoutStats stats = store.getWorkoutStats(userId, weeks, LocalDate.now());
+            call.rows(stats.getWeeks().size() + 1);
+            return stats;
+        }
+    }
+
+    @Override
+    public int countWorkouts(int userId, HistoryView view) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WindowQuery.workouts.count")) {
+            int count = store.countWorkouts(userId, view);
+            call.rows(1);
+            return count;
+        }
+    }
+
+    @Override
+    public List<Workout> getWorkoutsWindow(int userId, HistoryView view, int offset, int limit) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WindowQuery.workouts")) {
+            List<Workout> rows = store.getWorkouts(userId, view, offset, limit);
+            call.rows(rows.size());
+            return rows;
+        }
+    }
+}
@@ -1,52 +1,30 @@
 package database;
 
 import models.Goal;
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 
-public class GoalDAO {
+/**
+ * Goal storage. Get the configured implementation from {@link DaoFactory#goals()}.
+ * Failures are logged and reported as null or an empty result, except that the reads throw
+ * IllegalStateException, so a failed read isn't mistaken for a user with no goals.
+ */
+public interface GoalDAO {
 
-    public GoalDAO() {
-        // Constructor is now empty
-    }
+    /**
+     * Inserts the goal and returns it as stored, with its generated ID and
+     * assigned timestamp, or null if the insert failed.
+     */
+    Goal addGoal(Goal goal, int userId);
 
-    public boolean addGoal(Goal goal, int userId) {
-        String sql = "INSERT INTO goals (user_id, description, target_value, current_value, status) VALUES (?, ?, ?, ?, ?)";
-        // Each method gets its own connection
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setInt(1, userId);
-            stmt.setString(2, goal.getDescription());
-            stmt.setDouble(3, goal.getTargetValue());
-            stmt.setDouble(4, goal.getCurrentValue());
-            stmt.setString(5, goal.getStatus());
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error adding goal: " + e.getMessage());
-            return false;
-        }
-    }
+    /** The user's goals, newest first. The list must not be modified. */
+    List<Goal> getGoalsByUser(int userId);
 
-    public List<Goal> getGoalsByUser(int userId) {
-        List<Goal> goals = new ArrayList<>();
-        String sql = "SELECT * FROM goals WHERE user_id = ? ORDER BY created_at DESC";
-        // Each method gets its own connection
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
+    /** How many of the user's goals match {@code view}. */
+    int countGoals(int userId, HistoryView view);
 
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                goals.add(new Goal(
-                        rs.getInt("goal_id"), rs.getString("description"), rs.getDouble("target_value"),
-                        rs.getDouble("current_value"), rs.getString("status")
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting goals: " + e.getMessage());
-        }
-        return goals;
-    }
-}
\ No newline at end of file
+    /**
+     * Rows {@code offset} to {@code offset + limit - 1} of the user's goals, as ordered and
+     * filtered by {@code view}, for views that scroll to any point without reading the rest.
+     */
+    List<Goal> getGoalsWindow(int userId, HistoryView view, int offset, int limit);
+}
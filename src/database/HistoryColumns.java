@@ -0,0 +1,131 @@
+package database;
+
+import models.Goal;
+import models.Nutrition;
+import models.ProgressTracker;
+import models.Workout;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The sortable columns and the filter column of one history table, shared by both backends:
+ * MySQL turns a {@link HistoryView} into ORDER BY and WHERE clauses, the embedded store into
+ * a comparator and a predicate. Column names are the SQL names, so both agree on what a
+ * view means.
+ */
+final class HistoryColumns<T> {
+
+    static final HistoryColumns<Workout> WORKOUTS = new HistoryColumns<Workout>(
+            "workouts", "workout_date DESC, created_at DESC, workout_id DESC", "type", Workout::getType)
+            .sortable("type", text(Workout::getType))
+            .sortable("duration", Comparator.comparingInt(Workout::getDuration))
+            .sortable("sets_count", Comparator.comparingInt(Workout::getSets))
+            .sortable("reps_count", Comparator.comparingInt(Workout::getReps))
+            .sortable("weight", Comparator.comparingDouble(Workout::getWeight))
+            .sortable("calories_burned", Comparator.comparingDouble(Workout::getCaloriesBurned))
+            .sortable("workout_date", text(Workout::getDate));
+
+    static final HistoryColumns<Nutrition> MEALS = new HistoryColumns<Nutrition>(
+            "nutrition", "meal_date DESC, created_at DESC, nutrition_id DESC", "food_item", Nutrition::getFoodItem)
+            .sortable("food_item", text(Nutrition::getFoodItem))
+            .sortable("calorie_intake", Comparator.comparingDouble(Nutrition::getCalorieIntake))
+            .sortable("protein", Comparator.comparingDouble(Nutrition::getProtein))
+            .sortable("carbs", Comparator.comparingDouble(Nutrition::getCarbs))
+            .sortable("fats", Comparator.comparingDouble(Nutrition::getFats))
+            .sortable("meal_date", text(Nutrition::getDate));
+
+    static final HistoryColumns<Goal> GOALS = new HistoryColumns<Goal>(
+            "goals", "created_at DESC, goal_id DESC", "description", Goal::getDescription)
+            .sortable("description", text(Goal::getDescription))
+            .sortable("current_value", Comparator.comparingDouble(Goal::getCurrentValue))
+            .sortable("target_value", Comparator.comparingDouble(Goal::getTargetValue))
+            .sortable("status", text(Goal::getStatus));
+
+    // Filtering by date text lets "2024-05" pick out a month.
+    static final HistoryColumns<ProgressTracker> PROGRESS = new HistoryColumns<ProgressTracker>(
+            "progress_tracker", "progress_date DESC, progress_id DESC", "CAST(progress_date AS CHAR)", ProgressTracker::getDate)
+            .sortable("progress_date", text(ProgressTracker::getDate))
+            .sortable("weight", Comparator.comparingDouble(ProgressTracker::getWeight))
+            .sortable("bmi", Comparator.comparingDouble(ProgressTracker::getBmi));
+
+    final String table;
+    final String defaultOrder;
+    final String filterExpression;
+    private final Function<T, String> filterText;
+    private final Map<String, Comparator<T>> sortable = new HashMap<>();
+
+    private HistoryColumns(String table, String defaultOrder, String filterExpression, Function<T, String> filterText) {
+        this.table = table;
+        this.defaultOrder = defaultOrder;
+        this.filterExpression = filterExpression;
+        this.filterText = filterText;
+    }
+
+    private HistoryColumns<T> sortable(String column, Comparator<T> comparator) {
+        sortable.put(column, comparator);
+        return this;
+    }
+
+    /** The ORDER BY list for the view; the sort column has already been checked against the whitelist. */
+    String orderBy(HistoryView view) {
+        String column = checkedSortColumn(view);
+        return column == null ? defaultOrder : column + (view.isAscending() ? " ASC, " : " DESC, ") + defaultOrder;
+    }
+
+    /**
+     * Applies the view to rows already in newest-first order. The sort is stable,
+     * so ties stay newest first, as they do in SQL.
+     */
+    List<T> apply(List<T> newestFirst, HistoryView view) {
+        String column = checkedSortColumn(view);
+        List<T> rows = new ArrayList<>(newestFirst.size());
+        String filter = view.getFilter() == null ? null : view.getFilter().toLowerCase(Locale.ROOT);
+        for (T row : newestFirst) {
+            if (filter == null || matches(row, filter)) {
+                rows.add(row);
+            }
+        }
+        if (column != null) {
+            Comparator<T> comparator = sortable.get(column);
+            rows.sort(view.isAscending() ? comparator : comparator.reversed());
+        }
+        return rows;
+    }
+
+    /** Rows {@code offset} to {@code offset + limit - 1} of an already ordered and filtered list. */
+    static <T> List<T> window(List<T> rows, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Window offset can't be negative and its size must be positive.");
+        }
+        int from = Math.min(offset, rows.size());
+        return new ArrayList<>(rows.subList(from, Math.min(rows.size(), from + limit)));
+    }
+
+    /** The filter as a LIKE pattern, with the LIKE wildcards in it escaped. */
+    static String likePattern(String filter) {
+        return "%" + filter.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private boolean matches(T row, String lowerCaseFilter) {
+        String text = filterText.apply(row);
+        return text != null && text.toLowerCase(Locale.ROOT).contains(lowerCaseFilter);
+    }
+
+    private String checkedSortColumn(HistoryView view) {
+        String column = view.getSortColumn();
+        if (column != null && !sortable.containsKey(column)) {
+            throw new IllegalArgumentException("Can't sort " + table + " by '" + column + "'.");
+        }
+        return column;
+    }
+
+    // Case-insensitive, nulls last, to match how MySQL's default collation orders text.
+    private static <T> Comparator<T> text(Function<T, String> getter) {
+        return Comparator.comparing(getter, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+    }
+}
@@ -0,0 +1,139 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset-paginated, newest-first read over one user's rows in a history table.
+ * Each page continues strictly after the (date, created_at, id) of the previous page's
+ * last row, so page N costs the same as page 1 and nothing older than the current
+ * page has to be held in memory.
+ */
+final class HistoryQuery<T> {
+    static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final boolean hasCreatedAt;
+    private final RowMapper<T> mapper;
+    private final String operation;
+    private final String what;
+    private final String firstPageSql;
+    private final String nextPageSql;
+
+    /**
+     * @param createdAtColumn may be null for tables ordered only by (date, id).
+     */
+    HistoryQuery(String table, String dateColumn, String createdAtColumn, String idColumn,
+                 RowMapper<T> mapper, String what) {
+        this.hasCreatedAt = createdAtColumn != null;
+        this.mapper = mapper;
+        this.what = what;
+        this.operation = "HistoryQuery." + table;
+
+        String orderBy = createdAtColumn != null
+                ? " ORDER BY " + dateColumn + " DESC, " + createdAtColumn + " DESC, " + idColumn + " DESC"
+                : " ORDER BY " + dateColumn + " DESC, " + idColumn + " DESC";
+        // The keyset columns follow the mapper's columns so the cursor can be read by index too.
+        String keyset = createdAtColumn != null
+                ? dateColumn + ", " + createdAtColumn + ", " + idColumn
+                : dateColumn + ", " + idColumn;
+        String base = "SELECT " + mapper.selectList() + ", " + keyset + " FROM " + table + " WHERE user_id = ?";
+        // Expanded form of (date, created_at, id) < (?, ?, ?) so MySQL can range-scan the index.
+        String after = createdAtColumn != null
+                ? " AND (" + dateColumn + " < ? OR (" + dateColumn + " = ? AND (" + createdAtColumn + " < ? OR ("
+                        + createdAtColumn + " = ? AND " + idColumn + " < ?))))"
+                : " AND (" + dateColumn + " < ? OR (" + dateColumn + " = ? AND " + idColumn + " < ?))";
+        this.firstPageSql = base + orderBy + " LIMIT ?";
+        this.nextPageSql = base + after + orderBy + " LIMIT ?";
+    }
+
+    /**
+     * Reads up to {@code limit} rows after {@code cursor} (or from the newest row if cursor is null).
+     * A failed read throws rather than returning an empty page, which would look like the end of
+     * the history to a caller walking it.
+     */
+    Page<T> fetch(int userId, PageCursor cursor, int limit) {
+        try {
+            return fetchPage(userId, cursor, limit);
+        } catch (SQLException e) {
+            System.err.println("Error getting " + what + " page: " + e.getMessage());
+            throw new IllegalStateException("Could not read " + what + " page: " + e.getMessage(), e);
+        }
+    }
+
+    private Page<T> fetchPage(int userId, PageCursor cursor, int limit) throws SQLException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        try (DaoMetrics.Call call = DaoMetrics.begin(operation)) {
+            try {
+                return readPage(call, userId, cursor, limit);
+            } catch (SQLException e) {
+                call.failed();
+                throw e;
+            }
+        }
+    }
+
+    private Page<T> readPage(DaoMetrics.Call call, int userId, PageCursor cursor, int limit) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(cursor == null ? firstPageSql : nextPageSql)) {
+            int i = 1;
+            stmt.setInt(i++, userId);
+            if (cursor != null) {
+                stmt.setDate(i++, cursor.date);
+                stmt.setDate(i++, cursor.date);
+                if (hasCreatedAt) {
+                    stmt.setTimestamp(i++, cursor.createdAt);
+                    stmt.setTimestamp(i++, cursor.createdAt);
+                }
+                stmt.setInt(i++, cursor.id);
+            }
+            // One extra row tells us whether there is another page without a second query.
+            stmt.setInt(i, limit + 1);
+            stmt.setFetchSize(limit + 1);
+
+            List<T> items = new ArrayList<>(Math.min(limit, 1024));
+            PageCursor last = null;
+            int k = mapper.columnCount();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == limit) {
+                        call.rows(items.size());
+                        return new Page<>(items, last);
+                    }
+                    items.add(mapper.map(rs));
+                    last = hasCreatedAt
+                            ? new PageCursor(rs.getDate(k + 1), rs.getTimestamp(k + 2), rs.getInt(k + 3))
+                            : new PageCursor(rs.getDate(k + 1), null, rs.getInt(k + 2));
+                }
+            }
+            call.rows(items.size());
+            return new Page<>(items, null);
+        }
+    }
+
+    /**
+     * Lazily walks the whole history page by page. Only one page is in memory at a time,
+     * and no connection is held between pages, so the stream doesn't need to be closed.
+     */
+    Stream<T> stream(int userId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        return Page.stream(after -> fetch(userId, after, pageSize));
+    }
+
+    /** Reads the whole history page by page; unlike fetch(), errors are passed to the caller. */
+    List<T> list(int userId) throws SQLException {
+        List<T> result = new ArrayList<>();
+        PageCursor cursor = null;
+        do {
+            Page<T> page = fetchPage(userId, cursor, DEFAULT_PAGE_SIZE);
+            result.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return result;
+    }
+}
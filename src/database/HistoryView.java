@@ -0,0 +1,62 @@
+package database;
+
+import java.util.Objects;
+
+/**
+ * How a scrolling history view orders and filters a user's rows: an optional sort column
+ * (by its column name, e.g. {@code "calories_burned"}) and an optional case-insensitive
+ * "contains" filter on the table's text column. Both are applied by the backend, so only
+ * the requested window of rows is ever read. Rows that tie on the sort column keep the
+ * usual newest-first order. Immutable.
+ */
+public final class HistoryView {
+    /** No filter, newest first: the same order as the history lists and pages. */
+    public static final HistoryView NEWEST_FIRST = new HistoryView(null, false, null);
+
+    private final String sortColumn;
+    private final boolean ascending;
+    private final String filter;
+
+    private HistoryView(String sortColumn, boolean ascending, String filter) {
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+        this.filter = filter == null || filter.trim().isEmpty() ? null : filter.trim();
+    }
+
+    /** This view sorted by {@code column}, or newest first again if {@code column} is null. */
+    public HistoryView sortedBy(String column, boolean ascending) {
+        return new HistoryView(column, column != null && ascending, filter);
+    }
+
+    /** This view keeping only rows whose text column contains {@code text}; null or blank for all rows. */
+    public HistoryView filteredBy(String text) {
+        return new HistoryView(sortColumn, ascending, text);
+    }
+
+    // Getters
+    /** The sort column, or null for newest first. */
+    public String getSortColumn() { return sortColumn; }
+    public boolean isAscending() { return ascending; }
+    /** The trimmed filter text, or null for no filter. */
+    public String getFilter() { return filter; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HistoryView)) return false;
+        HistoryView other = (HistoryView) o;
+        return ascending == other.ascending && Objects.equals(sortColumn, other.sortColumn)
+                && Objects.equals(filter, other.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortColumn, ascending, filter);
+    }
+
+    @Override
+    public String toString() {
+        return "HistoryView[" + (sortColumn == null ? "newest first" : sortColumn + (ascending ? " asc" : " desc"))
+                + (filter == null ? "" : ", filter '" + filter + "'") + "]";
+    }
+}
@@ -0,0 +1,96 @@
+package database;
+
+import models.User;
+import models.Workout;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Insert throughput of one workout per call ({@link WorkoutDAO#addWorkout}, a round trip and
+ * a commit per row) against the batched {@link WorkoutDAO#addWorkouts}, through whichever
+ * backend db.backend selects. Each round inserts the same rows both ways for a throwaway user,
+ * who is deleted at the end. The first round is a warm-up and isn't counted. The embedded
+ * backend has no round trips to save, so expect little difference there.
+ * Usage: java database.InsertBenchmark [rows] [batchSize] [rounds]
+ */
+public final class InsertBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : DatabaseConnection.getDefaultBatchSize();
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        if (rows <= 0 || batchSize <= 0 || rounds <= 0) {
+            System.err.println("Usage: java database.InsertBenchmark [rows] [batchSize] [rounds]");
+            System.exit(2);
+        }
+
+        DaoFactory daos = DaoFactory.get();
+        try {
+            daos.initialize();
+        } catch (SQLException e) {
+            System.err.println("Error connecting to the database: " + e.getMessage());
+            daos.shutdown();
+            System.exit(1);
+        }
+        String username = "insert-benchmark-" + System.nanoTime();
+        if (!daos.users().createUser(new User(0, "Benchmark", 30, "Female", 170, 65, username, "pw"))) {
+            System.err.println("Error creating the benchmark user.");
+            daos.shutdown();
+            System.exit(1);
+        }
+        int userId = daos.users().authenticateUser(username, "pw").getUserID();
+        List<Workout> workouts = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            workouts.add(new Workout(0, "Benchmark", 30 + i % 60, i % 5, i % 12, i % 80, 100 + i % 400));
+        }
+
+        double[] single = new double[rounds];
+        double[] batched = new double[rounds];
+        boolean ok = true;
+        try {
+            System.out.printf("Backend %s, %d rows per round, batches of %d%n", daos.getBackend(), rows, batchSize);
+            for (int round = 0; round <= rounds && ok; round++) {
+                long start = System.nanoTime();
+                for (Workout workout : workouts) {
+                    ok &= daos.workouts().addWorkout(workout, userId) != null;
+                }
+                double singlePerSecond = rows / seconds(start);
+
+                start = System.nanoTime();
+                ok &= daos.workouts().addWorkouts(workouts, userId, batchSize).getInsertedCount() == rows;
+                double batchedPerSecond = rows / seconds(start);
+
+                if (round == 0) {
+                    continue; // Warm-up: pool, statement cache and JIT.
+                }
+                single[round - 1] = singlePerSecond;
+                batched[round - 1] = batchedPerSecond;
+                System.out.printf("Round %d: single %,10.0f rows/s, batched %,10.0f rows/s%n",
+                        round, singlePerSecond, batchedPerSecond);
+            }
+        } finally {
+            daos.users().deleteUser(userId);
+            daos.shutdown();
+        }
+        if (!ok) {
+            System.err.println("Error: some inserts failed, so the timings aren't comparable.");
+            System.exit(1);
+        }
+        double singleMedian = median(single);
+        double batchedMedian = median(batched);
+        System.out.printf("Median: single %,.0f rows/s, batched %,.0f rows/s (%.1fx)%n",
+                singleMedian, batchedMedian, batchedMedian / singleMedian);
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,86 @@
+package database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram in microseconds.
+ * Each power of two is split into 8 sub-buckets, so any reported percentile is within
+ * 12.5% of the true value while recording stays a couple of atomic increments.
+ * Public so the GUI's timings can use the same histogram as the DAOs.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 2^40 us is about 12 days; anything slower lands in the last bucket.
+    private static final int MAX_EXPONENT = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray((MAX_EXPONENT + 1) * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        buckets.incrementAndGet(indexOf(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() { return count.get(); }
+    public long getMaxMicros() { return maxMicros.get(); }
+
+    public double getMeanMicros() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) totalMicros.get() / n;
+    }
+
+    /** The upper bound of the bucket holding the given percentile (0-100), capped at the max seen. */
+    public long percentileMicros(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    private static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return (MAX_EXPONENT + 1) * SUB_BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
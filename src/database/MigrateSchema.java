@@ -0,0 +1,34 @@
+package database;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings the database schema up to the latest version.
+ * Usage: java database.MigrateSchema [--explain]
+ * With --explain, also prints the query plans for the DAOs' hot queries.
+ */
+public class MigrateSchema {
+
+    public static void main(String[] args) {
+        boolean explain = args.length > 0 && "--explain".equals(args[0]);
+        try {
+            int applied = SchemaMigrator.migrate();
+            System.out.println("Schema is at version " + SchemaMigrator.getCurrentVersion()
+                    + " (" + applied + " migration(s) applied).");
+            if (explain) {
+                for (Map.Entry<String, List<String>> plan : SchemaMigrator.explain().entrySet()) {
+                    System.out.println(plan.getKey() + ":");
+                    for (String row : plan.getValue()) {
+                        System.out.println("    " + row);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error migrating schema: " + e.getMessage());
+            DatabaseConnection.shutdown();
+            System.exit(1);
+        }
+        DatabaseConnection.shutdown();
+    }
+}
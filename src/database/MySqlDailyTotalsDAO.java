@@ -0,0 +1,218 @@
+package database;
+
+import models.DailyTotals;
+import models.Nutrition;
+import models.Workout;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-user, per-day rollup of nutrition and workout totals.
+ * The workout and nutrition DAOs add to today's row in the same transaction as every insert,
+ * so dashboard and range reads touch one row per day instead of every logged entry.
+ */
+class MySqlDailyTotalsDAO implements DailyTotalsDAO {
+    static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS daily_totals ("
+            + "user_id INT NOT NULL, "
+            + "day DATE NOT NULL, "
+            + "calories_in DOUBLE NOT NULL DEFAULT 0, "
+            + "protein DOUBLE NOT NULL DEFAULT 0, "
+            + "carbs DOUBLE NOT NULL DEFAULT 0, "
+            + "fats DOUBLE NOT NULL DEFAULT 0, "
+            + "calories_burned DOUBLE NOT NULL DEFAULT 0, "
+            + "workout_count INT NOT NULL DEFAULT 0, "
+            + "PRIMARY KEY (user_id, day))";
+
+    // Inserted rows take the table default date (CURRENT_DATE), so the rollup uses the same day.
+    static final String ADD_MEALS_SQL = "INSERT INTO daily_totals (user_id, day, calories_in, protein, carbs, fats) "
+            + "VALUES (?, CURRENT_DATE, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "calories_in = calories_in + VALUES(calories_in), protein = protein + VALUES(protein), "
+            + "carbs = carbs + VALUES(carbs), fats = fats + VALUES(fats)";
+    static final String ADD_WORKOUTS_SQL = "INSERT INTO daily_totals (user_id, day, calories_burned, workout_count) "
+            + "VALUES (?, CURRENT_DATE, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "calories_burned = calories_burned + VALUES(calories_burned), workout_count = workout_count + VALUES(workout_count)";
+
+    private static final String TODAY_SQL = "SELECT " + RowMappers.DAILY_TOTALS.selectList()
+            + " FROM daily_totals WHERE user_id = ? AND day = CURRENT_DATE";
+    private static final String RANGE_SQL = "SELECT " + RowMappers.DAILY_TOTALS.selectList()
+            + " FROM daily_totals WHERE user_id = ? AND day BETWEEN ? AND ? ORDER BY day";
+    private static final String RANGE_SUM_SQL = "SELECT SUM(calories_in), SUM(protein), SUM(carbs), SUM(fats), "
+            + "SUM(calories_burned), SUM(workout_count) FROM daily_totals WHERE user_id = ? AND day BETWEEN ? AND ?";
+
+    private static final String REBUILD_DELETE_SQL = "DELETE FROM daily_totals";
+    private static final String REBUILD_MEALS_SQL = "INSERT INTO daily_totals (user_id, day, calories_in, protein, carbs, fats) "
+            + "SELECT user_id, meal_date, SUM(calorie_intake), SUM(protein), SUM(carbs), SUM(fats) FROM nutrition%s "
+            + "GROUP BY user_id, meal_date";
+    private static final String REBUILD_WORKOUTS_SQL = "INSERT INTO daily_totals (user_id, day, calories_burned, workout_count) "
+            + "SELECT user_id, workout_date, SUM(calories_burned), COUNT(*) FROM workouts%s "
+            + "GROUP BY user_id, workout_date "
+            + "ON DUPLICATE KEY UPDATE calories_burned = VALUES(calories_burned), workout_count = VALUES(workout_count)";
+    // The schema migration that adds the table fills it with the same rebuild, over every user.
+    static final String[] CREATE_AND_BACKFILL_SQL = {CREATE_TABLE_SQL,
+            REBUILD_DELETE_SQL, String.format(REBUILD_MEALS_SQL, ""), String.format(REBUILD_WORKOUTS_SQL, "")};
+
+    MySqlDailyTotalsDAO() {}
+
+    @Override
+    public DailyTotals getTodaysTotals(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.getTodaysTotals")) {
+            LocalDate today = LocalDate.now();
+            try {
+                return QueryCache.getShared().get(userId, "daily_totals", "today:" + today,
+                        () -> loadTodaysTotals(userId, today));
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting today's totals: " + e.getMessage());
+                return new DailyTotals(today.toString(), 0, 0, 0, 0, 0, 0);
+            }
+        }
+    }
+
+    private DailyTotals loadTodaysTotals(int userId, LocalDate today) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(TODAY_SQL)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return RowMappers.DAILY_TOTALS.map(rs);
+                }
+            }
+        }
+        return new DailyTotals(today.toString(), 0, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    public List<DailyTotals> getDailyTotalsBetween(int userId, LocalDate from, LocalDate to) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.getDailyTotalsBetween")) {
+            List<DailyTotals> days = new ArrayList<>();
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(RANGE_SQL)) {
+                stmt.setInt(1, userId);
+                stmt.setDate(2, Date.valueOf(from));
+                stmt.setDate(3, Date.valueOf(to));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        days.add(RowMappers.DAILY_TOTALS.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting daily totals: " + e.getMessage());
+                throw new IllegalStateException("Could not read daily totals: " + e.getMessage(), e);
+            }
+            call.rows(days.size());
+            return days;
+        }
+    }
+
+    @Override
+    public DailyTotals getTotalsBetween(int userId, LocalDate from, LocalDate to) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.getTotalsBetween")) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(RANGE_SUM_SQL)) {
+                stmt.setInt(1, userId);
+                stmt.setDate(2, Date.valueOf(from));
+                stmt.setDate(3, Date.valueOf(to));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return new DailyTotals(from.toString(), rs.getDouble(1), rs.getDouble(2), rs.getDouble(3),
+                                rs.getDouble(4), rs.getDouble(5), rs.getInt(6));
+                    }
+                }
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting totals for range: " + e.getMessage());
+            }
+            return new DailyTotals(from.toString(), 0, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Recomputes the rollup from the raw workouts and nutrition tables.
+     * Pass a user ID to rebuild one user, or 0 to rebuild everyone.
+     */
+    @Override
+    public boolean rebuild(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DailyTotalsDAO.rebuild")) {
+            String filter = userId > 0 ? " WHERE user_id = ?" : "";
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                try (Statement ddl = connection.createStatement()) {
+                    ddl.execute(CREATE_TABLE_SQL);
+                }
+                connection.setAutoCommit(false);
+                try {
+                    executeRebuildStep(connection, REBUILD_DELETE_SQL + filter, userId);
+                    executeRebuildStep(connection, String.format(REBUILD_MEALS_SQL, filter), userId);
+                    executeRebuildStep(connection, String.format(REBUILD_WORKOUTS_SQL, filter), userId);
+                    connection.commit();
+                    if (userId > 0) {
+                        QueryCache.getShared().invalidate(userId, "daily_totals", "dashboard");
+                    } else {
+                        QueryCache.getShared().clear();
+                    }
+                    return true;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error rebuilding daily totals: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private static void executeRebuildStep(Connection connection, String sql, int userId) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            if (userId > 0) {
+                stmt.setInt(1, userId);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    // --- Called by the other DAOs inside their insert transactions ---
+
+    static void addMeals(Connection connection, int userId, List<Nutrition> meals) throws SQLException {
+        double calories = 0, protein = 0, carbs = 0, fats = 0;
+        for (Nutrition meal : meals) {
+            calories += meal.getCalorieIntake();
+            protein += meal.getProtein();
+            carbs += meal.getCarbs();
+            fats += meal.getFats();
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(ADD_MEALS_SQL)) {
+            bindMeals(stmt, userId, calories, protein, carbs, fats);
+            stmt.executeUpdate();
+        }
+    }
+
+    static void addWorkouts(Connection connection, int userId, List<Workout> workouts) throws SQLException {
+        double burned = 0;
+        for (Workout workout : workouts) {
+            burned += workout.getCaloriesBurned();
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(ADD_WORKOUTS_SQL)) {
+            bindWorkouts(stmt, userId, burned, workouts.size());
+            stmt.executeUpdate();
+        }
+    }
+
+    static void bindMeals(PreparedStatement stmt, int userId, double calories, double protein,
+                          double carbs, double fats) throws SQLException {
+        stmt.setInt(1, userId);
+        stmt.setDouble(2, calories);
+        stmt.setDouble(3, protein);
+        stmt.setDouble(4, carbs);
+        stmt.setDouble(5, fats);
+    }
+
+    static void bindWorkouts(PreparedStatement stmt, int userId, double caloriesBurned, int count) throws SQLException {
+        stmt.setInt(1, userId);
+        stmt.setDouble(2, caloriesBurned);
+        stmt.setInt(3, count);
+    }
+}
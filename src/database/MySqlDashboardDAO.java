@@ -0,0 +1,66 @@
+package database;
+
+import models.DailyTotals;
+import models.DashboardSnapshot;
+import java.sql.*;
+import java.time.LocalDate;
+
+/**
+ * Reads everything the dashboard shows for today in a single statement: the day's rollup
+ * row and the most recent progress entry. One round trip, and both halves come from the
+ * same snapshot instead of two separately timed reads.
+ */
+class MySqlDashboardDAO implements DashboardDAO {
+    // Both sides are LEFT JOINed onto a one-row seed so a user with no activity still gets a row.
+    private static final String SNAPSHOT_SQL = "SELECT "
+            + "COALESCE(d.calories_in, 0), COALESCE(d.protein, 0), COALESCE(d.carbs, 0), COALESCE(d.fats, 0), "
+            + "COALESCE(d.calories_burned, 0), COALESCE(d.workout_count, 0), "
+            + "p.weight, p.bmi, p.progress_date "
+            + "FROM (SELECT ? AS user_id) u "
+            + "LEFT JOIN daily_totals d ON d.user_id = u.user_id AND d.day = CURRENT_DATE "
+            + "LEFT JOIN (SELECT weight, bmi, progress_date FROM progress_tracker WHERE user_id = ? "
+            + "ORDER BY progress_date DESC, progress_id DESC LIMIT 1) p ON 1 = 1";
+
+    MySqlDashboardDAO() {}
+
+    @Override
+    public DashboardSnapshot getSnapshot(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("DashboardDAO.getSnapshot")) {
+            LocalDate today = LocalDate.now();
+            try {
+                return QueryCache.getShared().get(userId, "dashboard", "today:" + today,
+                        () -> loadSnapshot(userId, today));
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting dashboard snapshot: " + e.getMessage());
+                return new DashboardSnapshot(new DailyTotals(today.toString(), 0, 0, 0, 0, 0, 0), 0, 0, null);
+            }
+        }
+    }
+
+    private DashboardSnapshot loadSnapshot(int userId, LocalDate today) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            connection.setReadOnly(true);
+            try (PreparedStatement stmt = connection.prepareStatement(SNAPSHOT_SQL)) {
+                stmt.setInt(1, userId);
+                stmt.setInt(2, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    DailyTotals totals = new DailyTotals(today.toString(), 0, 0, 0, 0, 0, 0);
+                    double weight = 0, bmi = 0;
+                    String weightDate = null;
+                    if (rs.next()) {
+                        totals = new DailyTotals(today.toString(), rs.getDouble(1), rs.getDouble(2), rs.getDouble(3),
+                                rs.getDouble(4), rs.getDouble(5), rs.getInt(6));
+                        Object date = rs.getObject(9);
+                        if (date != null) {
+                            weight = rs.getDouble(7);
+                            bmi = rs.getDouble(8);
+                            weightDate = date.toString();
+                        }
+                    }
+                    return new DashboardSnapshot(totals, weight, bmi, weightDate);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package database;
+
+import models.Goal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class MySqlGoalDAO implements GoalDAO {
+    private static final WindowQuery<Goal> WINDOW = new WindowQuery<>(HistoryColumns.GOALS, RowMappers.GOAL, "goals");
+    private static final String INSERT_SQL = "INSERT INTO goals (user_id, description, target_value, current_value, status) VALUES (?, ?, ?, ?, ?)";
+    private static final String GOALS_BY_USER_SQL = "SELECT " + RowMappers.GOAL.selectList()
+            + " FROM goals WHERE user_id = ? ORDER BY created_at DESC";
+    private static final String SELECT_BY_ID_SQL = "SELECT " + RowMappers.GOAL.selectList()
+            + " FROM goals WHERE goal_id = ?";
+
+    MySqlGoalDAO() {
+        // Constructor is now empty
+    }
+
+    /**
+     * Inserts the goal and returns it as stored, with its generated ID and
+     * server-assigned timestamp, or null if the insert failed.
+     */
+    @Override
+    public Goal addGoal(Goal goal, int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("GoalDAO.addGoal")) {
+            // Each method gets its own connection
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            
+                stmt.setInt(1, userId);
+                stmt.setString(2, goal.getDescription());
+                stmt.setDouble(3, goal.getTargetValue());
+                stmt.setDouble(4, goal.getCurrentValue());
+                stmt.setString(5, goal.getStatus());
+                stmt.executeUpdate();
+                Goal saved = RowMappers.GOAL.findOne(connection, SELECT_BY_ID_SQL, RowMapper.generatedId(stmt));
+                QueryCache.getShared().invalidate(userId, "goals");
+                if (saved != null) {
+                    TrainingStats.goalAdded(userId, saved);
+                }
+                call.rows(1);
+                return saved;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding goal: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public List<Goal> getGoalsByUser(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("GoalDAO.getGoalsByUser")) {
+            try {
+                List<Goal> rows = QueryCache.getShared().get(userId, "goals", "all",
+                        () -> Collections.unmodifiableList(loadGoals(userId)));
+                call.rows(rows.size());
+                return rows;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting goals: " + e.getMessage());
+                throw new IllegalStateException("Could not read goals: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private List<Goal> loadGoals(int userId) throws SQLException {
+        List<Goal> goals = new ArrayList<>();
+        // Each method gets its own connection
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(GOALS_BY_USER_SQL)) {
+
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                goals.add(RowMappers.GOAL.map(rs));
+            }
+        }
+        return goals;
+    }
+
+    @Override
+    public int countGoals(int userId, HistoryView view) {
+        return WINDOW.count(userId, view);
+    }
+
+    @Override
+    public List<Goal> getGoalsWindow(int userId, HistoryView view, int offset, int limit) {
+        return WINDOW.window(userId, view, offset, limit);
+    }
+}
@@ -0,0 +1,161 @@
+package database;
+
+import models.DailyTotals;
+import models.Nutrition;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+class MySqlNutritionDAO implements NutritionDAO {
+    private static final WindowQuery<Nutrition> WINDOW = new WindowQuery<>(HistoryColumns.MEALS, RowMappers.MEAL, "meals");
+    private static final HistoryQuery<Nutrition> HISTORY = new HistoryQuery<>(
+            "nutrition", "meal_date", "created_at", "nutrition_id", RowMappers.MEAL, "meals");
+    private static final String INSERT_SQL = "INSERT INTO nutrition (user_id, food_item, calorie_intake, protein, carbs, fats, meal_time) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_ID_SQL = "SELECT " + RowMappers.MEAL.selectList()
+            + " FROM nutrition WHERE nutrition_id = ?";
+
+    private final DailyTotalsDAO dailyTotals;
+
+    MySqlNutritionDAO(DailyTotalsDAO dailyTotals) {
+        this.dailyTotals = dailyTotals;
+    }
+
+    /**
+     * Inserts the meal and returns it as stored, with its generated ID and the
+     * server-assigned date and timestamp, or null if the insert failed.
+     */
+    @Override
+    public Nutrition addMeal(Nutrition nutrition, int userId, String mealTime) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("NutritionDAO.addMeal")) {
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(stmt, nutrition, userId, mealTime);
+                    stmt.executeUpdate();
+                    Nutrition saved = RowMappers.MEAL.findOne(connection, SELECT_BY_ID_SQL, RowMapper.generatedId(stmt));
+                    // Today's rollup row is updated in the same transaction as the meal itself.
+                    MySqlDailyTotalsDAO.addMeals(connection, userId, Collections.singletonList(nutrition));
+                    connection.commit();
+                    invalidateCache(userId);
+                    if (saved != null) {
+                        TrainingStats.mealsAdded(userId, Collections.singletonList(saved), new int[] {saved.getNutritionID()});
+                    }
+                    call.rows(1);
+                    return saved;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding meal: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Queues the meal for a background group commit and returns immediately.
+     * The future completes with the new nutrition ID once the row is durably committed.
+     */
+    @Override
+    public CompletableFuture<Integer> addMealAsync(Nutrition nutrition, int userId, String mealTime) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("NutritionDAO.addMealAsync")) {
+            // Times the enqueue, including any backpressure wait; WriteBehindQueue.flush times the commit.
+            CompletableFuture<Integer> ack = WriteBehindQueue.getInstance().submit(INSERT_SQL,
+                    stmt -> bindInsert(stmt, nutrition, userId, mealTime),
+                    MySqlDailyTotalsDAO.ADD_MEALS_SQL,
+                    stmt -> MySqlDailyTotalsDAO.bindMeals(stmt, userId, nutrition.getCalorieIntake(), nutrition.getProtein(),
+                            nutrition.getCarbs(), nutrition.getFats()), "meal");
+            if (ack.isCompletedExceptionally()) {
+                call.failed();
+            } else {
+                call.rows(1);
+            }
+            return ack.whenComplete((id, error) -> {
+                invalidateCache(userId);
+                if (error == null) {
+                    TrainingStats.mealsAdded(userId, Collections.singletonList(nutrition), new int[] {id});
+                }
+            });
+        }
+    }
+
+    @Override
+    public BatchResult addMeals(List<Nutrition> meals, int userId, String mealTime, int batchSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("NutritionDAO.addMeals")) {
+            BatchResult result = BatchInserter.insertAll(INSERT_SQL, meals, batchSize,
+                    (stmt, meal) -> bindInsert(stmt, meal, userId, mealTime),
+                    (connection, rows) -> MySqlDailyTotalsDAO.addMeals(connection, userId, rows), "meal");
+            if (result.isSuccess()) {
+                invalidateCache(userId);
+                TrainingStats.mealsAdded(userId, meals, result.getGeneratedIds());
+            } else {
+                call.failed();
+            }
+            call.rows(result.getInsertedCount());
+            return result;
+        }
+    }
+
+    /** A new meal changes both the meal history and today's rollup. */
+    private static void invalidateCache(int userId) {
+        QueryCache.getShared().invalidate(userId, "nutrition", "daily_totals", "dashboard");
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Nutrition nutrition, int userId, String mealTime) throws SQLException {
+        stmt.setInt(1, userId);
+        stmt.setString(2, nutrition.getFoodItem());
+        stmt.setDouble(3, nutrition.getCalorieIntake());
+        stmt.setDouble(4, nutrition.getProtein());
+        stmt.setDouble(5, nutrition.getCarbs());
+        stmt.setDouble(6, nutrition.getFats());
+        stmt.setString(7, mealTime);
+    }
+
+    @Override
+    public List<Nutrition> getMealsByUser(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("NutritionDAO.getMealsByUser")) {
+            try {
+                List<Nutrition> rows = QueryCache.getShared().get(userId, "nutrition", "all",
+                        () -> Collections.unmodifiableList(HISTORY.list(userId)));
+                call.rows(rows.size());
+                return rows;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting meals: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    @Override
+    public Page<Nutrition> getMealsPage(int userId, PageCursor after, int pageSize) {
+        return HISTORY.fetch(userId, after, pageSize);
+    }
+
+    @Override
+    public Stream<Nutrition> streamMealsByUser(int userId, int pageSize) {
+        return HISTORY.stream(userId, pageSize);
+    }
+    
+    /** Today's [calories, protein, carbs, fats], read from the daily_totals rollup. */
+    @Override
+    public double[] getDailyNutritionTotals(int userId) {
+        DailyTotals today = dailyTotals.getTodaysTotals(userId);
+        return new double[]{today.getCaloriesIn(), today.getProtein(), today.getCarbs(), today.getFats()};
+    }
+
+    @Override
+    public int countMeals(int userId, HistoryView view) {
+        return WINDOW.count(userId, view);
+    }
+
+    @Override
+    public List<Nutrition> getMealsWindow(int userId, HistoryView view, int offset, int limit) {
+        return WINDOW.window(userId, view, offset, limit);
+    }
+}
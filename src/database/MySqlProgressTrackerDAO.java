@@ -0,0 +1,108 @@
+package database;
+
+import models.ProgressTracker;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+class MySqlProgressTrackerDAO implements ProgressTrackerDAO {
+    // Entries are at most one per day in practice, so (progress_date, progress_id) is a stable order.
+    private static final WindowQuery<ProgressTracker> WINDOW = new WindowQuery<>(HistoryColumns.PROGRESS, RowMappers.PROGRESS, "progress history");
+    private static final HistoryQuery<ProgressTracker> HISTORY = new HistoryQuery<>(
+            "progress_tracker", "progress_date", null, "progress_id", RowMappers.PROGRESS, "progress history");
+    private static final String INSERT_SQL = "INSERT INTO progress_tracker (user_id, weight, bmi) VALUES (?, ?, ?)";
+    private static final String SELECT_BY_ID_SQL = "SELECT " + RowMappers.PROGRESS.selectList()
+            + " FROM progress_tracker WHERE progress_id = ?";
+
+    MySqlProgressTrackerDAO() {
+        // Constructor is now empty
+    }
+
+    /**
+     * Inserts the entry and returns it as stored, with its generated ID and the
+     * server-assigned date, or null if the insert failed.
+     */
+    @Override
+    public ProgressTracker addProgressEntry(ProgressTracker progress, int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("ProgressTrackerDAO.addProgressEntry")) {
+            // Each method gets its own connection
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            
+                bindInsert(stmt, progress, userId);
+                stmt.executeUpdate();
+                ProgressTracker saved = RowMappers.PROGRESS.findOne(connection, SELECT_BY_ID_SQL, RowMapper.generatedId(stmt));
+                QueryCache.getShared().invalidate(userId, "progress_tracker", "dashboard");
+                if (saved != null) {
+                    TrainingStats.progressAdded(userId, Collections.singletonList(saved), new int[] {saved.getProgressID()});
+                }
+                call.rows(1);
+                return saved;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding progress entry: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public BatchResult addProgressEntries(List<ProgressTracker> entries, int userId, int batchSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("ProgressTrackerDAO.addProgressEntries")) {
+            BatchResult result = BatchInserter.insertAll(INSERT_SQL, entries, batchSize,
+                    (stmt, entry) -> bindInsert(stmt, entry, userId), "progress entry");
+            if (result.isSuccess()) {
+                QueryCache.getShared().invalidate(userId, "progress_tracker", "dashboard");
+                TrainingStats.progressAdded(userId, entries, result.getGeneratedIds());
+            } else {
+                call.failed();
+            }
+            call.rows(result.getInsertedCount());
+            return result;
+        }
+    }
+
+    private static void bindInsert(PreparedStatement stmt, ProgressTracker progress, int userId) throws SQLException {
+        stmt.setInt(1, userId);
+        stmt.setDouble(2, progress.getWeight());
+        stmt.setDouble(3, progress.getBmi());
+    }
+
+    @Override
+    public List<ProgressTracker> getProgressHistory(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("ProgressTrackerDAO.getProgressHistory")) {
+            try {
+                List<ProgressTracker> rows = QueryCache.getShared().get(userId, "progress_tracker", "all",
+                        () -> Collections.unmodifiableList(HISTORY.list(userId)));
+                call.rows(rows.size());
+                return rows;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting progress history: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    @Override
+    public Page<ProgressTracker> getProgressPage(int userId, PageCursor after, int pageSize) {
+        return HISTORY.fetch(userId, after, pageSize);
+    }
+
+    @Override
+    public Stream<ProgressTracker> streamProgressHistory(int userId, int pageSize) {
+        return HISTORY.stream(userId, pageSize);
+    }
+
+    @Override
+    public int countProgressEntries(int userId, HistoryView view) {
+        return WINDOW.count(userId, view);
+    }
+
+    @Override
+    public List<ProgressTracker> getProgressWindow(int userId, HistoryView view, int offset, int limit) {
+        return WINDOW.window(userId, view, offset, limit);
+    }
+}
@@ -0,0 +1,68 @@
+package database;
+
+import models.Recommendation;
+import java.sql.*;
+import java.util.List;
+
+class MySqlRecommendationDAO implements RecommendationDAO {
+    static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS recommendations ("
+            + "user_id INT PRIMARY KEY, "
+            + "goal VARCHAR(255), "
+            + "workout_plan TEXT NOT NULL, "
+            + "diet_plan TEXT NOT NULL, "
+            + "progress_analysis TEXT NOT NULL, "
+            + "generated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+            + "FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE)";
+    // One row per user: a rerun overwrites the previous plan in place.
+    private static final String UPSERT_SQL = "INSERT INTO recommendations "
+            + "(user_id, goal, workout_plan, diet_plan, progress_analysis) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE goal = VALUES(goal), workout_plan = VALUES(workout_plan), "
+            + "diet_plan = VALUES(diet_plan), progress_analysis = VALUES(progress_analysis), "
+            + "generated_at = CURRENT_TIMESTAMP";
+    private static final String SELECT_SQL = "SELECT user_id, goal, workout_plan, diet_plan, progress_analysis, "
+            + "generated_at FROM recommendations WHERE user_id = ?";
+
+    MySqlRecommendationDAO() {}
+
+    @Override
+    public BatchResult saveRecommendations(List<Recommendation> recommendations, int batchSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("RecommendationDAO.saveRecommendations")) {
+            BatchResult result = BatchInserter.insertAll(UPSERT_SQL, recommendations, batchSize, (stmt, r) -> {
+                stmt.setInt(1, r.getUserID());
+                stmt.setString(2, r.getGoal());
+                stmt.setString(3, r.getWorkoutPlan());
+                stmt.setString(4, r.getDietPlan());
+                stmt.setString(5, r.getProgressAnalysis());
+            }, "recommendation");
+            if (!result.isSuccess()) {
+                call.failed();
+            }
+            call.rows(result.getInsertedCount());
+            return result;
+        }
+    }
+
+    @Override
+    public Recommendation getRecommendation(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("RecommendationDAO.getRecommendation")) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(SELECT_SQL)) {
+                stmt.setInt(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    Recommendation r = new Recommendation(rs.getInt(1), rs.getString(2), rs.getString(3),
+                            rs.getString(4), rs.getString(5));
+                    r.setGeneratedAt(rs.getTimestamp(6).toString());
+                    call.rows(1);
+                    return r;
+                }
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting recommendation: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
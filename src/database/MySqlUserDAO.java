@@ -0,0 +1,120 @@
+package database;
+
+import models.User;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+class MySqlUserDAO implements UserDAO {
+    private static final String INSERT_SQL = "INSERT INTO users (name, age, gender, height, weight, username, password) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String AUTHENTICATE_SQL = "SELECT " + RowMappers.USER.selectList()
+            + " FROM users WHERE username = ? AND password = ?";
+    private static final String UPDATE_SQL = "UPDATE users SET name = ?, age = ?, gender = ?, height = ?, weight = ? WHERE user_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM users WHERE user_id = ?";
+    private static final String USERS_AFTER_SQL = "SELECT " + RowMappers.USER.selectList()
+            + " FROM users WHERE user_id > ? ORDER BY user_id LIMIT ?";
+
+    MySqlUserDAO() {}
+
+    @Override
+    public boolean createUser(User user) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.createUser")) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(INSERT_SQL)) {
+                stmt.setString(1, user.getName());
+                stmt.setInt(2, user.getAge());
+                stmt.setString(3, user.getGender());
+                stmt.setDouble(4, user.getHeight());
+                stmt.setDouble(5, user.getWeight());
+                stmt.setString(6, user.getUsername());
+                stmt.setString(7, user.getPassword());
+                return stmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error creating user: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public User authenticateUser(String username, String password) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.authenticateUser")) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(AUTHENTICATE_SQL)) {
+                stmt.setString(1, username);
+                stmt.setString(2, password);
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    return RowMappers.USER.map(rs);
+                }
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error authenticating user: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+    
+    @Override
+    public boolean updateUser(User user) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.updateUser")) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(UPDATE_SQL)) {
+                stmt.setString(1, user.getName());
+                stmt.setInt(2, user.getAge());
+                stmt.setString(3, user.getGender());
+                stmt.setDouble(4, user.getHeight());
+                stmt.setDouble(5, user.getWeight());
+                stmt.setInt(6, user.getUserID());
+                boolean updated = stmt.executeUpdate() > 0;
+                QueryCache.getShared().invalidateUser(user.getUserID());
+                return updated;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error updating user: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteUser(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.deleteUser")) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(DELETE_SQL)) {
+                stmt.setInt(1, userId);
+                boolean deleted = stmt.executeUpdate() > 0;
+                QueryCache.getShared().invalidateUser(userId);
+                return deleted;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error deleting user: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public List<User> getUsersAfter(int afterUserId, int limit) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("UserDAO.getUsersAfter")) {
+            List<User> users = new ArrayList<>();
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(USERS_AFTER_SQL)) {
+                stmt.setInt(1, afterUserId);
+                stmt.setInt(2, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        users.add(RowMappers.USER.map(rs));
+                    }
+                }
+                call.rows(users.size());
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error listing users: " + e.getMessage());
+                throw new IllegalStateException("Could not list users: " + e.getMessage(), e);
+            }
+            return users;
+        }
+    }
+}
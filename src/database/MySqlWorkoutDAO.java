@@ -0,0 +1,248 @@
+package database;
+
+import models.Workout;
+import models.WorkoutStats;
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+class MySqlWorkoutDAO implements WorkoutDAO {
+    private static final WindowQuery<Workout> WINDOW = new WindowQuery<>(HistoryColumns.WORKOUTS, RowMappers.WORKOUT, "workouts");
+    private static final HistoryQuery<Workout> HISTORY = new HistoryQuery<>(
+            "workouts", "workout_date", "created_at", "workout_id", RowMappers.WORKOUT, "workouts");
+    private static final String INSERT_SQL = "INSERT INTO workouts (user_id, type, duration, sets_count, reps_count, weight, calories_burned) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_ID_SQL = "SELECT " + RowMappers.WORKOUT.selectList()
+            + " FROM workouts WHERE workout_id = ?";
+    private static final String TODAYS_WORKOUTS_SQL = "SELECT " + RowMappers.WORKOUT.selectList()
+            + " FROM workouts WHERE user_id = ? AND workout_date = CURRENT_DATE";
+    private static final String STATS_SQL = "SELECT COUNT(*), COALESCE(SUM(calories_burned), 0), "
+            + "COALESCE(SUM(duration), 0), MIN(workout_date), MAX(workout_date) FROM workouts WHERE user_id = ?";
+    // WEEKDAY() is 0 for Monday, so this groups by the Monday that starts each week.
+    private static final String WEEKLY_STATS_SQL = "SELECT DATE_SUB(workout_date, INTERVAL WEEKDAY(workout_date) DAY) AS week_start, "
+            + "COUNT(*), SUM(calories_burned), SUM(duration) FROM workouts "
+            + "WHERE user_id = ? AND workout_date >= ? GROUP BY week_start ORDER BY week_start";
+
+    MySqlWorkoutDAO() {}
+
+    /**
+     * Inserts the workout and returns it as stored, with its generated ID and the
+     * server-assigned date and timestamp, or null if the insert failed.
+     */
+    @Override
+    public Workout addWorkout(Workout workout, int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.addWorkout")) {
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(stmt, workout, userId);
+                    stmt.executeUpdate();
+                    Workout saved = RowMappers.WORKOUT.findOne(connection, SELECT_BY_ID_SQL, RowMapper.generatedId(stmt));
+                    // Today's rollup row is updated in the same transaction as the workout itself.
+                    MySqlDailyTotalsDAO.addWorkouts(connection, userId, Collections.singletonList(workout));
+                    connection.commit();
+                    invalidateCache(userId);
+                    if (saved != null) {
+                        TrainingStats.workoutsAdded(userId, Collections.singletonList(saved), new int[] {saved.getWorkoutID()});
+                    }
+                    call.rows(1);
+                    return saved;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error adding workout: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Queues the workout for a background group commit and returns immediately.
+     * The future completes with the new workout ID once the row is durably committed.
+     */
+    @Override
+    public CompletableFuture<Integer> addWorkoutAsync(Workout workout, int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.addWorkoutAsync")) {
+            // Times the enqueue, including any backpressure wait; WriteBehindQueue.flush times the commit.
+            CompletableFuture<Integer> ack = WriteBehindQueue.getInstance().submit(INSERT_SQL,
+                    stmt -> bindInsert(stmt, workout, userId),
+                    MySqlDailyTotalsDAO.ADD_WORKOUTS_SQL,
+                    stmt -> MySqlDailyTotalsDAO.bindWorkouts(stmt, userId, workout.getCaloriesBurned(), 1), "workout");
+            if (ack.isCompletedExceptionally()) {
+                call.failed();
+            } else {
+                call.rows(1);
+            }
+            return ack.whenComplete((id, error) -> {
+                invalidateCache(userId);
+                if (error == null) {
+                    TrainingStats.workoutsAdded(userId, Collections.singletonList(workout), new int[] {id});
+                }
+            });
+        }
+    }
+
+    @Override
+    public BatchResult addWorkouts(List<Workout> workouts, int userId, int batchSize) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.addWorkouts")) {
+            BatchResult result = BatchInserter.insertAll(INSERT_SQL, workouts, batchSize,
+                    (stmt, workout) -> bindInsert(stmt, workout, userId),
+                    (connection, rows) -> MySqlDailyTotalsDAO.addWorkouts(connection, userId, rows), "workout");
+            if (result.isSuccess()) {
+                invalidateCache(userId);
+                TrainingStats.workoutsAdded(userId, workouts, result.getGeneratedIds());
+            } else {
+                call.failed();
+            }
+            call.rows(result.getInsertedCount());
+            return result;
+        }
+    }
+
+    /** A new workout changes both the workout history and today's rollup. */
+    private static void invalidateCache(int userId) {
+        QueryCache.getShared().invalidate(userId, "workouts", "daily_totals", "dashboard");
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Workout workout, int userId) throws SQLException {
+        stmt.setInt(1, userId);
+        stmt.setString(2, workout.getType());
+        stmt.setInt(3, workout.getDuration());
+        stmt.setInt(4, workout.getSets());
+        stmt.setInt(5, workout.getReps());
+        stmt.setDouble(6, workout.getWeight()); // Correctly saves weight
+        stmt.setDouble(7, workout.getCaloriesBurned());
+    }
+
+    @Override
+    public List<Workout> getWorkoutsByUser(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.getWorkoutsByUser")) {
+            try {
+                List<Workout> rows = QueryCache.getShared().get(userId, "workouts", "all",
+                        () -> Collections.unmodifiableList(HISTORY.list(userId)));
+                call.rows(rows.size());
+                return rows;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting workouts: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    @Override
+    public Page<Workout> getWorkoutsPage(int userId, PageCursor after, int pageSize) {
+        return HISTORY.fetch(userId, after, pageSize);
+    }
+
+    @Override
+    public Stream<Workout> streamWorkoutsByUser(int userId, int pageSize) {
+        return HISTORY.stream(userId, pageSize);
+    }
+
+    @Override
+    public List<Workout> getTodaysWorkouts(int userId) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.getTodaysWorkouts")) {
+            try {
+                List<Workout> rows = QueryCache.getShared().get(userId, "workouts", "today:" + LocalDate.now(),
+                        () -> Collections.unmodifiableList(loadTodaysWorkouts(userId)));
+                call.rows(rows.size());
+                return rows;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting today's workouts: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    private List<Workout> loadTodaysWorkouts(int userId) throws SQLException {
+        List<Workout> workouts = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(TODAYS_WORKOUTS_SQL)) {
+            stmt.setInt(1, userId);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                workouts.add(RowMappers.WORKOUT.map(rs));
+            }
+        }
+        return workouts;
+    }
+
+    @Override
+    public WorkoutStats getWorkoutStats(int userId, int weeks) {
+        if (weeks < 0) {
+            throw new IllegalArgumentException("Week count can't be negative.");
+        }
+        LocalDate today = LocalDate.now();
+        try (DaoMetrics.Call call = DaoMetrics.begin("WorkoutDAO.getWorkoutStats")) {
+            try {
+                WorkoutStats stats = QueryCache.getShared().get(userId, "workouts", "stats:" + weeks + ":" + today,
+                        () -> loadWorkoutStats(userId, weeks, today));
+                call.rows(stats.getWeeks().size() + 1);
+                return stats;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting workout stats: " + e.getMessage());
+                throw new IllegalStateException("Could not read workout stats: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private WorkoutStats loadWorkoutStats(int userId, int weeks, LocalDate today) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            int count;
+            double calories;
+            int minutes;
+            String first;
+            String last;
+            try (PreparedStatement stmt = connection.prepareStatement(STATS_SQL)) {
+                stmt.setInt(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    count = rs.getInt(1);
+                    calories = rs.getDouble(2);
+                    minutes = rs.getInt(3);
+                    Date firstDate = rs.getDate(4);
+                    Date lastDate = rs.getDate(5);
+                    first = firstDate == null ? null : firstDate.toString();
+                    last = lastDate == null ? null : lastDate.toString();
+                }
+            }
+
+            List<WorkoutStats.Week> buckets = new ArrayList<>();
+            if (weeks > 0 && count > 0) {
+                LocalDate from = today.with(DayOfWeek.MONDAY).minusWeeks(weeks - 1);
+                try (PreparedStatement stmt = connection.prepareStatement(WEEKLY_STATS_SQL)) {
+                    stmt.setInt(1, userId);
+                    stmt.setDate(2, Date.valueOf(from));
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            buckets.add(new WorkoutStats.Week(rs.getDate(1).toString(), rs.getInt(2),
+                                    rs.getDouble(3), rs.getInt(4)));
+                        }
+                    }
+                }
+            }
+            return new WorkoutStats(count, calories, minutes, first, last, buckets);
+        }
+    }
+
+    @Override
+    public int countWorkouts(int userId, HistoryView view) {
+        return WINDOW.count(userId, view);
+    }
+
+    @Override
+    public List<Workout> getWorkoutsWindow(int userId, HistoryView view, int offset, int limit) {
+        return WINDOW.window(userId, view, offset, limit);
+    }
+}
@@ -1,67 +1,62 @@
 package database;
 
 import models.Nutrition;
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
-public class NutritionDAO {
+/**
+ * Meal storage. Get the configured implementation from {@link DaoFactory#nutrition()}.
+ * Failures are logged and reported as null or an empty result, except that the history
+ * pages, streams, counts and windows throw IllegalStateException, so a failed read isn't
+ * mistaken for missing rows.
+ */
+public interface NutritionDAO {
 
-    public NutritionDAO() {}
+    /**
+     * Inserts the meal and returns it as stored, with its generated ID and the
+     * assigned date and timestamp, or null if the insert failed.
+     */
+    Nutrition addMeal(Nutrition nutrition, int userId, String mealTime);
 
-    public boolean addMeal(Nutrition nutrition, int userId, String mealTime) {
-        String sql = "INSERT INTO nutrition (user_id, food_item, calorie_intake, protein, carbs, fats, meal_time) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            stmt.setString(2, nutrition.getFoodItem());
-            stmt.setDouble(3, nutrition.getCalorieIntake());
-            stmt.setDouble(4, nutrition.getProtein());
-            stmt.setDouble(5, nutrition.getCarbs());
-            stmt.setDouble(6, nutrition.getFats());
-            stmt.setString(7, mealTime);
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error adding meal: " + e.getMessage());
-            return false;
-        }
-    }
+    /**
+     * Stores the meal in the background and returns immediately.
+     * The future completes with the new nutrition ID once the row is durably stored.
+     */
+    CompletableFuture<Integer> addMealAsync(Nutrition nutrition, int userId, String mealTime);
 
-    public List<Nutrition> getMealsByUser(int userId) {
-        List<Nutrition> meals = new ArrayList<>();
-        String sql = "SELECT * FROM nutrition WHERE user_id = ? ORDER BY meal_date DESC, created_at DESC";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                meals.add(new Nutrition(
-                        rs.getInt("nutrition_id"), rs.getString("food_item"), rs.getDouble("calorie_intake"),
-                        rs.getDouble("protein"), rs.getDouble("carbs"), rs.getDouble("fats")
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting meals: " + e.getMessage());
-        }
-        return meals;
+    /** Inserts several meals logged for the same meal time in one transaction. */
+    default BatchResult addMeals(List<Nutrition> meals, int userId, String mealTime) {
+        return addMeals(meals, userId, mealTime, DatabaseConnection.getDefaultBatchSize());
     }
-    
-    public double[] getDailyNutritionTotals(int userId) {
-        double[] totals = new double[4]; // [calories, protein, carbs, fats]
-        String sql = "SELECT SUM(calorie_intake), SUM(protein), SUM(carbs), SUM(fats) FROM nutrition WHERE user_id = ? AND meal_date = CURRENT_DATE";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                totals[0] = rs.getDouble(1);
-                totals[1] = rs.getDouble(2);
-                totals[2] = rs.getDouble(3);
-                totals[3] = rs.getDouble(4);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting daily nutrition totals: " + e.getMessage());
-        }
-        return totals;
+
+    BatchResult addMeals(List<Nutrition> meals, int userId, String mealTime, int batchSize);
+
+    /** The user's full meal history, newest first. The list must not be modified. */
+    List<Nutrition> getMealsByUser(int userId);
+
+    /**
+     * One page of the user's meals, newest first.
+     * Pass null as {@code after} for the first page, then the previous page's next cursor.
+     */
+    Page<Nutrition> getMealsPage(int userId, PageCursor after, int pageSize);
+
+    /** Streams the user's full meal history page by page, newest first, in constant memory. */
+    default Stream<Nutrition> streamMealsByUser(int userId) {
+        return streamMealsByUser(userId, HistoryQuery.DEFAULT_PAGE_SIZE);
     }
-}
\ No newline at end of file
+
+    Stream<Nutrition> streamMealsByUser(int userId, int pageSize);
+
+    /** How many of the user's meals match {@code view}. */
+    int countMeals(int userId, HistoryView view);
+
+    /**
+     * Rows {@code offset} to {@code offset + limit - 1} of the user's meals, as ordered and
+     * filtered by {@code view}, for views that scroll to any point without reading the rest.
+     */
+    List<Nutrition> getMealsWindow(int userId, HistoryView view, int offset, int limit);
+
+    /** Today's [calories, protein, carbs, fats]. */
+    double[] getDailyNutritionTotals(int userId);
+}
@@ -0,0 +1,44 @@
+package database;
+
+import java.beans.ConstructorProperties;
+
+/** Point-in-time latency and row statistics for one DAO operation. */
+public class OperationStats {
+    private final String operation;
+    private final long count;
+    private final long errors;
+    private final long rows;
+    private final double meanMicros;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    @ConstructorProperties({"operation", "count", "errors", "rows", "meanMicros", "p50Micros", "p99Micros", "maxMicros"})
+    public OperationStats(String operation, long count, long errors, long rows, double meanMicros,
+                          long p50Micros, long p99Micros, long maxMicros) {
+        this.operation = operation;
+        this.count = count;
+        this.errors = errors;
+        this.rows = rows;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    // Getters
+    public String getOperation() { return operation; }
+    public long getCount() { return count; }
+    public long getErrors() { return errors; }
+    public long getRows() { return rows; }
+    public double getMeanMicros() { return meanMicros; }
+    public long getP50Micros() { return p50Micros; }
+    public long getP99Micros() { return p99Micros; }
+    public long getMaxMicros() { return maxMicros; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: n=%d, errors=%d, rows=%d, p50=%.1fms, p99=%.1fms, max=%.1fms",
+                operation, count, errors, rows, p50Micros / 1000.0, p99Micros / 1000.0, maxMicros / 1000.0);
+    }
+}
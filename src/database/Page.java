@@ -0,0 +1,71 @@
+package database;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/** One page of a user's history, newest first. */
+public class Page<T> {
+
+    /** Reads the page that follows {@code after} (or the first page if it is null). */
+    interface Fetcher<T> {
+        Page<T> fetch(PageCursor after);
+    }
+
+    private final List<T> items;
+    private final PageCursor nextCursor;
+
+    Page(List<T> items, PageCursor nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    static <T> Page<T> empty() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getItems() { return items; }
+
+    /** Cursor for the next (older) page, or null if this was the last one. */
+    public PageCursor getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+
+    /**
+     * Lazily walks every page from the first one on. Only one page is in memory at a time,
+     * and nothing is held open between pages, so the stream doesn't need to be closed.
+     */
+    static <T> Stream<T> stream(Fetcher<T> fetcher) {
+        Iterator<T> iterator = new Iterator<T>() {
+            private Iterator<T> current = Collections.emptyIterator();
+            private PageCursor cursor;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && !exhausted) {
+                    Page<T> page = fetcher.fetch(cursor);
+                    current = page.getItems().iterator();
+                    cursor = page.getNextCursor();
+                    exhausted = !page.hasMore();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
@@ -0,0 +1,25 @@
+package database;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+
+/**
+ * Marks where the previous history page stopped: the (date, created_at, id) of its last row.
+ * Pass it back to the same DAO method to get the next, older page.
+ */
+public final class PageCursor {
+    final Date date;
+    final Timestamp createdAt;
+    final int id;
+
+    PageCursor(Date date, Timestamp createdAt, int id) {
+        this.date = date;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor[" + date + ", " + createdAt + ", " + id + "]";
+    }
+}
@@ -0,0 +1,227 @@
+package database;
+
+import models.MultiGoalPlanner;
+import models.Recommendation;
+import models.RecommendationRules;
+import models.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Nightly job that precomputes every user's recommendation and stores it through
+ * {@link RecommendationDAO}. Users are streamed a page at a time and fanned out over a
+ * fixed pool of worker threads (one per core by default). Only as many workers as the
+ * connection pool can serve ({@code db.pool.maxSize}) are in a database stage at once;
+ * the rest compute. Results are written back in batches of {@code db.batchSize}.
+ * Exits with 1 if any user failed or the user list couldn't be read to the end.
+ * Usage: java database.PrecomputeRecommendations [threads]
+ */
+public final class PrecomputeRecommendations {
+    private static final int USER_PAGE_SIZE = 500;
+    private static final long PROGRESS_INTERVAL_SECONDS = 5;
+
+    /** What a run did and where the time went. Stage times are summed across workers. */
+    public static final class Report {
+        private final int threads;
+        private final long users;
+        private final long failed;
+        private final long written;
+        private final long elapsedNanos;
+        private final long loadNanos;
+        private final long computeNanos;
+        private final long writeNanos;
+
+        Report(int threads, long users, long failed, long written, long elapsedNanos,
+               long loadNanos, long computeNanos, long writeNanos) {
+            this.threads = threads;
+            this.users = users;
+            this.failed = failed;
+            this.written = written;
+            this.elapsedNanos = elapsedNanos;
+            this.loadNanos = loadNanos;
+            this.computeNanos = computeNanos;
+            this.writeNanos = writeNanos;
+        }
+
+        public long getUsers() { return users; }
+        public long getFailed() { return failed; }
+        public long getWritten() { return written; }
+        public long getElapsedMillis() { return TimeUnit.NANOSECONDS.toMillis(elapsedNanos); }
+
+        public double getUsersPerSecond() {
+            return elapsedNanos == 0 ? 0 : users * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Precomputed %d recommendation(s) for %d user(s) in %d ms on %d thread(s): "
+                            + "%.1f users/s, %d failed.%n"
+                            + "  load    %8.3f ms/user%n"
+                            + "  compute %8.3f ms/user%n"
+                            + "  write   %8.3f ms/user",
+                    written, users, getElapsedMillis(), threads, getUsersPerSecond(), failed,
+                    perUserMillis(loadNanos), perUserMillis(computeNanos), perUserMillis(writeNanos));
+        }
+
+        private double perUserMillis(long nanos) {
+            return users == 0 ? 0 : nanos / 1e6 / users;
+        }
+    }
+
+    private final DaoFactory daos;
+    private final int threads;
+    private final int batchSize;
+    private final Semaphore dbPermits;
+    private final Semaphore inFlight;
+
+    private final List<Recommendation> pending = new ArrayList<>();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder computeNanos = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+
+    public PrecomputeRecommendations(DaoFactory daos, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive.");
+        }
+        this.daos = daos;
+        this.threads = threads;
+        this.batchSize = DatabaseConnection.getDefaultBatchSize();
+        this.dbPermits = new Semaphore(Math.min(threads, DatabaseConnection.getMaxPoolSize()));
+        // Keeps the user stream only a little ahead of the workers instead of queueing everyone.
+        this.inFlight = new Semaphore(threads * 4);
+    }
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        Report report;
+        try {
+            report = new PrecomputeRecommendations(DaoFactory.get(), threads).run();
+        } catch (InterruptedException e) {
+            System.err.println("Precomputing recommendations was interrupted.");
+            System.exit(1);
+            return;
+        } finally {
+            DaoFactory.get().shutdown();
+        }
+        System.out.println(report);
+        if (report.getFailed() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /** Processes every user and blocks until the last batch has been written. */
+    public Report run() throws InterruptedException {
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "precompute-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "precompute-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        progress.scheduleAtFixedRate(() -> reportProgress(start),
+                PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        try (Stream<User> users = daos.users().streamAllUsers(USER_PAGE_SIZE)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                inFlight.acquire();
+                workers.execute(() -> {
+                    try {
+                        process(user);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } catch (IllegalStateException e) {
+            // The rest of the users can't be listed; count it so the run doesn't report success.
+            failed.incrementAndGet();
+            System.err.println("Error listing users, stopping early: " + e.getMessage());
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            progress.shutdownNow();
+        }
+        List<Recommendation> rest;
+        synchronized (pending) {
+            rest = new ArrayList<>(pending);
+            pending.clear();
+        }
+        write(rest);
+        return new Report(threads, processed.get(), failed.get(), written.get(), System.nanoTime() - start,
+                loadNanos.sum(), computeNanos.sum(), writeNanos.sum());
+    }
+
+    private void process(User user) {
+        try {
+            long t0 = System.nanoTime();
+            TrainingStats stats;
+            dbPermits.acquireUninterruptibly();
+            try {
+                stats = TrainingStats.load(user.getUserID());
+            } finally {
+                dbPermits.release();
+            }
+            long t1 = System.nanoTime();
+            // Already parallel across users, so each user's sections are computed inline.
+            Recommendation rec = MultiGoalPlanner.plan(user, stats.getActiveGoals(), stats,
+                    RecommendationRules.current(), Runnable::run, MultiGoalPlanner.DEFAULT_DEADLINE);
+            long t2 = System.nanoTime();
+            loadNanos.add(t1 - t0);
+            computeNanos.add(t2 - t1);
+
+            List<Recommendation> batch = null;
+            synchronized (pending) {
+                pending.add(rec);
+                if (pending.size() >= batchSize) {
+                    batch = new ArrayList<>(pending);
+                    pending.clear();
+                }
+            }
+            if (batch != null) {
+                write(batch);
+            }
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("Error precomputing recommendation for user " + user.getUserID() + ": " + e.getMessage());
+        } finally {
+            processed.incrementAndGet();
+        }
+    }
+
+    private void write(List<Recommendation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long t0 = System.nanoTime();
+        dbPermits.acquireUninterruptibly();
+        try {
+            BatchResult result = daos.recommendations().saveRecommendations(batch, batchSize);
+            written.addAndGet(result.getInsertedCount());
+            failed.addAndGet(batch.size() - result.getInsertedCount());
+        } finally {
+            dbPermits.release();
+            writeNanos.add(System.nanoTime() - t0);
+        }
+    }
+
+    private void reportProgress(long start) {
+        long done = processed.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("... %d user(s) processed, %d written, %d failed (%.1f users/s)%n",
+                done, written.get(), failed.get(), done / seconds);
+    }
+}
@@ -1,52 +1,52 @@
 package database;
 
 import models.ProgressTracker;
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
-public class ProgressTrackerDAO {
+/**
+ * Weight and BMI history. Get the configured implementation from {@link DaoFactory#progress()}.
+ * Failures are logged and reported as null or an empty result, except that the history
+ * pages, streams, counts and windows throw IllegalStateException, so a failed read isn't
+ * mistaken for missing rows.
+ */
+public interface ProgressTrackerDAO {
 
-    public ProgressTrackerDAO() {
-        // Constructor is now empty
-    }
+    /**
+     * Inserts the entry and returns it as stored, with its generated ID and the
+     * assigned date, or null if the insert failed.
+     */
+    ProgressTracker addProgressEntry(ProgressTracker progress, int userId);
 
-    public boolean addProgressEntry(ProgressTracker progress, int userId) {
-        String sql = "INSERT INTO progress_tracker (user_id, weight, bmi) VALUES (?, ?, ?)";
-        // Each method gets its own connection
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setInt(1, userId);
-            stmt.setDouble(2, progress.getWeight());
-            stmt.setDouble(3, progress.getBmi());
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error adding progress entry: " + e.getMessage());
-            return false;
-        }
+    /** Inserts several progress entries in one transaction. */
+    default BatchResult addProgressEntries(List<ProgressTracker> entries, int userId) {
+        return addProgressEntries(entries, userId, DatabaseConnection.getDefaultBatchSize());
     }
 
-    public List<ProgressTracker> getProgressHistory(int userId) {
-        List<ProgressTracker> history = new ArrayList<>();
-        String sql = "SELECT * FROM progress_tracker WHERE user_id = ? ORDER BY progress_date DESC";
-        // Each method gets its own connection
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                history.add(new ProgressTracker(
-                        rs.getInt("progress_id"),
-                        rs.getDate("progress_date").toString(),
-                        rs.getDouble("weight"),
-                        rs.getDouble("bmi")
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting progress history: " + e.getMessage());
-        }
-        return history;
+    BatchResult addProgressEntries(List<ProgressTracker> entries, int userId, int batchSize);
+
+    /** The user's full progress history, newest first. The list must not be modified. */
+    List<ProgressTracker> getProgressHistory(int userId);
+
+    /**
+     * One page of the user's progress entries, newest first.
+     * Pass null as {@code after} for the first page, then the previous page's next cursor.
+     */
+    Page<ProgressTracker> getProgressPage(int userId, PageCursor after, int pageSize);
+
+    /** Streams the user's full progress history page by page, newest first, in constant memory. */
+    default Stream<ProgressTracker> streamProgressHistory(int userId) {
+        return streamProgressHistory(userId, HistoryQuery.DEFAULT_PAGE_SIZE);
     }
-}
\ No newline at end of file
+
+    Stream<ProgressTracker> streamProgressHistory(int userId, int pageSize);
+
+    /** How many of the user's progress entries match {@code view}. */
+    int countProgressEntries(int userId, HistoryView view);
+
+    /**
+     * Rows {@code offset} to {@code offset + limit - 1} of the user's progress entries, as ordered and
+     * filtered by {@code view}, for views that scroll to any point without reading the rest.
+     */
+    List<ProgressTracker> getProgressWindow(int userId, HistoryView view, int offset, int limit);
+}
@@ -0,0 +1,206 @@
+package database;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Read-through cache for per-user DAO reads, keyed by (user, table, query).
+ * Entries are evicted least-recently-used once {@code db.cache.maxEntries} is reached,
+ * and expire after {@code db.cache.ttlMs}. The DAOs invalidate exactly the tables a write
+ * touches for that user, so the next read after a write always goes back to the database.
+ * Cached values are shared between callers and must not be modified.
+ */
+public final class QueryCache {
+
+    /** Loads a value on a miss. Exceptions are passed through and nothing is cached. */
+    interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    private static final class Key {
+        final long epoch;
+        final int userId;
+        final String table;
+        final String query;
+
+        Key(long epoch, int userId, String table, String query) {
+            this.epoch = epoch;
+            this.userId = userId;
+            this.table = table;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return epoch == other.epoch && userId == other.userId && table.equals(other.table)
+                    && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(epoch, userId, table, query);
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static volatile QueryCache shared;
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final LinkedHashMap<Key, Entry> entries;
+    // Bumped on every invalidation for a user; a load that raced with a write isn't cached.
+    private final Map<Integer, Long> userVersions = new HashMap<>();
+    // Bumped by clear() and part of every key, so a load that raced with a clear isn't cached
+    // either, whether or not its user had entries to drop.
+    private long epoch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    QueryCache(boolean enabled, int maxEntries, long ttlMs) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > QueryCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** The cache shared by all DAOs, configured from db.cache.* settings. */
+    public static QueryCache getShared() {
+        QueryCache c = shared;
+        if (c != null) {
+            return c;
+        }
+        synchronized (QueryCache.class) {
+            if (shared == null) {
+                Properties config = DatabaseConnection.getConfig();
+                shared = new QueryCache(
+                        !"false".equalsIgnoreCase(config.getProperty("db.cache.enabled")),
+                        Math.max(1, DatabaseConnection.intProperty(config, "db.cache.maxEntries", 500)),
+                        DatabaseConnection.intProperty(config, "db.cache.ttlMs", 60_000));
+            }
+            return shared;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(int userId, String table, String query, Loader<T> loader) throws SQLException {
+        if (!enabled) {
+            return loader.load();
+        }
+        Key key;
+        long version;
+        synchronized (this) {
+            key = new Key(epoch, userId, table, query);
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits++;
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            version = userVersions.getOrDefault(userId, 0L);
+        }
+
+        // Load outside the lock so one slow query doesn't block every other user.
+        T value = loader.load();
+
+        synchronized (this) {
+            if (key.epoch == epoch && userVersions.getOrDefault(userId, 0L) == version) {
+                entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMs));
+            }
+        }
+        return value;
+    }
+
+    /** Drops the user's cached reads of the given tables. */
+    public synchronized void invalidate(int userId, String... tables) {
+        bumpVersion(userId);
+        for (Iterator<Key> it = entries.keySet().iterator(); it.hasNext(); ) {
+            Key key = it.next();
+            if (key.userId == userId && contains(tables, key.table)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /** Drops everything cached for the user (e.g. after a profile update or delete). */
+    public synchronized void invalidateUser(int userId) {
+        bumpVersion(userId);
+        for (Iterator<Key> it = entries.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().userId == userId) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /** Drops everything cached, for every user (e.g. after a full rollup rebuild). */
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        epoch++;
+    }
+
+    /** Increments on every write for the user and on every clear, so it can be used as a data version. */
+    public synchronized long getUserVersion(int userId) {
+        return epoch + userVersions.getOrDefault(userId, 0L);
+    }
+
+    public synchronized long getHitCount() { return hits; }
+    public synchronized long getMissCount() { return misses; }
+    public synchronized long getEvictionCount() { return evictions; }
+    public synchronized long getInvalidationCount() { return invalidations; }
+    public synchronized int size() { return entries.size(); }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format("QueryCache[size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, invalidations=%d]",
+                entries.size(), maxEntries, hits, misses, lookups == 0 ? 0.0 : 100.0 * hits / lookups,
+                evictions, invalidations);
+    }
+
+    private void bumpVersion(int userId) {
+        userVersions.merge(userId, 1L, Long::sum);
+    }
+
+    private static boolean contains(String[] tables, String table) {
+        for (String t : tables) {
+            if (t.equals(table)) return true;
+        }
+        return false;
+    }
+}
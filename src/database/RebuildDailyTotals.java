@@ -0,0 +1,20 @@
+package database;
+
+/**
+ * Backfills the daily_totals rollup from the raw workouts and nutrition tables.
+ * Usage: java database.RebuildDailyTotals [userId]
+ */
+public class RebuildDailyTotals {
+
+    public static void main(String[] args) {
+        int userId = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        long start = System.currentTimeMillis();
+        boolean ok = DaoFactory.get().dailyTotals().rebuild(userId);
+        DaoFactory.get().shutdown();
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("Rebuilt daily totals for " + (userId > 0 ? "user " + userId : "all users")
+                + " in " + (System.currentTimeMillis() - start) + " ms.");
+    }
+}
@@ -0,0 +1,22 @@
+package database;
+
+import models.Recommendation;
+import java.util.List;
+
+/**
+ * Precomputed recommendations, one per user (see {@link PrecomputeRecommendations}).
+ * Get the configured implementation from {@link DaoFactory#recommendations()}.
+ * Failures are logged and reported as null or a failed result, never thrown.
+ */
+public interface RecommendationDAO {
+
+    /** Stores each user's recommendation, replacing any earlier one, in one transaction. */
+    BatchResult saveRecommendations(List<Recommendation> recommendations, int batchSize);
+
+    default BatchResult saveRecommendations(List<Recommendation> recommendations) {
+        return saveRecommendations(recommendations, DatabaseConnection.getDefaultBatchSize());
+    }
+
+    /** The user's latest precomputed recommendation, or null if none has been generated yet. */
+    Recommendation getRecommendation(int userId);
+}
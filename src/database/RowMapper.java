@@ -0,0 +1,59 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Maps one row to a model object by column index.
+ * The mapper owns its column list, so the SELECT it is used with always projects
+ * exactly the columns it reads, in the order it reads them.
+ */
+final class RowMapper<T> {
+
+    interface Reader<T> {
+        /** Reads columns 1..n of the current row, where n is the mapper's column count. */
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    private final String selectList;
+    private final int columnCount;
+    private final Reader<T> reader;
+
+    RowMapper(Reader<T> reader, String... columns) {
+        this.reader = reader;
+        this.columnCount = columns.length;
+        this.selectList = String.join(", ", columns);
+    }
+
+    /** Comma-separated column list for a SELECT. */
+    String selectList() { return selectList; }
+
+    int columnCount() { return columnCount; }
+
+    T map(ResultSet rs) throws SQLException {
+        return reader.read(rs);
+    }
+
+    /** Runs a lookup by primary key ({@code sql} takes the ID as its only parameter); null if no row. */
+    T findOne(Connection connection, String sql, int id) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? reader.read(rs) : null;
+            }
+        }
+    }
+
+    /** The auto-increment key of the row an INSERT just wrote. */
+    static int generatedId(Statement stmt) throws SQLException {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("Insert did not return a generated key.");
+            }
+            return keys.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package database;
+
+import models.*;
+
+/** The shared row mapper for each entity; built once and reused by every query. */
+final class RowMappers {
+
+    private RowMappers() {}
+
+    static final RowMapper<Workout> WORKOUT = new RowMapper<>(rs -> {
+        Workout workout = new Workout(
+                rs.getInt(1), rs.getString(2), rs.getInt(3),
+                rs.getInt(4), rs.getInt(5),
+                rs.getDouble(6), // weight
+                rs.getDouble(7));
+        workout.setDate(asString(rs.getDate(8)));
+        workout.setCreatedAt(asString(rs.getTimestamp(9)));
+        return workout;
+    }, "workout_id", "type", "duration", "sets_count", "reps_count", "weight", "calories_burned",
+            "workout_date", "created_at");
+
+    static final RowMapper<Nutrition> MEAL = new RowMapper<>(rs -> {
+        Nutrition meal = new Nutrition(
+                rs.getInt(1), rs.getString(2), rs.getDouble(3),
+                rs.getDouble(4), rs.getDouble(5), rs.getDouble(6));
+        meal.setDate(asString(rs.getDate(7)));
+        meal.setCreatedAt(asString(rs.getTimestamp(8)));
+        return meal;
+    }, "nutrition_id", "food_item", "calorie_intake", "protein", "carbs", "fats", "meal_date", "created_at");
+
+    static final RowMapper<ProgressTracker> PROGRESS = new RowMapper<>(rs -> new ProgressTracker(
+            rs.getInt(1), rs.getDate(2).toString(), rs.getDouble(3), rs.getDouble(4)),
+            "progress_id", "progress_date", "weight", "bmi");
+
+    static final RowMapper<Goal> GOAL = new RowMapper<>(rs -> {
+        Goal goal = new Goal(
+                rs.getInt(1), rs.getString(2), rs.getDouble(3),
+                rs.getDouble(4), rs.getString(5));
+        goal.setCreatedAt(asString(rs.getTimestamp(6)));
+        return goal;
+    }, "goal_id", "description", "target_value", "current_value", "status", "created_at");
+
+    static final RowMapper<User> USER = new RowMapper<>(rs -> new User(
+            rs.getInt(1), rs.getString(2), rs.getInt(3),
+            rs.getString(4), rs.getDouble(5), rs.getDouble(6),
+            rs.getString(7), rs.getString(8)),
+            "user_id", "name", "age", "gender", "height", "weight", "username", "password");
+
+    static final RowMapper<DailyTotals> DAILY_TOTALS = new RowMapper<>(rs -> new DailyTotals(
+            rs.getDate(1).toString(), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4),
+            rs.getDouble(5), rs.getDouble(6), rs.getInt(7)),
+            "day", "calories_in", "protein", "carbs", "fats", "calories_burned", "workout_count");
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,144 @@
+package database;
+
+import models.User;
+import models.Workout;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Row-mapping cost on a large result set: {@link RowMappers#WORKOUT}, which reads columns by
+ * index, against the same mapping done by column name. Both read the same projected query
+ * for a throwaway user seeded with {@code rows} workouts (deleted at the end). Only the
+ * loop over the already-fetched rows is timed, so the query itself doesn't drown out the
+ * difference. The first round is a warm-up and isn't counted. MySQL only, since the
+ * embedded backend doesn't map rows.
+ * Usage: java -Ddb.backend=mysql database.RowMappingBenchmark [rows] [rounds]
+ */
+public final class RowMappingBenchmark {
+
+    private static final String SELECT_SQL = "SELECT " + RowMappers.WORKOUT.selectList()
+            + " FROM workouts WHERE user_id = ?";
+
+    // RowMappers.WORKOUT, but looking every column up by name.
+    private static final RowMapper<Workout> WORKOUT_BY_NAME = new RowMapper<>(rs -> {
+        Workout workout = new Workout(
+                rs.getInt("workout_id"), rs.getString("type"), rs.getInt("duration"),
+                rs.getInt("sets_count"), rs.getInt("reps_count"),
+                rs.getDouble("weight"),
+                rs.getDouble("calories_burned"));
+        workout.setDate(asString(rs.getDate("workout_date")));
+        workout.setCreatedAt(asString(rs.getTimestamp("created_at")));
+        return workout;
+    }, "workout_id", "type", "duration", "sets_count", "reps_count", "weight", "calories_burned",
+            "workout_date", "created_at");
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        if (rows <= 0 || rounds <= 0) {
+            System.err.println("Usage: java -Ddb.backend=mysql database.RowMappingBenchmark [rows] [rounds]");
+            System.exit(2);
+        }
+        DaoFactory daos = DaoFactory.get();
+        if (!DaoFactory.MYSQL.equals(daos.getBackend())) {
+            System.err.println("Error: the " + daos.getBackend() + " backend doesn't map rows; run with -Ddb.backend=mysql.");
+            daos.shutdown();
+            System.exit(2);
+        }
+        try {
+            daos.initialize();
+        } catch (SQLException e) {
+            System.err.println("Error connecting to the database: " + e.getMessage());
+            daos.shutdown();
+            System.exit(1);
+        }
+
+        String username = "mapping-benchmark-" + System.nanoTime();
+        if (!daos.users().createUser(new User(0, "Benchmark", 30, "Female", 170, 65, username, "pw"))) {
+            System.err.println("Error creating the benchmark user.");
+            daos.shutdown();
+            System.exit(1);
+        }
+        int userId = daos.users().authenticateUser(username, "pw").getUserID();
+        double[] byIndex = new double[rounds];
+        double[] byName = new double[rounds];
+        boolean ok = false;
+        try {
+            List<Workout> workouts = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                workouts.add(new Workout(0, "Benchmark " + i % 20, 30 + i % 60, i % 5, i % 12, i % 80, 100 + i % 400));
+            }
+            if (daos.workouts().addWorkouts(workouts, userId, DatabaseConnection.getDefaultBatchSize())
+                    .getInsertedCount() != rows) {
+                System.err.println("Error seeding " + rows + " workouts.");
+                return;
+            }
+            System.out.printf("Mapping %,d workout rows per pass%n", rows);
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                for (int round = 0; round <= rounds; round++) {
+                    // Alternate which goes first, so neither always runs on a warmer cache.
+                    boolean indexFirst = round % 2 == 0;
+                    double first = nanosPerRow(connection, userId, indexFirst ? RowMappers.WORKOUT : WORKOUT_BY_NAME);
+                    double second = nanosPerRow(connection, userId, indexFirst ? WORKOUT_BY_NAME : RowMappers.WORKOUT);
+                    double index = indexFirst ? first : second;
+                    double name = indexFirst ? second : first;
+                    if (round == 0) {
+                        continue; // Warm-up: JIT and the driver's column caches.
+                    }
+                    byIndex[round - 1] = index;
+                    byName[round - 1] = name;
+                    System.out.printf("Round %d: by index %7.1f ns/row, by name %7.1f ns/row%n", round, index, name);
+                }
+            }
+            ok = true;
+        } catch (SQLException e) {
+            System.err.println("Error reading workouts: " + e.getMessage());
+        } finally {
+            daos.users().deleteUser(userId);
+            daos.shutdown();
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+        double indexMedian = median(byIndex);
+        double nameMedian = median(byName);
+        System.out.printf("Median: by index %.1f ns/row, by name %.1f ns/row (%.1fx)%n",
+                indexMedian, nameMedian, nameMedian / indexMedian);
+    }
+
+    /** Runs the query, then times mapping every row it returned. */
+    private static double nanosPerRow(Connection connection, int userId, RowMapper<Workout> mapper) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(SELECT_SQL)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                long checksum = 0;
+                int count = 0;
+                long start = System.nanoTime();
+                while (rs.next()) {
+                    checksum += mapper.map(rs).getWorkoutID();
+                    count++;
+                }
+                long elapsed = System.nanoTime() - start;
+                if (checksum == 0 || count == 0) {
+                    throw new SQLException("The benchmark user's workouts came back empty.");
+                }
+                return (double) elapsed / count;
+            }
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
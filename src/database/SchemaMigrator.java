@@ -0,0 +1,290 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned schema migrations. Each migration runs once, in version order, and is recorded
+ * in {@code schema_version}; a database at version N only gets migrations N+1 and later.
+ * Migrations are append-only: never edit one that has shipped, add a new version instead.
+ */
+public final class SchemaMigrator {
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final List<String> statements;
+        // Table -> columns it must have once the statements ran, checked before the version is recorded.
+        final Map<String, List<String>> requiredColumns = new LinkedHashMap<>();
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = Arrays.asList(statements);
+        }
+
+        Migration requiring(String table, String... columns) {
+            requiredColumns.put(table, Arrays.asList(columns));
+            return this;
+        }
+    }
+
+    private static final String VERSION_TABLE_SQL = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT NOT NULL PRIMARY KEY, "
+            + "description VARCHAR(200) NOT NULL, "
+            + "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+    private static final String CURRENT_VERSION_SQL = "SELECT COALESCE(MAX(version), 0) FROM schema_version";
+    private static final String RECORD_VERSION_SQL = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+    private static final String INDEX_EXISTS_SQL = "SELECT 1 FROM information_schema.statistics "
+            + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1";
+    private static final String COLUMNS_SQL = "SELECT column_name FROM information_schema.columns "
+            + "WHERE table_schema = DATABASE() AND table_name = ?";
+    // MySQL has no CREATE INDEX IF NOT EXISTS, so apply() looks each one up first.
+    private static final Pattern CREATE_INDEX = Pattern.compile("CREATE INDEX (\\w+) ON (\\w+) .*");
+
+    private static final List<Migration> MIGRATIONS = Collections.unmodifiableList(Arrays.asList(
+            // On an install that predates the migrator the tables already exist and are left as
+            // they are; the column check then fails the migration, instead of recording V1, if one
+            // the DAOs read is missing.
+            new Migration(1, "Base tables",
+                    "CREATE TABLE IF NOT EXISTS users ("
+                            + "user_id INT AUTO_INCREMENT PRIMARY KEY, "
+                            + "name VARCHAR(100) NOT NULL, "
+                            + "age INT, "
+                            + "gender VARCHAR(20), "
+                            + "height DOUBLE, "
+                            + "weight DOUBLE, "
+                            + "username VARCHAR(50) NOT NULL, "
+                            + "password VARCHAR(255) NOT NULL, "
+                            + "UNIQUE KEY uq_users_username (username))",
+                    "CREATE TABLE IF NOT EXISTS workouts ("
+                            + "workout_id INT AUTO_INCREMENT PRIMARY KEY, "
+                            + "user_id INT NOT NULL, "
+                            + "type VARCHAR(100) NOT NULL, "
+                            + "duration INT NOT NULL DEFAULT 0, "
+                            + "sets_count INT NOT NULL DEFAULT 0, "
+                            + "reps_count INT NOT NULL DEFAULT 0, "
+                            + "weight DOUBLE NOT NULL DEFAULT 0, "
+                            + "calories_burned DOUBLE NOT NULL DEFAULT 0, "
+                            + "workout_date DATE NOT NULL DEFAULT (CURRENT_DATE), "
+                            + "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                            + "FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE)",
+                    "CREATE TABLE IF NOT EXISTS nutrition ("
+                            + "nutrition_id INT AUTO_INCREMENT PRIMARY KEY, "
+                            + "user_id INT NOT NULL, "
+                            + "food_item VARCHAR(100) NOT NULL, "
+                            + "calorie_intake DOUBLE NOT NULL DEFAULT 0, "
+                            + "protein DOUBLE NOT NULL DEFAULT 0, "
+                            + "carbs DOUBLE NOT NULL DEFAULT 0, "
+                            + "fats DOUBLE NOT NULL DEFAULT 0, "
+                            + "meal_time VARCHAR(20), "
+                            + "meal_date DATE NOT NULL DEFAULT (CURRENT_DATE), "
+                            + "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                            + "FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE)",
+                    "CREATE TABLE IF NOT EXISTS goals ("
+                            + "goal_id INT AUTO_INCREMENT PRIMARY KEY, "
+                            + "user_id INT NOT NULL, "
+                            + "description VARCHAR(255) NOT NULL, "
+                            + "target_value DOUBLE NOT NULL DEFAULT 0, "
+                            + "current_value DOUBLE NOT NULL DEFAULT 0, "
+                            + "status VARCHAR(20) NOT NULL DEFAULT 'In Progress', "
+                            + "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                            + "FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE)",
+                    "CREATE TABLE IF NOT EXISTS progress_tracker ("
+                            + "progress_id INT AUTO_INCREMENT PRIMARY KEY, "
+                            + "user_id INT NOT NULL, "
+                            + "progress_date DATE NOT NULL DEFAULT (CURRENT_DATE), "
+                            + "weight DOUBLE NOT NULL, "
+                            + "bmi DOUBLE NOT NULL, "
+                            + "FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE)")
+                    .requiring("users", "user_id", "name", "age", "gender", "height", "weight", "username", "password")
+                    .requiring("workouts", "workout_id", "user_id", "type", "duration", "sets_count", "reps_count",
+                            "weight", "calories_burned", "workout_date", "created_at")
+                    .requiring("nutrition", "nutrition_id", "user_id", "food_item", "calorie_intake", "protein",
+                            "carbs", "fats", "meal_time", "meal_date", "created_at")
+                    .requiring("goals", "goal_id", "user_id", "description", "target_value", "current_value",
+                            "status", "created_at")
+                    .requiring("progress_tracker", "progress_id", "user_id", "progress_date", "weight", "bmi"),
+
+            // One index per access path. Each starts with user_id and then follows the DAO's
+            // ORDER BY, so history pages, keyset seeks and "today" reads are index range scans
+            // with no filesort. The leading user_id also serves the foreign keys. An index that
+            // already exists (from a run that failed part-way) is skipped, so a rerun goes through.
+            new Migration(2, "Composite indexes for DAO queries",
+                    // getWorkoutsPage / getTodaysWorkouts: ORDER BY workout_date, created_at, workout_id
+                    "CREATE INDEX idx_workouts_user_date ON workouts (user_id, workout_date, created_at, workout_id)",
+                    // getMealsPage / today's meals: ORDER BY meal_date, created_at, nutrition_id
+                    "CREATE INDEX idx_nutrition_user_date ON nutrition (user_id, meal_date, created_at, nutrition_id)",
+                    // getGoalsByUser: ORDER BY created_at
+                    "CREATE INDEX idx_goals_user_created ON goals (user_id, created_at)",
+                    // getProgressPage and the dashboard's latest weight: ORDER BY progress_date, progress_id
+                    "CREATE INDEX idx_progress_user_date ON progress_tracker (user_id, progress_date, progress_id)"),
+            // authenticateUser (username = ? AND password = ?) is served by uq_users_username.
+
+            // Backfilled from the raw rows, so existing history shows up in the rollup straight away.
+            new Migration(3, "Daily totals rollup", MySqlDailyTotalsDAO.CREATE_AND_BACKFILL_SQL),
+
+            // Keyed by user_id, so the upsert and the lookup are both primary key operations.
+            new Migration(4, "Precomputed recommendations", MySqlRecommendationDAO.CREATE_TABLE_SQL)));
+
+    // The queries the indexes above are meant to serve, for explain().
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+    static {
+        HOT_QUERIES.put("workout history", "SELECT workout_id FROM workouts WHERE user_id = 1 "
+                + "ORDER BY workout_date DESC, created_at DESC, workout_id DESC LIMIT 501");
+        HOT_QUERIES.put("today's workouts", "SELECT workout_id FROM workouts WHERE user_id = 1 AND workout_date = CURRENT_DATE");
+        HOT_QUERIES.put("meal history", "SELECT nutrition_id FROM nutrition WHERE user_id = 1 "
+                + "ORDER BY meal_date DESC, created_at DESC, nutrition_id DESC LIMIT 501");
+        HOT_QUERIES.put("today's meals", "SELECT nutrition_id FROM nutrition WHERE user_id = 1 AND meal_date = CURRENT_DATE");
+        HOT_QUERIES.put("goals", "SELECT goal_id FROM goals WHERE user_id = 1 ORDER BY created_at DESC");
+        HOT_QUERIES.put("progress history", "SELECT progress_id FROM progress_tracker WHERE user_id = 1 "
+                + "ORDER BY progress_date DESC, progress_id DESC LIMIT 501");
+        HOT_QUERIES.put("login", "SELECT user_id FROM users WHERE username = 'x' AND password = 'x'");
+        HOT_QUERIES.put("today's totals", "SELECT day FROM daily_totals WHERE user_id = 1 AND day = CURRENT_DATE");
+    }
+
+    private SchemaMigrator() {}
+
+    /** The version the newest migration brings the schema to. */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /** The version recorded in the database, or 0 for an empty database. */
+    public static int getCurrentVersion() throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return currentVersion(connection);
+        }
+    }
+
+    /**
+     * Applies every migration newer than the database's version and returns how many ran.
+     * Stops at the first failure, leaving the database at the last version that succeeded.
+     */
+    public static int migrate() throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            int current = currentVersion(connection);
+            int applied = 0;
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                apply(connection, migration);
+                applied++;
+            }
+            return applied;
+        }
+    }
+
+    /**
+     * Runs EXPLAIN on each of the DAOs' hot queries and returns the plan rows, keyed by query,
+     * so index use can be checked against a real database after migrating.
+     */
+    public static Map<String, List<String>> explain() throws SQLException {
+        Map<String, List<String>> plans = new LinkedHashMap<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement stmt = connection.createStatement()) {
+            for (Map.Entry<String, String> query : HOT_QUERIES.entrySet()) {
+                List<String> rows = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery("EXPLAIN " + query.getValue())) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    while (rs.next()) {
+                        StringBuilder row = new StringBuilder();
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            String label = meta.getColumnLabel(i);
+                            if ("table".equals(label) || "type".equals(label) || "key".equals(label)
+                                    || "rows".equals(label) || "Extra".equals(label)) {
+                                row.append(label).append('=').append(rs.getString(i)).append(' ');
+                            }
+                        }
+                        rows.add(row.toString().trim());
+                    }
+                }
+                plans.put(query.getKey(), rows);
+            }
+        }
+        return plans;
+    }
+
+    private static int currentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(VERSION_TABLE_SQL);
+            try (ResultSet rs = stmt.executeQuery(CURRENT_VERSION_SQL)) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static boolean indexExists(Connection connection, String table, String index) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INDEX_EXISTS_SQL)) {
+            stmt.setString(1, table);
+            stmt.setString(2, index);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void checkColumns(Connection connection, String table, List<String> required) throws SQLException {
+        Set<String> present = new HashSet<>();
+        try (PreparedStatement stmt = connection.prepareStatement(COLUMNS_SQL)) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    present.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        List<String> missing = new ArrayList<>();
+        for (String column : required) {
+            if (!present.contains(column)) {
+                missing.add(column);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new SQLException("Table " + table + " is missing column(s) " + String.join(", ", missing)
+                    + "; add them by hand, then migrate again.");
+        }
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        // MySQL commits DDL implicitly, so the version row is what marks a migration as done;
+        // a migration that fails part-way is fixed forward with a new version.
+        connection.setAutoCommit(false);
+        try {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : migration.statements) {
+                    Matcher index = CREATE_INDEX.matcher(sql);
+                    if (index.matches() && indexExists(connection, index.group(2), index.group(1))) {
+                        continue;
+                    }
+                    stmt.execute(sql);
+                }
+            }
+            for (Map.Entry<String, List<String>> table : migration.requiredColumns.entrySet()) {
+                checkColumns(connection, table.getKey(), table.getValue());
+            }
+            try (PreparedStatement record = connection.prepareStatement(RECORD_VERSION_SQL)) {
+                record.setInt(1, migration.version);
+                record.setString(2, migration.description);
+                record.executeUpdate();
+            }
+            connection.commit();
+            System.out.println("Applied schema migration " + migration.version + ": " + migration.description);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Schema migration " + migration.version + " (" + migration.description
+                    + ") failed: " + e.getMessage(), e.getSQLState(), e);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package database;
+
+import models.DailyTotals;
+import models.DashboardSnapshot;
+import models.Goal;
+import models.Nutrition;
+import models.ProgressTracker;
+import models.Workout;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running training statistics for one user, kept in memory.
+ * Seeded once from the DAOs (on first use after login), then updated in O(1) by the DAOs
+ * on every workout, meal, progress entry and goal they store. That way the dashboard and
+ * recommendations read from memory instead of querying. Rolling 7/30-day figures come
+ * from a 30-slot ring buffer of per-day totals indexed by epoch day.
+ *
+ * Only writes made through this process are seen; call {@link #forget(int)} to re-seed
+ * (the GUI does on every login).
+ */
+public final class TrainingStats {
+    private static final int WINDOW_DAYS = 30;
+    private static final Map<Integer, TrainingStats> BY_USER = new ConcurrentHashMap<>();
+    // Shared across users and re-seeds, so a version number is never reused.
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final int userId;
+    private long version = VERSIONS.incrementAndGet();
+
+    // All-time running totals
+    private int workoutCount;
+    private double caloriesBurned;
+    private int minutes;
+    private double caloriesIn;
+    private double protein;
+    private double carbs;
+    private double fats;
+
+    // Per-day ring buffer: slot = epochDay % 30, valid while slotDay matches
+    private final long[] slotDay = new long[WINDOW_DAYS];
+    private final int[] slotWorkouts = new int[WINDOW_DAYS];
+    private final double[] slotBurned = new double[WINDOW_DAYS];
+    private final double[] slotCaloriesIn = new double[WINDOW_DAYS];
+    private final double[] slotProtein = new double[WINDOW_DAYS];
+    private final double[] slotCarbs = new double[WINDOW_DAYS];
+    private final double[] slotFats = new double[WINDOW_DAYS];
+
+    // Consecutive days with at least one workout
+    private long lastWorkoutDay = Long.MIN_VALUE;
+    private int currentStreak;
+    private int longestStreak;
+
+    private int latestProgressId;
+    private double latestWeight;
+    private double latestBmi;
+    private String latestWeightDate;
+    private final List<Goal> goals = new ArrayList<>(); // newest first
+
+    // Rows with IDs up to these were already counted by the seed.
+    private int seededWorkoutId;
+    private int seededMealId;
+    private int seededProgressId;
+    private int seededGoalId;
+
+    private TrainingStats(int userId) {
+        this.userId = userId;
+        java.util.Arrays.fill(slotDay, Long.MIN_VALUE);
+    }
+
+    /**
+     * The user's stats, seeded from the DAOs the first time they're asked for. Throws
+     * IllegalStateException if a seeding read fails; nothing is registered, so the next
+     * call tries again.
+     */
+    public static TrainingStats of(int userId) {
+        TrainingStats stats = BY_USER.get(userId);
+        if (stats != null) {
+            return stats;
+        }
+        // Seed outside the map so one slow seed doesn't block other users; first one in wins.
+        TrainingStats seeded = seed(userId, DaoFactory.get());
+        stats = BY_USER.putIfAbsent(userId, seeded);
+        return stats != null ? stats : seeded;
+    }
+
+    /**
+     * Seeds a fresh copy of the user's stats without registering it, so DAO writes won't
+     * update it. For batch jobs that visit each user once and shouldn't fill the registry.
+     * Throws IllegalStateException if a read fails, like {@link #of(int)}.
+     */
+    public static TrainingStats load(int userId) {
+        return seed(userId, DaoFactory.get());
+    }
+
+    /** Drops the user's stats so the next {@link #of(int)} re-seeds them. */
+    public static void forget(int userId) {
+        BY_USER.remove(userId);
+    }
+
+    private static TrainingStats seed(int userId, DaoFactory daos) {
+        TrainingStats stats = new TrainingStats(userId);
+        // Watermarks before totals: a write landing mid-seed is then in the totals instead of
+        // below the watermark and missing from them. Its own update finds no registered stats
+        // and is dropped, so it's counted once.
+        List<Workout> newestWorkout = daos.workouts().getWorkoutsPage(userId, null, 1).getItems();
+        stats.seededWorkoutId = newestWorkout.isEmpty() ? 0 : newestWorkout.get(0).getWorkoutID();
+        List<Nutrition> newestMeal = daos.nutrition().getMealsPage(userId, null, 1).getItems();
+        stats.seededMealId = newestMeal.isEmpty() ? 0 : newestMeal.get(0).getNutritionID();
+
+        LocalDate today = LocalDate.now();
+        // One rollup row per active day, oldest first: totals, the ring buffer and streaks in one pass.
+        for (DailyTotals day : daos.dailyTotals().getDailyTotalsBetween(userId, LocalDate.of(1970, 1, 1), today)) {
+            long epochDay = LocalDate.parse(day.getDate()).toEpochDay();
+            stats.workoutCount += day.getWorkoutCount();
+            stats.caloriesBurned += day.getCaloriesBurned();
+            stats.caloriesIn += day.getCaloriesIn();
+            stats.protein += day.getProtein();
+            stats.carbs += day.getCarbs();
+            stats.fats += day.getFats();
+            stats.addToDay(epochDay, day.getWorkoutCount(), day.getCaloriesBurned(),
+                    day.getCaloriesIn(), day.getProtein(), day.getCarbs(), day.getFats(), today);
+            if (day.getWorkoutCount() > 0) {
+                stats.addWorkoutDay(epochDay);
+            }
+        }
+        stats.minutes = daos.workouts().getWorkoutStats(userId, 0).getTotalMinutes();
+
+        // Goals and the latest progress entry carry their own IDs, so read order doesn't matter.
+        List<Goal> goals = daos.goals().getGoalsByUser(userId);
+        stats.goals.addAll(goals);
+        if (!goals.isEmpty()) {
+            stats.seededGoalId = goals.get(0).getGoalID();
+        }
+        List<ProgressTracker> latest = daos.progress().getProgressPage(userId, null, 1).getItems();
+        if (!latest.isEmpty()) {
+            ProgressTracker entry = latest.get(0);
+            stats.recordProgress(entry.getProgressID(), entry.getDate(), entry.getWeight(), entry.getBmi());
+            stats.seededProgressId = entry.getProgressID();
+        }
+        return stats;
+    }
+
+    // --- Called by the DAOs after a write has been stored ---
+
+    /** {@code ids[i]} is the stored ID of {@code workouts.get(i)}. New rows are always dated today by both backends. */
+    static void workoutsAdded(int userId, List<Workout> workouts, int[] ids) {
+        TrainingStats stats = BY_USER.get(userId);
+        if (stats == null) {
+            return; // Not seeded yet; the seed will read these rows from the database.
+        }
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < workouts.size(); i++) {
+            Workout w = workouts.get(i);
+            stats.recordWorkout(ids[i], today.toEpochDay(), w.getCaloriesBurned(), w.getDuration(), today);
+        }
+    }
+
+    static void mealsAdded(int userId, List<Nutrition> meals, int[] ids) {
+        TrainingStats stats = BY_USER.get(userId);
+        if (stats == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < meals.size(); i++) {
+            Nutrition m = meals.get(i);
+            stats.recordMeal(ids[i], today.toEpochDay(), m.getCalorieIntake(), m.getProtein(),
+                    m.getCarbs(), m.getFats(), today);
+        }
+    }
+
+    static void progressAdded(int userId, List<ProgressTracker> entries, int[] ids) {
+        TrainingStats stats = BY_USER.get(userId);
+        if (stats == null) {
+            return;
+        }
+        String today = LocalDate.now().toString();
+        for (int i = 0; i < entries.size(); i++) {
+            ProgressTracker e = entries.get(i);
+            stats.recordProgress(ids[i], today, e.getWeight(), e.getBmi());
+        }
+    }
+
+    static void goalAdded(int userId, Goal goal) {
+        TrainingStats stats = BY_USER.get(userId);
+        if (stats != null) {
+            stats.recordGoal(goal);
+        }
+    }
+
+    private synchronized void recordWorkout(int id, long epochDay, double calories, int duration, LocalDate today) {
+        if (id <= seededWorkoutId) {
+            return;
+        }
+        version = VERSIONS.incrementAndGet();
+        workoutCount++;
+        caloriesBurned += calories;
+        minutes += duration;
+        addToDay(epochDay, 1, calories, 0, 0, 0, 0, today);
+        addWorkoutDay(epochDay);
+    }
+
+    private synchronized void recordMeal(int id, long epochDay, double calories, double p, double c, double f,
+                                         LocalDate today) {
+        if (id <= seededMealId) {
+            return;
+        }
+        version = VERSIONS.incrementAndGet();
+        caloriesIn += calories;
+        protein += p;
+        carbs += c;
+        fats += f;
+        addToDay(epochDay, 0, 0, calories, p, c, f, today);
+    }
+
+    private synchronized void recordProgress(int id, String date, double weight, double bmi) {
+        if (id > seededProgressId && id > latestProgressId) {
+            version = VERSIONS.incrementAndGet();
+            latestProgressId = id;
+            latestWeight = weight;
+            latestBmi = bmi;
+            latestWeightDate = date;
+        }
+    }
+
+    private synchronized void recordGoal(Goal goal) {
+        if (goal.getGoalID() > seededGoalId) {
+            version = VERSIONS.incrementAndGet();
+            seededGoalId = goal.getGoalID();
+            goals.add(0, goal);
+        }
+    }
+
+    private void addToDay(long epochDay, int workouts, double burned, double in, double p, double c, double f,
+                          LocalDate today) {
+        if (epochDay <= today.toEpochDay() - WINDOW_DAYS) {
+            return; // Older than anything the rolling windows cover.
+        }
+        int slot = (int) Math.floorMod(epochDay, (long) WINDOW_DAYS);
+        if (slotDay[slot] != epochDay) {
+            if (slotDay[slot] > epochDay) {
+                return; // The slot already holds a newer day.
+            }
+            slotDay[slot] = epochDay;
+            slotWorkouts[slot] = 0;
+            slotBurned[slot] = 0;
+            slotCaloriesIn[slot] = 0;
+            slotProtein[slot] = 0;
+            slotCarbs[slot] = 0;
+            slotFats[slot] = 0;
+        }
+        slotWorkouts[slot] += workouts;
+        slotBurned[slot] += burned;
+        slotCaloriesIn[slot] += in;
+        slotProtein[slot] += p;
+        slotCarbs[slot] += c;
+        slotFats[slot] += f;
+    }
+
+    private void addWorkoutDay(long epochDay) {
+        if (epochDay == lastWorkoutDay) {
+            return;
+        }
+        if (epochDay == lastWorkoutDay + 1) {
+            currentStreak++;
+        } else if (epochDay > lastWorkoutDay) {
+            currentStreak = 1;
+        } else {
+            return; // An older day; only seeding (oldest first) ever feeds days in order.
+        }
+        lastWorkoutDay = epochDay;
+        longestStreak = Math.max(longestStreak, currentStreak);
+    }
+
+    // --- Reads ---
+
+    public int getUserId() { return userId; }
+
+    /** Changes whenever any of these figures change (including a re-seed), so it can key derived results. */
+    public synchronized long getVersion() { return version; }
+    public synchronized int getWorkoutCount() { return workoutCount; }
+    public synchronized double getTotalCaloriesBurned() { return caloriesBurned; }
+    public synchronized int getTotalMinutes() { return minutes; }
+    public synchronized double getTotalCaloriesIn() { return caloriesIn; }
+    public synchronized int getLongestStreak() { return longestStreak; }
+
+    /** Consecutive days with a workout, ending today or yesterday; 0 once a day has been missed. */
+    public synchronized int getCurrentStreak() {
+        return lastWorkoutDay >= LocalDate.now().toEpochDay() - 1 ? currentStreak : 0;
+    }
+
+    /** The newest goal's description, or null if the user has no goals. */
+    public synchronized String getPrimaryGoal() { return goals.isEmpty() ? null : goals.get(0).getDescription(); }
+
+    /** Every goal's description, newest first. */
+    public synchronized List<String> getGoals() { return descriptions(false); }
+
+    /** The descriptions of goals that aren't completed yet, newest first. */
+    public synchronized List<String> getActiveGoals() { return descriptions(true); }
+
+    private List<String> descriptions(boolean activeOnly) {
+        List<String> result = new ArrayList<>(goals.size());
+        for (Goal goal : goals) {
+            if (!activeOnly || goal.isActive()) {
+                result.add(goal.getDescription());
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /** Today's totals, from the ring buffer. */
+    public synchronized DailyTotals getToday() {
+        return window(1);
+    }
+
+    /** Totals for the last 7 days including today; the date is the first day of the window. */
+    public synchronized DailyTotals getLast7Days() {
+        return window(7);
+    }
+
+    public synchronized DailyTotals getLast30Days() {
+        return window(30);
+    }
+
+    /** The same figures the dashboard query returns, without touching the database. */
+    public synchronized DashboardSnapshot getDashboardSnapshot() {
+        return new DashboardSnapshot(window(1), latestWeight, latestBmi, latestWeightDate);
+    }
+
+    private DailyTotals window(int days) {
+        LocalDate today = LocalDate.now();
+        long from = today.toEpochDay() - days + 1;
+        double in = 0, p = 0, c = 0, f = 0, burned = 0;
+        int workouts = 0;
+        for (int i = 0; i < WINDOW_DAYS; i++) {
+            if (slotDay[i] >= from && slotDay[i] <= today.toEpochDay()) {
+                in += slotCaloriesIn[i];
+                p += slotProtein[i];
+                c += slotCarbs[i];
+                f += slotFats[i];
+                burned += slotBurned[i];
+                workouts += slotWorkouts[i];
+            }
+        }
+        return new DailyTotals(LocalDate.ofEpochDay(from).toString(), in, p, c, f, burned, workouts);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("TrainingStats[user=%d, workouts=%d, burned=%.0f kcal, in=%.0f kcal, streak=%d (best %d)]",
+                userId, workoutCount, caloriesBurned, caloriesIn, getCurrentStreak(), longestStreak);
+    }
+}
@@ -1,76 +1,36 @@
 package database;
 
 import models.User;
-import java.sql.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
-public class UserDAO {
+/**
+ * User accounts. Get the configured implementation from {@link DaoFactory#users()}.
+ * Failures are logged and reported as null or false, except that listing users throws
+ * IllegalStateException, so a failed page isn't mistaken for the last one.
+ */
+public interface UserDAO {
 
-    public UserDAO() {}
+    /** False if the insert failed, e.g. because the username is taken. */
+    boolean createUser(User user);
 
-    public boolean createUser(User user) {
-        String sql = "INSERT INTO users (name, age, gender, height, weight, username, password) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, user.getName());
-            stmt.setInt(2, user.getAge());
-            stmt.setString(3, user.getGender());
-            stmt.setDouble(4, user.getHeight());
-            stmt.setDouble(5, user.getWeight());
-            stmt.setString(6, user.getUsername());
-            stmt.setString(7, user.getPassword());
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error creating user: " + e.getMessage());
-            return false;
-        }
-    }
+    /** The matching user, or null if the username and password don't match. */
+    User authenticateUser(String username, String password);
 
-    public User authenticateUser(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new User(
-                        rs.getInt("user_id"), rs.getString("name"), rs.getInt("age"),
-                        rs.getString("gender"), rs.getDouble("height"), rs.getDouble("weight"),
-                        rs.getString("username"), rs.getString("password")
-                );
-            }
-        } catch (SQLException e) {
-            System.err.println("Error authenticating user: " + e.getMessage());
-        }
-        return null;
-    }
-    
-    public boolean updateUser(User user) {
-        String sql = "UPDATE users SET name = ?, age = ?, gender = ?, height = ?, weight = ? WHERE user_id = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, user.getName());
-            stmt.setInt(2, user.getAge());
-            stmt.setString(3, user.getGender());
-            stmt.setDouble(4, user.getHeight());
-            stmt.setDouble(5, user.getWeight());
-            stmt.setInt(6, user.getUserID());
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating user: " + e.getMessage());
-        }
-        return false;
-    }
+    boolean updateUser(User user);
+
+    /** Deletes the user together with all of their logged data. */
+    boolean deleteUser(int userId);
+
+    /** Up to {@code limit} users with IDs above {@code afterUserId}, in ID order. */
+    List<User> getUsersAfter(int afterUserId, int limit);
 
-    public boolean deleteUser(int userId) {
-        String sql = "DELETE FROM users WHERE user_id = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error deleting user: " + e.getMessage());
-            return false;
-        }
+    /** Lazily walks every user in ID order, reading {@code pageSize} at a time. */
+    default Stream<User> streamAllUsers(int pageSize) {
+        return Stream.iterate(getUsersAfter(0, pageSize), page -> !page.isEmpty(),
+                        page -> page.size() < pageSize ? Collections.<User>emptyList()
+                                : getUsersAfter(page.get(page.size() - 1).getUserID(), pageSize))
+                .flatMap(List::stream);
     }
-}
\ No newline at end of file
+}
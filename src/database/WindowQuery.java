@@ -0,0 +1,92 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Random-access reads of one user's rows in a history table, as ordered and filtered by a
+ * {@link HistoryView}: a row count plus LIMIT/OFFSET windows. A table view scrolled to any
+ * point reads only the rows on screen. For walking a whole history front to back,
+ * {@link HistoryQuery}'s keyset pages are cheaper; OFFSET has to skip rows.
+ */
+final class WindowQuery<T> {
+    private final HistoryColumns<T> columns;
+    private final RowMapper<T> mapper;
+    private final String what;
+    private final String operation;
+
+    WindowQuery(HistoryColumns<T> columns, RowMapper<T> mapper, String what) {
+        this.columns = columns;
+        this.mapper = mapper;
+        this.what = what;
+        this.operation = "WindowQuery." + columns.table;
+    }
+
+    /** How many of the user's rows the view matches. Throws IllegalStateException if the query fails. */
+    int count(int userId, HistoryView view) {
+        String sql = "SELECT COUNT(*) FROM " + columns.table + where(view);
+        try (DaoMetrics.Call call = DaoMetrics.begin(operation + ".count")) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                bindWhere(stmt, userId, view);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error counting " + what + ": " + e.getMessage());
+                throw new IllegalStateException("Could not count " + what + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Rows {@code offset} to {@code offset + limit - 1} of the view. Throws IllegalStateException if
+     * the query fails, so a table doesn't show the window as rows that aren't there.
+     */
+    List<T> window(int userId, HistoryView view, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Window offset can't be negative and its size must be positive.");
+        }
+        String sql = "SELECT " + mapper.selectList() + " FROM " + columns.table + where(view)
+                + " ORDER BY " + columns.orderBy(view) + " LIMIT ? OFFSET ?";
+        try (DaoMetrics.Call call = DaoMetrics.begin(operation)) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                int i = bindWhere(stmt, userId, view);
+                stmt.setInt(i++, limit);
+                stmt.setInt(i, offset);
+                stmt.setFetchSize(limit);
+                List<T> rows = new ArrayList<>(Math.min(limit, 1024));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(mapper.map(rs));
+                    }
+                }
+                call.rows(rows.size());
+                return rows;
+            } catch (SQLException e) {
+                call.failed();
+                System.err.println("Error getting " + what + " window: " + e.getMessage());
+                throw new IllegalStateException("Could not read " + what + " window: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private String where(HistoryView view) {
+        return view.getFilter() == null
+                ? " WHERE user_id = ?"
+                : " WHERE user_id = ? AND " + columns.filterExpression + " LIKE ?";
+    }
+
+    /** Binds the WHERE parameters and returns the index of the next one. */
+    private static int bindWhere(PreparedStatement stmt, int userId, HistoryView view) throws SQLException {
+        int i = 1;
+        stmt.setInt(i++, userId);
+        if (view.getFilter() != null) {
+            stmt.setString(i++, HistoryColumns.likePattern(view.getFilter()));
+        }
+        return i;
+    }
+}
@@ -1,72 +1,75 @@
 package database;
 
 import models.Workout;
-import java.sql.*;
-import java.util.ArrayList;
+import models.WorkoutStats;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
-public class WorkoutDAO {
+/**
+ * Workout storage. Get the configured implementation from {@link DaoFactory#workouts()}.
+ * Failures are logged and reported as null, false or an empty result, except that the history
+ * pages, streams, counts, windows and stats throw IllegalStateException, so a failed read
+ * isn't mistaken for missing rows.
+ */
+public interface WorkoutDAO {
 
-    public WorkoutDAO() {}
+    /**
+     * Inserts the workout and returns it as stored, with its generated ID and the
+     * assigned date and timestamp, or null if the insert failed.
+     */
+    Workout addWorkout(Workout workout, int userId);
 
-    public boolean addWorkout(Workout workout, int userId) {
-        String sql = "INSERT INTO workouts (user_id, type, duration, sets_count, reps_count, weight, calories_burned) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            stmt.setString(2, workout.getType());
-            stmt.setInt(3, workout.getDuration());
-            stmt.setInt(4, workout.getSets());
-            stmt.setInt(5, workout.getReps());
-            stmt.setDouble(6, workout.getWeight()); // Correctly saves weight
-            stmt.setDouble(7, workout.getCaloriesBurned());
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error adding workout: " + e.getMessage());
-            return false;
-        }
+    /**
+     * Stores the workout in the background and returns immediately.
+     * The future completes with the new workout ID once the row is durably stored.
+     */
+    CompletableFuture<Integer> addWorkoutAsync(Workout workout, int userId);
+
+    /** Inserts a whole session of workouts in one transaction. */
+    default BatchResult addWorkouts(List<Workout> workouts, int userId) {
+        return addWorkouts(workouts, userId, DatabaseConnection.getDefaultBatchSize());
     }
 
-    public List<Workout> getWorkoutsByUser(int userId) {
-        List<Workout> workouts = new ArrayList<>();
-        String sql = "SELECT * FROM workouts WHERE user_id = ? ORDER BY workout_date DESC, created_at DESC";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                workouts.add(new Workout(
-                        rs.getInt("workout_id"), rs.getString("type"), rs.getInt("duration"),
-                        rs.getInt("sets_count"), rs.getInt("reps_count"),
-                        rs.getDouble("weight"), // Correctly reads weight
-                        rs.getDouble("calories_burned")
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting workouts: " + e.getMessage());
-        }
-        return workouts;
+    BatchResult addWorkouts(List<Workout> workouts, int userId, int batchSize);
+
+    /** The user's full workout history, newest first. The list must not be modified. */
+    List<Workout> getWorkoutsByUser(int userId);
+
+    /**
+     * One page of the user's workouts, newest first.
+     * Pass null as {@code after} for the first page, then the previous page's next cursor.
+     */
+    Page<Workout> getWorkoutsPage(int userId, PageCursor after, int pageSize);
+
+    /** Streams the user's full workout history page by page, newest first, in constant memory. */
+    default Stream<Workout> streamWorkoutsByUser(int userId) {
+        return streamWorkoutsByUser(userId, HistoryQuery.DEFAULT_PAGE_SIZE);
     }
 
-    public List<Workout> getTodaysWorkouts(int userId) {
-        List<Workout> workouts = new ArrayList<>();
-        String sql = "SELECT * FROM workouts WHERE user_id = ? AND workout_date = CURRENT_DATE";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
+    Stream<Workout> streamWorkoutsByUser(int userId, int pageSize);
+
+    /** How many of the user's workouts match {@code view}. */
+    int countWorkouts(int userId, HistoryView view);
+
+    /**
+     * Rows {@code offset} to {@code offset + limit - 1} of the user's workouts, as ordered and
+     * filtered by {@code view}, for views that scroll to any point without reading the rest.
+     */
+    List<Workout> getWorkoutsWindow(int userId, HistoryView view, int offset, int limit);
+
+    /** Workouts logged today. The list must not be modified. */
+    List<Workout> getTodaysWorkouts(int userId);
+
+    /**
+     * All-time count, calorie and duration totals, plus per-week buckets for the last
+     * {@code weeks} weeks (including this one). Aggregated by the backend, so the cost
+     * doesn't depend on how long the user's history is.
+     */
+    WorkoutStats getWorkoutStats(int userId, int weeks);
 
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                 workouts.add(new Workout(
-                        rs.getInt("workout_id"), rs.getString("type"), rs.getInt("duration"),
-                        rs.getInt("sets_count"), rs.getInt("reps_count"),
-                        rs.getDouble("weight"), // Correctly reads weight
-                        rs.getDouble("calories_burned")
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting today's workouts: " + e.getMessage());
-        }
-        return workouts;
+    /** Stats with the last 8 weeks bucketed. */
+    default WorkoutStats getWorkoutStats(int userId) {
+        return getWorkoutStats(userId, 8);
     }
-}
\ No newline at end of file
+}
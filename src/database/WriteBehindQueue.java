@@ -0,0 +1,291 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for single-row inserts (used by the DAOs' add*Async methods).
+ * Callers enqueue and return straight away; a background thread commits whatever has
+ * queued up as one transaction once {@code maxBatch} rows are waiting or
+ * {@code flushIntervalMs} has passed since the first of them arrived.
+ * Each caller's future completes with the generated ID only after its row is committed.
+ */
+public final class WriteBehindQueue {
+
+    /** Binds one queued row onto its INSERT statement. */
+    interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private static final class PendingWrite {
+        final String sql;
+        final Binder binder;
+        final String rollupSql;
+        final Binder rollupBinder;
+        final String what;
+        final CompletableFuture<Integer> ack = new CompletableFuture<>();
+        int generatedId;
+
+        PendingWrite(String sql, Binder binder, String rollupSql, Binder rollupBinder, String what) {
+            this.sql = sql;
+            this.binder = binder;
+            this.rollupSql = rollupSql;
+            this.rollupBinder = rollupBinder;
+            this.what = what;
+        }
+    }
+
+    private static volatile WriteBehindQueue instance;
+
+    private final BlockingQueue<PendingWrite> queue;
+    private final int maxBatch;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMs;
+    private final Thread flusher;
+    private volatile boolean running = true;
+    // Submitters share it, shutdown takes it exclusively: nothing is queued after the flusher's last look.
+    private final ReentrantReadWriteLock accepting = new ReentrantReadWriteLock();
+
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+
+    WriteBehindQueue(int capacity, int maxBatch, long flushIntervalMs, long offerTimeoutMs) {
+        if (capacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive.");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.flusher = new Thread(this::runFlusher, "db-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /** The shared queue, created from db.writeBehind.* settings on first use. */
+    public static WriteBehindQueue getInstance() {
+        WriteBehindQueue q = instance;
+        if (q != null) {
+            return q;
+        }
+        synchronized (WriteBehindQueue.class) {
+            if (instance == null) {
+                Properties config = DatabaseConnection.getConfig();
+                instance = new WriteBehindQueue(
+                        DatabaseConnection.intProperty(config, "db.writeBehind.queueCapacity", 1000),
+                        DatabaseConnection.intProperty(config, "db.writeBehind.maxBatch", 50),
+                        DatabaseConnection.intProperty(config, "db.writeBehind.flushIntervalMs", 20),
+                        DatabaseConnection.intProperty(config, "db.writeBehind.offerTimeoutMs", 5000));
+                // Don't lose acknowledged-but-unflushed writes when the app exits normally.
+                Runtime.getRuntime().addShutdownHook(new Thread(instance::shutdown, "db-write-behind-drain"));
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Queues one insert. If the queue is full the caller blocks (backpressure) for up to
+     * the offer timeout, after which the returned future fails with RejectedExecutionException.
+     * The optional rollup statement is committed in the same transaction as the insert.
+     */
+    CompletableFuture<Integer> submit(String sql, Binder binder, String rollupSql, Binder rollupBinder, String what) {
+        PendingWrite write = new PendingWrite(sql, binder, rollupSql, rollupBinder, what);
+        accepting.readLock().lock();
+        try {
+            if (!running) {
+                write.ack.completeExceptionally(new RejectedExecutionException("Write-behind queue has been shut down."));
+            } else if (!queue.offer(write, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                write.ack.completeExceptionally(new RejectedExecutionException(
+                        "Write-behind queue is full; " + what + " was not queued."));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write.ack.completeExceptionally(e);
+        } finally {
+            accepting.readLock().unlock();
+        }
+        return write.ack;
+    }
+
+    /**
+     * Stops accepting writes and blocks until everything already queued has been committed.
+     * The flusher notices within one flush interval; it isn't interrupted, since an interrupted
+     * thread can't get a pooled connection for the final flush.
+     */
+    public void shutdown() {
+        accepting.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            accepting.writeLock().unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPendingCount() { return queue.size(); }
+    public long getTransactionCount() { return transactions.get(); }
+    public long getRowsWritten() { return rowsWritten.get(); }
+    public long getRowsFailed() { return rowsFailed.get(); }
+
+    private void runFlusher() {
+        List<PendingWrite> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            collect(group);
+            if (!group.isEmpty()) {
+                flush(group);
+                group.clear();
+            }
+        }
+    }
+
+    /** Gathers the next group: waits for a first row, then up to the flush interval for more. */
+    private void collect(List<PendingWrite> group) {
+        try {
+            if (!running) {
+                queue.drainTo(group, maxBatch);
+                return;
+            }
+            PendingWrite first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+            if (first == null) {
+                return;
+            }
+            group.add(first);
+            long deadline = System.nanoTime() + flushIntervalNanos;
+            while (group.size() < maxBatch) {
+                queue.drainTo(group, maxBatch - group.size());
+                long remaining = deadline - System.nanoTime();
+                if (group.size() >= maxBatch || remaining <= 0) {
+                    break;
+                }
+                PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                group.add(next);
+            }
+        } catch (InterruptedException e) {
+            // Nothing interrupts the flusher on purpose; whatever is already in the group still gets flushed.
+        }
+    }
+
+    private void flush(List<PendingWrite> group) {
+        try (DaoMetrics.Call call = DaoMetrics.begin("WriteBehindQueue.flush");
+             Connection connection = DatabaseConnection.getConnection()) {
+            call.rows(group.size());
+            connection.setAutoCommit(false);
+            try {
+                // Same statement text -> one JDBC batch, so a mixed group is one batch per table.
+                Map<String, List<PendingWrite>> bySql = new LinkedHashMap<>();
+                Map<String, List<PendingWrite>> byRollupSql = new LinkedHashMap<>();
+                for (PendingWrite w : group) {
+                    bySql.computeIfAbsent(w.sql, k -> new ArrayList<>()).add(w);
+                    if (w.rollupSql != null) {
+                        byRollupSql.computeIfAbsent(w.rollupSql, k -> new ArrayList<>()).add(w);
+                    }
+                }
+                for (Map.Entry<String, List<PendingWrite>> entry : bySql.entrySet()) {
+                    executeBatch(connection, entry.getKey(), entry.getValue());
+                }
+                for (Map.Entry<String, List<PendingWrite>> entry : byRollupSql.entrySet()) {
+                    executeRollups(connection, entry.getKey(), entry.getValue());
+                }
+                connection.commit();
+                transactions.incrementAndGet();
+                rowsWritten.addAndGet(group.size());
+                for (PendingWrite w : group) {
+                    w.ack.complete(w.generatedId);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                // One bad row shouldn't fail everybody else's write: retry the group row by row.
+                for (PendingWrite w : group) {
+                    writeSingle(connection, w);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Caught here rather than in the loop, so the flusher outlives a bad group.
+            System.err.println("Error flushing write-behind queue: " + e.getMessage());
+            for (PendingWrite w : group) {
+                if (w.ack.completeExceptionally(e)) {
+                    rowsFailed.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void executeBatch(Connection connection, String sql, List<PendingWrite> writes) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (PendingWrite w : writes) {
+                w.binder.bind(stmt);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (PendingWrite w : writes) {
+                    if (keys.next()) {
+                        w.generatedId = keys.getInt(1);
+                    }
+                }
+            }
+        }
+    }
+
+    private void executeRollups(Connection connection, String sql, List<PendingWrite> writes) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (PendingWrite w : writes) {
+                w.rollupBinder.bind(stmt);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /** Inserts one row (and its rollup) in its own transaction. */
+    private void writeSingle(Connection connection, PendingWrite w) {
+        try {
+            int id = 0;
+            try (PreparedStatement stmt = connection.prepareStatement(w.sql, Statement.RETURN_GENERATED_KEYS)) {
+                w.binder.bind(stmt);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        id = keys.getInt(1);
+                    }
+                }
+            }
+            if (w.rollupSql != null) {
+                executeRollups(connection, w.rollupSql, Collections.singletonList(w));
+            }
+            connection.commit();
+            transactions.incrementAndGet();
+            rowsWritten.incrementAndGet();
+            w.ack.complete(id);
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // The connection is discarded by the pool if it can't be reset.
+            }
+            System.err.println("Error adding " + w.what + ": " + e.getMessage());
+            rowsFailed.incrementAndGet();
+            w.ack.completeExceptionally(e);
+        }
+    }
+}
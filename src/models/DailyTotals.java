@@ -0,0 +1,36 @@
+package models;
+
+public class DailyTotals {
+    private String date;
+    private double caloriesIn;
+    private double protein;
+    private double carbs;
+    private double fats;
+    private double caloriesBurned;
+    private int workoutCount;
+
+    public DailyTotals(String date, double caloriesIn, double protein, double carbs, double fats,
+                       double caloriesBurned, int workoutCount) {
+        this.date = date;
+        this.caloriesIn = caloriesIn;
+        this.protein = protein;
+        this.carbs = carbs;
+        this.fats = fats;
+        this.caloriesBurned = caloriesBurned;
+        this.workoutCount = workoutCount;
+    }
+
+    // Getters
+    public String getDate() { return date; }
+    public double getCaloriesIn() { return caloriesIn; }
+    public double getProtein() { return protein; }
+    public double getCarbs() { return carbs; }
+    public double getFats() { return fats; }
+    public double getCaloriesBurned() { return caloriesBurned; }
+    public int getWorkoutCount() { return workoutCount; }
+
+    @Override
+    public String toString() {
+        return date + ": in " + caloriesIn + " kcal, out " + caloriesBurned + " kcal, " + workoutCount + " workout(s)";
+    }
+}
@@ -0,0 +1,29 @@
+package models;
+
+public class DashboardSnapshot {
+    private DailyTotals today;
+    private double latestWeight;
+    private double latestBmi;
+    private String latestWeightDate;
+
+    public DashboardSnapshot(DailyTotals today, double latestWeight, double latestBmi, String latestWeightDate) {
+        this.today = today;
+        this.latestWeight = latestWeight;
+        this.latestBmi = latestBmi;
+        this.latestWeightDate = latestWeightDate;
+    }
+
+    // Getters
+    public DailyTotals getToday() { return today; }
+    public double getLatestWeight() { return latestWeight; }
+    public double getLatestBmi() { return latestBmi; }
+    public String getLatestWeightDate() { return latestWeightDate; }
+
+    /** False until the user has logged at least one progress entry. */
+    public boolean hasWeight() { return latestWeightDate != null; }
+
+    @Override
+    public String toString() {
+        return today + (hasWeight() ? ", latest weight " + latestWeight + "kg on " + latestWeightDate : "");
+    }
+}
@@ -0,0 +1,10 @@
+package models;
+
+/** The goal categories recommendations are tailored to; see {@link GoalClassifier}. */
+public enum FitnessGoal {
+    WEIGHT_LOSS,
+    MUSCLE_GAIN,
+    ENDURANCE,
+    FLEXIBILITY,
+    GENERAL_FITNESS
+}
@@ -6,6 +6,7 @@ public class Goal {
     private double targetValue;
     private double currentValue;
     private String status;
+    private String createdAt;   // server-side insert timestamp
 
     public Goal(int goalID, String description, double targetValue, double currentValue, String status) {
         this.goalID = goalID;
@@ -21,6 +22,15 @@ public class Goal {
     public double getTargetValue() { return targetValue; }
     public double getCurrentValue() { return currentValue; }
     public String getStatus() { return status; }
+    public String getCreatedAt() { return createdAt; }
+
+    /** Completed goals no longer shape recommendations. */
+    public boolean isActive() {
+        return !"Completed".equalsIgnoreCase(status);
+    }
+
+    // Set when the goal is read back from the database
+    public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
 
     // This method is just for console output confirmation, used by the GUI
     public void setGoal() {
@@ -0,0 +1,346 @@
+package models;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Maps free-text goal descriptions to a {@link FitnessGoal} using a weighted keyword and
+ * phrase table. The table is compiled once into an Aho-Corasick automaton, so a description
+ * is scored in a single pass that is linear in its length no matter how many phrases there are.
+ *
+ * <p>Each table line is {@code GOAL weight phrase...}; blank lines and {@code #} comments are
+ * ignored. Matching is case-insensitive, on whole words, and treats punctuation as spaces.
+ * A phrase ending in {@code *} also matches longer words that start with it, so
+ * {@code strength*} matches "strengthen" and {@code cardio*} matches "cardiovascular".
+ * The table is read from {@value #TABLE_FILE} in the working directory or on the classpath,
+ * falling back to the built-in one below.
+ */
+public final class GoalClassifier {
+    public static final String TABLE_FILE = "goal-keywords.txt";
+
+    private static final String DEFAULT_TABLE = String.join("\n",
+            "# goal           weight  phrase",
+            "WEIGHT_LOSS      3       lose weight",
+            "WEIGHT_LOSS      3       weight loss",
+            "WEIGHT_LOSS      3       burn fat",
+            "WEIGHT_LOSS      3       fat loss",
+            "WEIGHT_LOSS      3       lose fat",
+            "WEIGHT_LOSS      3       belly fat",
+            "WEIGHT_LOSS      3       shed pounds",
+            "WEIGHT_LOSS      3       drop pounds",
+            "WEIGHT_LOSS      3       lose pounds",
+            "WEIGHT_LOSS      3       lose kg",
+            "WEIGHT_LOSS      3       calorie deficit",
+            "WEIGHT_LOSS      2       cutting",
+            "WEIGHT_LOSS      2       slim down",
+            "WEIGHT_LOSS      2       get lean",
+            "WEIGHT_LOSS      2       lean out",
+            "WEIGHT_LOSS      2       cardio*",
+            "WEIGHT_LOSS      1       tone up",
+            "MUSCLE_GAIN      3       build muscle",
+            "MUSCLE_GAIN      3       gain muscle",
+            "MUSCLE_GAIN      3       muscle gain",
+            "MUSCLE_GAIN      3       put on muscle",
+            "MUSCLE_GAIN      3       bulk*",
+            "MUSCLE_GAIN      3       hypertrophy",
+            "MUSCLE_GAIN      2       strength*",
+            "MUSCLE_GAIN      2       stronger",
+            "MUSCLE_GAIN      2       lift heavier",
+            "MUSCLE_GAIN      2       gain weight",
+            "MUSCLE_GAIN      2       mass",
+            "MUSCLE_GAIN      1       bench",
+            "MUSCLE_GAIN      1       squat",
+            "MUSCLE_GAIN      1       deadlift",
+            "ENDURANCE        3       endurance",
+            "ENDURANCE        3       stamina",
+            "ENDURANCE        3       marathon",
+            "ENDURANCE        3       triathlon",
+            "ENDURANCE        3       run a 5k",
+            "ENDURANCE        2       5k",
+            "ENDURANCE        2       10k",
+            "ENDURANCE        2       run longer",
+            "ENDURANCE        2       aerobic",
+            "ENDURANCE        2       cycling",
+            "ENDURANCE        1       running",
+            "ENDURANCE        1       swimming",
+            "ENDURANCE        1       cardio*",
+            "FLEXIBILITY      3       flexibility",
+            "FLEXIBILITY      3       flexible",
+            "FLEXIBILITY      3       mobility",
+            "FLEXIBILITY      3       touch my toes",
+            "FLEXIBILITY      2       stretch*",
+            "FLEXIBILITY      2       yoga",
+            "FLEXIBILITY      2       pilates",
+            "FLEXIBILITY      2       posture",
+            "FLEXIBILITY      2       splits",
+            "GENERAL_FITNESS  3       general fitness",
+            "GENERAL_FITNESS  2       get fit",
+            "GENERAL_FITNESS  2       stay healthy",
+            "GENERAL_FITNESS  2       stay in shape",
+            "GENERAL_FITNESS  2       wellness",
+            "GENERAL_FITNESS  2       maintain",
+            "GENERAL_FITNESS  1       healthy");
+
+    // Input alphabet after normalization: a-z, 0-9 and a single word separator.
+    private static final int SPACE = 36;
+    private static final int ALPHABET = 37;
+    private static final FitnessGoal[] GOALS = FitnessGoal.values();
+
+    private static volatile GoalClassifier defaultClassifier;
+
+    // Full DFA: next state = transitions[state * ALPHABET + symbol]; state 0 is the root.
+    private final int[] transitions;
+    // Per state, every phrase ending here (own and via failure links), as goal ordinals and weights.
+    private final int[][] outputGoals;
+    private final double[][] outputWeights;
+    private final int phraseCount;
+
+    private GoalClassifier(int[] transitions, int[][] outputGoals, double[][] outputWeights, int phraseCount) {
+        this.transitions = transitions;
+        this.outputGoals = outputGoals;
+        this.outputWeights = outputWeights;
+        this.phraseCount = phraseCount;
+    }
+
+    /** The classifier for {@value #TABLE_FILE} (or the built-in table), compiled on first use. */
+    public static GoalClassifier getDefault() {
+        GoalClassifier c = defaultClassifier;
+        if (c != null) {
+            return c;
+        }
+        synchronized (GoalClassifier.class) {
+            if (defaultClassifier == null) {
+                defaultClassifier = loadDefault();
+            }
+            return defaultClassifier;
+        }
+    }
+
+    private static GoalClassifier loadDefault() {
+        Path file = Paths.get(TABLE_FILE);
+        try (InputStream in = Files.exists(file)
+                ? Files.newInputStream(file)
+                : GoalClassifier.class.getClassLoader().getResourceAsStream(TABLE_FILE)) {
+            if (in != null) {
+                return compile(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error reading " + TABLE_FILE + ", using the built-in goal keywords: " + e.getMessage());
+        }
+        try {
+            return compile(new StringReader(DEFAULT_TABLE));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Can't happen reading from a string.
+        }
+    }
+
+    /** Parses and compiles a keyword table; throws IllegalArgumentException on a malformed line. */
+    public static GoalClassifier compile(Reader table) throws IOException {
+        // Trie first, as growable lists; children are indexed by symbol, -1 for none.
+        List<int[]> children = new ArrayList<>();
+        List<List<double[]>> outputs = new ArrayList<>();
+        children.add(newNode());
+        outputs.add(new ArrayList<>());
+        int phrases = 0;
+
+        BufferedReader reader = new BufferedReader(table);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+", 3);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("line " + lineNumber + ": expected 'GOAL weight phrase'");
+            }
+            FitnessGoal goal;
+            double weight;
+            try {
+                goal = FitnessGoal.valueOf(parts[0].toUpperCase());
+                weight = Double.parseDouble(parts[1]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage());
+            }
+            String phrase = parts[2].trim();
+            boolean prefix = phrase.endsWith("*");
+            int[] symbols = normalize(prefix ? phrase.substring(0, phrase.length() - 1) : phrase, prefix);
+            if (symbols.length < 2) {
+                throw new IllegalArgumentException("line " + lineNumber + ": phrase has no letters or digits");
+            }
+            int state = 0;
+            for (int symbol : symbols) {
+                int next = children.get(state)[symbol];
+                if (next < 0) {
+                    next = children.size();
+                    children.add(newNode());
+                    outputs.add(new ArrayList<>());
+                    children.get(state)[symbol] = next;
+                }
+                state = next;
+            }
+            outputs.get(state).add(new double[] {goal.ordinal(), weight});
+            phrases++;
+        }
+
+        // Breadth-first: fill in failure links, turn missing edges into DFA jumps and
+        // merge each state's outputs with those of its failure state.
+        int states = children.size();
+        int[] transitions = new int[states * ALPHABET];
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = children.get(0)[symbol];
+            transitions[symbol] = Math.max(child, 0);
+            if (child > 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            outputs.get(state).addAll(outputs.get(fail[state]));
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = children.get(state)[symbol];
+                int viaFail = transitions[fail[state] * ALPHABET + symbol];
+                if (child > 0) {
+                    fail[child] = viaFail;
+                    transitions[state * ALPHABET + symbol] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * ALPHABET + symbol] = viaFail;
+                }
+            }
+        }
+
+        int[][] outputGoals = new int[states][];
+        double[][] outputWeights = new double[states][];
+        for (int s = 0; s < states; s++) {
+            List<double[]> out = outputs.get(s);
+            outputGoals[s] = new int[out.size()];
+            outputWeights[s] = new double[out.size()];
+            for (int i = 0; i < out.size(); i++) {
+                outputGoals[s][i] = (int) out.get(i)[0];
+                outputWeights[s][i] = out.get(i)[1];
+            }
+        }
+        return new GoalClassifier(transitions, outputGoals, outputWeights, phrases);
+    }
+
+    /** The best-scoring goal for one description; GENERAL_FITNESS if nothing matches. */
+    public FitnessGoal classify(String description) {
+        double[] scores = new double[GOALS.length];
+        score(description, 1.0, scores);
+        return best(scores);
+    }
+
+    /**
+     * Classifies all of a user's goals together, newest first: each description's scores
+     * count for {@code 1 / position}, so the newest goal leads but older ones still weigh in.
+     */
+    public FitnessGoal classify(List<String> descriptions) {
+        double[] scores = new double[GOALS.length];
+        for (int i = 0; i < descriptions.size(); i++) {
+            score(descriptions.get(i), 1.0 / (i + 1), scores);
+        }
+        return best(scores);
+    }
+
+    /** Per-goal scores for the description, indexed by {@link FitnessGoal#ordinal()}. */
+    public double[] scores(String description) {
+        double[] scores = new double[GOALS.length];
+        score(description, 1.0, scores);
+        return scores;
+    }
+
+    public int getPhraseCount() { return phraseCount; }
+
+    public int getStateCount() { return outputGoals.length; }
+
+    private void score(String text, double factor, double[] scores) {
+        if (text == null) {
+            return;
+        }
+        // Normalize on the fly: the text is scanned as " word word ... " so phrases, which
+        // are stored with a leading and trailing space, only ever match whole words (and
+        // prefixes, stored with just the leading one, only the start of a word).
+        int state = transitions[SPACE];
+        boolean lastWasSpace = true;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            int symbol = i < n ? symbol(text.charAt(i)) : SPACE;
+            if (symbol == SPACE) {
+                if (lastWasSpace) {
+                    continue;
+                }
+                lastWasSpace = true;
+            } else {
+                lastWasSpace = false;
+            }
+            state = transitions[state * ALPHABET + symbol];
+            int[] goals = outputGoals[state];
+            for (int k = 0; k < goals.length; k++) {
+                scores[goals[k]] += outputWeights[state][k] * factor;
+            }
+        }
+    }
+
+    /** Highest score wins; ties go to the goal declared first in {@link FitnessGoal}. */
+    private static FitnessGoal best(double[] scores) {
+        int best = -1;
+        for (int g = 0; g < scores.length; g++) {
+            if (scores[g] > 0 && (best < 0 || scores[g] > scores[best])) {
+                best = g;
+            }
+        }
+        return best < 0 ? FitnessGoal.GENERAL_FITNESS : GOALS[best];
+    }
+
+    /**
+     * The phrase as symbols, with runs of separators collapsed and one separator at each end;
+     * a prefix gets none at the end, so it matches however the word goes on.
+     */
+    private static int[] normalize(String phrase, boolean prefix) {
+        int[] symbols = new int[phrase.length() + 2];
+        int length = 0;
+        symbols[length++] = SPACE;
+        for (int i = 0; i < phrase.length(); i++) {
+            int symbol = symbol(phrase.charAt(i));
+            if (symbol != SPACE || symbols[length - 1] != SPACE) {
+                symbols[length++] = symbol;
+            }
+        }
+        if (prefix && symbols[length - 1] == SPACE && length > 1) {
+            length--;
+        } else if (!prefix && symbols[length - 1] != SPACE) {
+            symbols[length++] = SPACE;
+        }
+        return Arrays.copyOf(symbols, length);
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= '0' && c <= '9') return 26 + (c - '0');
+        return SPACE;
+    }
+
+    private static int[] newNode() {
+        int[] node = new int[ALPHABET];
+        Arrays.fill(node, -1);
+        return node;
+    }
+}
@@ -0,0 +1,216 @@
+package models;
+
+import database.TrainingStats;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds one plan from all of a user's active goals. Each goal is classified on its own and
+ * looked up in the rule table. Its workout and diet sections, plus the shared progress
+ * section, are computed concurrently. They are then merged with conflicts resolved: opposing
+ * calorie targets (e.g. weight loss plus muscle gain) meet in the middle, protein takes the
+ * highest target, and known training conflicts get a note.
+ *
+ * <p>The whole call is bounded by a deadline. If it passes, whatever hasn't finished is reported
+ * as unavailable rather than holding up the rest. Sections that haven't started yet are cancelled
+ * and never run; one already running can't be stopped, so it finishes on its worker and its result
+ * is dropped. If a section fails, the unstarted ones are cancelled the same way and the failure is
+ * rethrown.
+ */
+public final class MultiGoalPlanner {
+    public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(2);
+
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+                Thread t = new Thread(r, "recommendation-worker");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static final String UNAVAILABLE = "(Not ready in time; try again in a moment.)";
+
+    // Notes for goal pairs whose training pulls in different directions.
+    private static final Map<EnumSet<FitnessGoal>, String> CONFLICT_NOTES = new LinkedHashMap<>();
+    static {
+        CONFLICT_NOTES.put(EnumSet.of(FitnessGoal.WEIGHT_LOSS, FitnessGoal.MUSCLE_GAIN),
+                "Losing fat while building muscle works best with strength training as the priority: lift first, "
+                        + "and keep cardio to separate days or short sessions after lifting.");
+        CONFLICT_NOTES.put(EnumSet.of(FitnessGoal.ENDURANCE, FitnessGoal.MUSCLE_GAIN),
+                "Long endurance sessions can blunt strength gains, so keep hard runs or rides and heavy leg days "
+                        + "at least a day apart.");
+        CONFLICT_NOTES.put(EnumSet.of(FitnessGoal.WEIGHT_LOSS, FitnessGoal.ENDURANCE),
+                "Keep the calorie deficit modest on long-session days so you can still fuel and recover.");
+    }
+
+    private MultiGoalPlanner() {}
+
+    /**
+     * The merged plan for the user's active goals (newest first), served from
+     * {@link RecommendationCache} when nothing it depends on has changed. A plan with a section
+     * that missed the deadline isn't cached, so asking again computes it afresh.
+     */
+    public static Recommendation recommend(User user, List<String> activeGoals, TrainingStats stats) {
+        RecommendationRules rules = RecommendationRules.current();
+        List<FitnessGoal> goals = classify(activeGoals);
+        StringBuilder variant = new StringBuilder("multi:").append(rules.getVersion());
+        for (FitnessGoal goal : goals) {
+            variant.append(':').append(RecommendationEngine.cellFor(rules, user, goal, stats));
+        }
+        return RecommendationCache.getShared().get(user, variant.toString(), stats.getVersion(),
+                () -> plan(user, activeGoals, stats, rules, WORKERS, DEFAULT_DEADLINE), MultiGoalPlanner::isComplete);
+    }
+
+    /**
+     * Computes the merged plan, running the sections on {@code executor} (pass {@code Runnable::run}
+     * to compute inline, e.g. from a job that is already parallel across users).
+     */
+    public static Recommendation plan(User user, List<String> activeGoals, TrainingStats stats,
+                                      RecommendationRules rules, Executor executor, Duration deadline) {
+        List<FitnessGoal> goals = classify(activeGoals);
+        List<RecommendationEngine> engines = new ArrayList<>(goals.size());
+        for (FitnessGoal goal : goals) {
+            engines.add(new RecommendationEngine(user, goal, stats,
+                    rules.rule(RecommendationEngine.cellFor(rules, user, goal, stats))));
+        }
+        RecommendationEngine primary = engines.get(0);
+        int[] diet = mergeDietTargets(primary, engines, user);
+        boolean calorieConflict = hasCalorieConflict(engines);
+
+        List<CompletableFuture<String>> workoutParts = new ArrayList<>();
+        for (RecommendationEngine engine : engines) {
+            workoutParts.add(CompletableFuture.supplyAsync(engine::suggestWorkoutPlan, executor));
+        }
+        CompletableFuture<String> dietPart =
+                CompletableFuture.supplyAsync(() -> primary.suggestDietPlan(diet[0], diet[1]), executor);
+        CompletableFuture<String> progressPart = CompletableFuture.supplyAsync(primary::analyzeProgress, executor);
+
+        List<CompletableFuture<String>> all = new ArrayList<>(workoutParts);
+        all.add(dietPart);
+        all.add(progressPart);
+        joinAll(all, deadline);
+
+        StringBuilder workout = new StringBuilder();
+        for (int i = 0; i < goals.size(); i++) {
+            if (goals.size() > 1) {
+                workout.append(label(goals.get(i))).append(": ");
+            }
+            workout.append(result(workoutParts.get(i)));
+            if (i < goals.size() - 1) {
+                workout.append("\n\n");
+            }
+        }
+        for (Map.Entry<EnumSet<FitnessGoal>, String> note : CONFLICT_NOTES.entrySet()) {
+            if (goals.containsAll(note.getKey())) {
+                workout.append("\n\nNote: ").append(note.getValue());
+            }
+        }
+        String dietPlan = result(dietPart);
+        if (calorieConflict) {
+            dietPlan += String.format("%n%nYour goals pull your calories in opposite directions, so this target sits "
+                    + "close to maintenance (%d kcal/day), with protein kept high to change body composition.",
+                    primary.maintenanceCalories());
+        }
+        return new Recommendation(user.getUserID(), activeGoals.isEmpty() ? null : activeGoals.get(0),
+                workout.toString(), dietPlan, result(progressPart));
+    }
+
+    /** Distinct goal categories in the order first seen (newest goal first); general fitness if none. */
+    static List<FitnessGoal> classify(List<String> activeGoals) {
+        GoalClassifier classifier = GoalClassifier.getDefault();
+        List<FitnessGoal> goals = new ArrayList<>();
+        for (String description : activeGoals) {
+            FitnessGoal goal = classifier.classify(description);
+            if (!goals.contains(goal)) {
+                goals.add(goal);
+            }
+        }
+        return goals.isEmpty() ? Collections.singletonList(FitnessGoal.GENERAL_FITNESS) : goals;
+    }
+
+    /**
+     * Calories and protein for the merged diet. The newest goal's calorie delta applies unless
+     * another goal pulls the other way, in which case the deltas are averaged. Protein uses
+     * the highest g/kg among the goals.
+     */
+    private static int[] mergeDietTargets(RecommendationEngine primary, List<RecommendationEngine> engines, User user) {
+        int delta = primary.rule().getCalorieDelta();
+        if (hasCalorieConflict(engines)) {
+            int sum = 0;
+            for (RecommendationEngine engine : engines) {
+                sum += engine.rule().getCalorieDelta();
+            }
+            delta = Math.round((float) sum / engines.size());
+        }
+        double proteinPerKg = 0;
+        for (RecommendationEngine engine : engines) {
+            proteinPerKg = Math.max(proteinPerKg, engine.rule().getProteinPerKg());
+        }
+        return new int[] {primary.maintenanceCalories() + delta, (int) (user.getWeight() * proteinPerKg)};
+    }
+
+    private static boolean hasCalorieConflict(List<RecommendationEngine> engines) {
+        boolean deficit = false;
+        boolean surplus = false;
+        for (RecommendationEngine engine : engines) {
+            deficit |= engine.rule().getCalorieDelta() < 0;
+            surplus |= engine.rule().getCalorieDelta() > 0;
+        }
+        return deficit && surplus;
+    }
+
+    /**
+     * Waits for every part until the deadline, then cancels the stragglers (or all of them if
+     * one fails). A cancelled part that hasn't started never runs; CompletableFuture can't
+     * interrupt one that has, so it runs to the end and its result is ignored.
+     */
+    private static void joinAll(List<CompletableFuture<String>> parts, Duration deadline) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0]));
+        try {
+            all.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            parts.forEach(p -> p.cancel(false));
+        } catch (InterruptedException e) {
+            parts.forEach(p -> p.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while building the recommendation.");
+        } catch (ExecutionException e) {
+            parts.forEach(p -> p.cancel(false));
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /** False if any section missed the deadline. */
+    private static boolean isComplete(Recommendation rec) {
+        return !rec.getWorkoutPlan().contains(UNAVAILABLE) && !rec.getDietPlan().contains(UNAVAILABLE)
+                && !rec.getProgressAnalysis().contains(UNAVAILABLE);
+    }
+
+    private static String result(CompletableFuture<String> part) {
+        return part.isDone() && !part.isCompletedExceptionally() ? part.join() : UNAVAILABLE;
+    }
+
+    private static String label(FitnessGoal goal) {
+        switch (goal) {
+            case WEIGHT_LOSS: return "Weight loss";
+            case MUSCLE_GAIN: return "Muscle gain";
+            case ENDURANCE: return "Endurance";
+            case FLEXIBILITY: return "Flexibility";
+            case GENERAL_FITNESS:
+            default: return "General fitness";
+        }
+    }
+}
@@ -7,6 +7,8 @@ public class Nutrition {
     private double protein;
     private double carbs;
     private double fats;
+    private String date;        // meal_date, filled in by the database
+    private String createdAt;   // server-side insert timestamp
 
     public Nutrition(int nutritionID, String foodItem, double calorieIntake, double protein, double carbs, double fats) {
         this.nutritionID = nutritionID;
@@ -24,6 +26,12 @@ public class Nutrition {
     public double getProtein() { return protein; }
     public double getCarbs() { return carbs; }
     public double getFats() { return fats; }
+    public String getDate() { return date; }
+    public String getCreatedAt() { return createdAt; }
+
+    // Set when the meal is read back from the database
+    public void setDate(String date) { this.date = date; }
+    public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
 
     // This method is just for console output confirmation, used by the GUI
     public void addMeal() {
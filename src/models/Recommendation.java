@@ -0,0 +1,36 @@
+package models;
+
+public class Recommendation {
+    private int userID;
+    private String goal;          // the goal description it was generated for; null means general fitness
+    private String workoutPlan;
+    private String dietPlan;
+    private String progressAnalysis;
+    private String generatedAt;   // set when read back from storage
+
+    public Recommendation(int userID, String goal, String workoutPlan, String dietPlan, String progressAnalysis) {
+        this.userID = userID;
+        this.goal = goal;
+        this.workoutPlan = workoutPlan;
+        this.dietPlan = dietPlan;
+        this.progressAnalysis = progressAnalysis;
+    }
+
+    // Getters
+    public int getUserID() { return userID; }
+    public String getGoal() { return goal; }
+    public String getWorkoutPlan() { return workoutPlan; }
+    public String getDietPlan() { return dietPlan; }
+    public String getProgressAnalysis() { return progressAnalysis; }
+    public String getGeneratedAt() { return generatedAt; }
+
+    // Set when the recommendation is read back from the database
+    public void setGeneratedAt(String generatedAt) { this.generatedAt = generatedAt; }
+
+    @Override
+    public String toString() {
+        return "--- WORKOUT PLAN ---\n" + workoutPlan + "\n\n"
+                + "--- DIET PLAN ---\n" + dietPlan + "\n\n"
+                + "--- PROGRESS ANALYSIS ---\n" + progressAnalysis;
+    }
+}
@@ -0,0 +1,124 @@
+package models;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Memoized recommendations, keyed by user, a hash of the profile fields the plans depend on,
+ * a variant (the rule table version and decision-table cell, which covers the resolved goal)
+ * and the user's training data version. Any profile edit, goal change, rule reload or new
+ * workout/meal/progress entry produces a new key, so stale results are never served; they just
+ * age out least-recently-used once {@code maxEntries} is reached.
+ */
+public final class RecommendationCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+    private static final RecommendationCache SHARED = new RecommendationCache(DEFAULT_MAX_ENTRIES);
+
+    private static final class Key {
+        final int userId;
+        final int profileHash;
+        final String variant;
+        final long dataVersion;
+
+        Key(int userId, int profileHash, String variant, long dataVersion) {
+            this.userId = userId;
+            this.profileHash = profileHash;
+            this.variant = variant;
+            this.dataVersion = dataVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return userId == other.userId && profileHash == other.profileHash
+                    && dataVersion == other.dataVersion && variant.equals(other.variant);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, profileHash, variant, dataVersion);
+        }
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Recommendation> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RecommendationCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Recommendation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Recommendation> eldest) {
+                if (size() > RecommendationCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static RecommendationCache getShared() {
+        return SHARED;
+    }
+
+    /** Returns the cached recommendation, or computes and caches it on a miss. */
+    public Recommendation get(User user, String variant, long dataVersion, Supplier<Recommendation> compute) {
+        return get(user, variant, dataVersion, compute, value -> true);
+    }
+
+    /** As above, but a computed value is only cached if {@code cacheable} accepts it. */
+    public Recommendation get(User user, String variant, long dataVersion, Supplier<Recommendation> compute,
+                              Predicate<Recommendation> cacheable) {
+        Key key = new Key(user.getUserID(), profileHash(user), variant, dataVersion);
+        synchronized (this) {
+            Recommendation cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        // Compute outside the lock; two threads missing together just both compute the same thing.
+        Recommendation value = compute.get();
+        if (cacheable.test(value)) {
+            synchronized (this) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized long getHitCount() { return hits; }
+    public synchronized long getMissCount() { return misses; }
+    public synchronized long getEvictionCount() { return evictions; }
+    public synchronized int size() { return entries.size(); }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format("RecommendationCache[size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d]",
+                entries.size(), maxEntries, hits, misses, lookups == 0 ? 0.0 : 100.0 * hits / lookups, evictions);
+    }
+
+    /** The profile fields the plans are computed from (credentials deliberately left out). */
+    private static int profileHash(User user) {
+        return Objects.hash(user.getName(), user.getAge(), user.getGender(), user.getHeight(), user.getWeight());
+    }
+}
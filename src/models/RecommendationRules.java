@@ -0,0 +1,371 @@
+package models;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decision table behind the workout and diet plans: each rule matches a goal, BMI band,
+ * age band, gender and training frequency ({@code *} matches anything) and gives the plan
+ * templates plus the calorie and protein parameters the diet plan is computed from.
+ *
+ * <p>Rules are read from {@value #RULES_FILE} in the working directory (falling back to the
+ * built-in table), one per line as {@code goal | bmi | age | gender | frequency | kcal delta |
+ * protein g/kg | workout template | diet template}. Templates may use {@code {calories}},
+ * {@code {maintenance}} and {@code {protein}}. When several rules match, the one with the
+ * fewest wildcards wins, then the one listed first.
+ *
+ * <p>A table is compiled into one slot per combination of inputs, so a lookup is a single
+ * array read however many rules there are. {@link #current()} notices when the file changes
+ * and swaps in the recompiled table atomically; a file that fails to parse is logged and the
+ * previous table stays in use.
+ */
+public final class RecommendationRules {
+    public static final String RULES_FILE = "recommendation-rules.txt";
+    private static final long RELOAD_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    public enum BmiBand { UNDERWEIGHT, NORMAL, OVERWEIGHT, OBESE }
+
+    public enum AgeBand { YOUNG, ADULT, MIDDLE_AGED, SENIOR }
+
+    public enum Gender { MALE, FEMALE, OTHER }
+
+    /** Workouts logged in the last 7 days: none, 1-2, 3-5, 6 or more. */
+    public enum Frequency { NONE, LOW, MODERATE, HIGH }
+
+    private static final String DEFAULT_RULES = String.join("\n",
+            "# goal          | bmi         | age    | gender | frequency | kcal | protein | workout plan | diet plan",
+            "WEIGHT_LOSS     | *           | *      | *      | *         | -400 | 1.6     "
+                    + "| For weight loss, prioritize cardiovascular exercise (running, cycling) 3-4 times a week to maximize calorie burn. Complement this with 2 days of full-body strength training to preserve muscle mass. "
+                    + "| To lose weight, aim for a consistent calorie deficit of around {calories} kcal per day. Prioritize high-protein foods (approx. {protein}g/day) and fiber to promote satiety.",
+            "WEIGHT_LOSS     | OBESE       | *      | *      | *         | -500 | 1.6     "
+                    + "| For weight loss, start with low-impact cardio that is easy on the joints (brisk walking, cycling, swimming) 4-5 times a week, building up to 45 minutes. Add 2 days of full-body strength training to preserve muscle mass. "
+                    + "| To lose weight, aim for a consistent calorie deficit of around {calories} kcal per day. Prioritize high-protein foods (approx. {protein}g/day) and fiber to promote satiety.",
+            "WEIGHT_LOSS     | UNDERWEIGHT | *      | *      | *         | 0    | 1.6     "
+                    + "| Your BMI is already below the healthy range, so focus on full-body strength training 3 times a week rather than extra cardio, and talk to a doctor before trying to lose more weight. "
+                    + "| Eat at maintenance (approx. {calories} kcal/day) rather than in a deficit, with about {protein}g of protein a day.",
+            "MUSCLE_GAIN     | *           | *      | *      | *         | 300  | 1.6     "
+                    + "| To build muscle, focus on a strength training split (e.g., Push/Pull/Legs) 4-5 times a week. Emphasize compound lifts like squats, deadlifts, and bench presses with progressive overload. "
+                    + "| For muscle gain, a slight calorie surplus is needed. Aim for {calories} kcal per day, with a high protein intake of about {protein}g to fuel muscle repair and growth.",
+            "MUSCLE_GAIN     | *           | *      | *      | NONE      | 300  | 1.6     "
+                    + "| To build muscle, start with 3 full-body strength sessions a week to learn the main lifts (squat, deadlift, bench press, row) with good form, then move to a Push/Pull/Legs split once you train consistently. "
+                    + "| For muscle gain, a slight calorie surplus is needed. Aim for {calories} kcal per day, with a high protein intake of about {protein}g to fuel muscle repair and growth.",
+            "ENDURANCE       | *           | *      | *      | *         | 0    | 1.6     "
+                    + "| To build endurance, run, cycle or swim 4-5 times a week: mostly easy, conversational-pace sessions, one interval or tempo workout, and one long session that grows by about 10% a week. Add 2 short strength sessions to stay injury-free. "
+                    + "| For endurance training, eat at maintenance (approx. {calories} kcal/day) and add carbohydrates around long sessions to fuel them. Aim for about {protein}g of protein a day to support recovery.",
+            "FLEXIBILITY     | *           | *      | *      | *         | 0    | 1.6     "
+                    + "| To improve flexibility and mobility, practice yoga or a dedicated stretching routine 4-5 times a week for 20-30 minutes, holding each stretch 30-60 seconds. Keep 2 days of light strength training through a full range of motion. "
+                    + "| For general wellness, focus on a balanced diet of whole foods at maintenance calories (approx. {calories} kcal/day). Ensure a consistent protein intake of around {protein}g/day.",
+            "GENERAL_FITNESS | *           | *      | *      | *         | 0    | 1.6     "
+                    + "| For general fitness, a balanced routine is optimal. Aim for 3 days of total-body strength training and 2 days of moderate-intensity cardio (like jogging or swimming) to improve overall health. "
+                    + "| For general wellness, focus on a balanced diet of whole foods at maintenance calories (approx. {calories} kcal/day). Ensure a consistent protein intake of around {protein}g/day.",
+            "GENERAL_FITNESS | *           | SENIOR | *      | *         | 0    | 1.2     "
+                    + "| For general fitness, aim for 150 minutes a week of moderate activity such as brisk walking, plus 2 days of strength training and some balance work (single-leg stands, tai chi) to stay steady on your feet. "
+                    + "| For general wellness, focus on a balanced diet of whole foods at maintenance calories (approx. {calories} kcal/day). Ensure a consistent protein intake of around {protein}g/day.");
+
+    private static final FitnessGoal[] GOALS = FitnessGoal.values();
+    private static final BmiBand[] BMI_BANDS = BmiBand.values();
+    private static final AgeBand[] AGE_BANDS = AgeBand.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final Frequency[] FREQUENCIES = Frequency.values();
+    private static final int CELLS = GOALS.length * BMI_BANDS.length * AGE_BANDS.length
+            * GENDERS.length * FREQUENCIES.length;
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final Object RELOAD_LOCK = new Object();
+    private static volatile RecommendationRules current;
+    private static volatile long nextReloadCheck;
+    // Guarded by RELOAD_LOCK: the modification time of the file the current table came from.
+    private static FileTime lastModified;
+
+    /** One row of the table, with its templates pre-split for rendering. */
+    public static final class Rule {
+        private final int line;
+        private final int specificity;
+        private final FitnessGoal goal;
+        private final BmiBand bmi;
+        private final AgeBand age;
+        private final Gender gender;
+        private final Frequency frequency;
+        private final int calorieDelta;
+        private final double proteinPerKg;
+        private final Template workoutPlan;
+        private final Template dietPlan;
+
+        Rule(int line, FitnessGoal goal, BmiBand bmi, AgeBand age, Gender gender, Frequency frequency,
+             int calorieDelta, double proteinPerKg, Template workoutPlan, Template dietPlan) {
+            this.line = line;
+            this.goal = goal;
+            this.bmi = bmi;
+            this.age = age;
+            this.gender = gender;
+            this.frequency = frequency;
+            this.calorieDelta = calorieDelta;
+            this.proteinPerKg = proteinPerKg;
+            this.workoutPlan = workoutPlan;
+            this.dietPlan = dietPlan;
+            this.specificity = (goal != null ? 1 : 0) + (bmi != null ? 1 : 0) + (age != null ? 1 : 0)
+                    + (gender != null ? 1 : 0) + (frequency != null ? 1 : 0);
+        }
+
+        public int getLine() { return line; }
+        public int getCalorieDelta() { return calorieDelta; }
+        public double getProteinPerKg() { return proteinPerKg; }
+
+        public String renderWorkoutPlan(int maintenance, int calories, int protein) {
+            return workoutPlan.render(maintenance, calories, protein);
+        }
+
+        public String renderDietPlan(int maintenance, int calories, int protein) {
+            return dietPlan.render(maintenance, calories, protein);
+        }
+
+        boolean matches(int g, int b, int a, int s, int f) {
+            return (goal == null || goal.ordinal() == g) && (bmi == null || bmi.ordinal() == b)
+                    && (age == null || age.ordinal() == a) && (gender == null || gender.ordinal() == s)
+                    && (frequency == null || frequency.ordinal() == f);
+        }
+    }
+
+    /** Literal text interleaved with placeholders, parsed once. */
+    static final class Template {
+        private static final String[] PLACEHOLDERS = {"{maintenance}", "{calories}", "{protein}"};
+
+        private final String[] literals;   // literals.length == slots.length + 1
+        private final int[] slots;         // index into PLACEHOLDERS
+
+        private Template(String[] literals, int[] slots) {
+            this.literals = literals;
+            this.slots = slots;
+        }
+
+        static Template parse(String text) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            int start = 0;
+            int open;
+            while ((open = text.indexOf('{', start)) >= 0) {
+                int slot = -1;
+                for (int i = 0; i < PLACEHOLDERS.length; i++) {
+                    if (text.startsWith(PLACEHOLDERS[i], open)) {
+                        slot = i;
+                    }
+                }
+                if (slot < 0) {
+                    throw new IllegalArgumentException("unknown placeholder at '" + text.substring(open) + "'");
+                }
+                literals.add(text.substring(start, open));
+                slots.add(slot);
+                start = open + PLACEHOLDERS[slot].length();
+            }
+            literals.add(text.substring(start));
+            return new Template(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        String render(int maintenance, int calories, int protein) {
+            StringBuilder sb = new StringBuilder(literals[0]);
+            for (int i = 0; i < slots.length; i++) {
+                sb.append(slots[i] == 0 ? maintenance : slots[i] == 1 ? calories : protein);
+                sb.append(literals[i + 1]);
+            }
+            return sb.toString();
+        }
+    }
+
+    private final long version;
+    private final String source;
+    private final List<Rule> rules;
+    private final Rule[] cells;
+
+    private RecommendationRules(String source, List<Rule> rules, Rule[] cells) {
+        this.version = VERSIONS.incrementAndGet();
+        this.source = source;
+        this.rules = rules;
+        this.cells = cells;
+    }
+
+    /**
+     * The table in effect. At most every couple of seconds this checks whether
+     * {@value #RULES_FILE} has changed and, if so, recompiles and swaps it in.
+     */
+    public static RecommendationRules current() {
+        RecommendationRules rules = current;
+        if (rules != null && System.nanoTime() < nextReloadCheck) {
+            return rules;
+        }
+        synchronized (RELOAD_LOCK) {
+            if (current == null || System.nanoTime() >= nextReloadCheck) {
+                reloadIfChanged();
+                nextReloadCheck = System.nanoTime() + RELOAD_CHECK_INTERVAL_NANOS;
+            }
+            return current;
+        }
+    }
+
+    /** Re-reads {@value #RULES_FILE} now. Returns false (keeping the old table) if it doesn't parse. */
+    public static boolean reload() {
+        synchronized (RELOAD_LOCK) {
+            lastModified = null;
+            return reloadIfChanged();
+        }
+    }
+
+    private static boolean reloadIfChanged() {
+        Path file = Paths.get(RULES_FILE);
+        try {
+            if (!Files.exists(file)) {
+                if (current == null || lastModified != null) {
+                    current = compile(new StringReader(DEFAULT_RULES), "built-in rules");
+                    lastModified = null;
+                }
+                return true;
+            }
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (current != null && modified.equals(lastModified)) {
+                return true;
+            }
+            try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                current = compile(in, file.toString());
+            }
+            lastModified = modified;
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error loading " + RULES_FILE + ", keeping the "
+                    + (current != null ? "previous" : "built-in") + " rules: " + e.getMessage());
+            if (current == null) {
+                try {
+                    current = compile(new StringReader(DEFAULT_RULES), "built-in rules");
+                } catch (IOException impossible) {
+                    throw new IllegalStateException(impossible);
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Parses and compiles a table. Throws IllegalArgumentException for a malformed line, or if
+     * some combination of inputs isn't matched by any rule.
+     */
+    public static RecommendationRules compile(Reader table, String source) throws IOException {
+        List<Rule> rules = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(table);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] f = trimmed.split("\\|", -1);
+            if (f.length != 9) {
+                throw new IllegalArgumentException("line " + lineNumber + ": expected 9 '|'-separated columns, found " + f.length);
+            }
+            try {
+                rules.add(new Rule(lineNumber,
+                        band(FitnessGoal.class, f[0]), band(BmiBand.class, f[1]), band(AgeBand.class, f[2]),
+                        band(Gender.class, f[3]), band(Frequency.class, f[4]),
+                        Integer.parseInt(f[5].trim()), Double.parseDouble(f[6].trim()),
+                        Template.parse(f[7].trim()), Template.parse(f[8].trim())));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+
+        // Most specific first, then file order; each slot takes the first rule that matches it.
+        List<Rule> byPriority = new ArrayList<>(rules);
+        byPriority.sort(Comparator.comparingInt((Rule r) -> -r.specificity).thenComparingInt(r -> r.line));
+        Rule[] cells = new Rule[CELLS];
+        for (int g = 0; g < GOALS.length; g++) {
+            for (int b = 0; b < BMI_BANDS.length; b++) {
+                for (int a = 0; a < AGE_BANDS.length; a++) {
+                    for (int s = 0; s < GENDERS.length; s++) {
+                        for (int f = 0; f < FREQUENCIES.length; f++) {
+                            int cell = cellIndex(g, b, a, s, f);
+                            for (Rule r : byPriority) {
+                                if (r.matches(g, b, a, s, f)) {
+                                    cells[cell] = r;
+                                    break;
+                                }
+                            }
+                            if (cells[cell] == null) {
+                                throw new IllegalArgumentException("no rule for " + GOALS[g] + " / " + BMI_BANDS[b]
+                                        + " / " + AGE_BANDS[a] + " / " + GENDERS[s] + " / " + FREQUENCIES[f]);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new RecommendationRules(source, rules, cells);
+    }
+
+    /** The slot for these inputs; pass it to {@link #rule(int)}. Also identifies the result for caching. */
+    public int cellFor(FitnessGoal goal, double bmi, int age, String gender, int workoutsLast7Days) {
+        return cellIndex(goal.ordinal(), bmiBand(bmi).ordinal(), ageBand(age).ordinal(),
+                gender(gender).ordinal(), frequency(workoutsLast7Days).ordinal());
+    }
+
+    public Rule rule(int cell) {
+        return cells[cell];
+    }
+
+    /** Changes every time a table is loaded, so it can key results derived from the rules. */
+    public long getVersion() { return version; }
+    public String getSource() { return source; }
+    public int getRuleCount() { return rules.size(); }
+
+    @Override
+    public String toString() {
+        return "RecommendationRules[" + rules.size() + " rule(s) from " + source + ", version " + version + "]";
+    }
+
+    public static BmiBand bmiBand(double bmi) {
+        if (bmi < 18.5) return BmiBand.UNDERWEIGHT;
+        if (bmi < 25) return BmiBand.NORMAL;
+        if (bmi < 30) return BmiBand.OVERWEIGHT;
+        return BmiBand.OBESE;
+    }
+
+    public static AgeBand ageBand(int age) {
+        if (age < 30) return AgeBand.YOUNG;
+        if (age < 50) return AgeBand.ADULT;
+        if (age < 65) return AgeBand.MIDDLE_AGED;
+        return AgeBand.SENIOR;
+    }
+
+    public static Gender gender(String gender) {
+        if ("male".equalsIgnoreCase(gender)) return Gender.MALE;
+        if ("female".equalsIgnoreCase(gender)) return Gender.FEMALE;
+        return Gender.OTHER;
+    }
+
+    public static Frequency frequency(int workoutsLast7Days) {
+        if (workoutsLast7Days <= 0) return Frequency.NONE;
+        if (workoutsLast7Days <= 2) return Frequency.LOW;
+        if (workoutsLast7Days <= 5) return Frequency.MODERATE;
+        return Frequency.HIGH;
+    }
+
+    private static int cellIndex(int g, int b, int a, int s, int f) {
+        return (((g * BMI_BANDS.length + b) * AGE_BANDS.length + a) * GENDERS.length + s) * FREQUENCIES.length + f;
+    }
+
+    /** Null for the {@code *} wildcard. */
+    private static <E extends Enum<E>> E band(Class<E> type, String value) {
+        String v = value.trim();
+        return "*".equals(v) ? null : Enum.valueOf(type, v.toUpperCase());
+    }
+}
@@ -8,6 +8,8 @@ public class Workout {
     private int reps;
     private double weight;      // The new field, e.g., in kg
     private double caloriesBurned;
+    private String date;        // workout_date, filled in by the database
+    private String createdAt;   // server-side insert timestamp
 
     // Updated Constructor
     public Workout(int workoutID, String type, int duration, int sets, int reps, double weight, double caloriesBurned) {
@@ -28,6 +30,12 @@ public class Workout {
     public int getReps() { return reps; }
     public double getWeight() { return weight; } // The new getter
     public double getCaloriesBurned() { return caloriesBurned; }
+    public String getDate() { return date; }
+    public String getCreatedAt() { return createdAt; }
+
+    // Set when the workout is read back from the database
+    public void setDate(String date) { this.date = date; }
+    public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
 
     // This method is just for console output confirmation, used by the GUI
     public void addWorkout() {
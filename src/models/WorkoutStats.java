@@ -0,0 +1,74 @@
+package models;
+
+import java.util.Collections;
+import java.util.List;
+
+/** Aggregated workout figures for one user, computed by the database rather than from the full history. */
+public class WorkoutStats {
+
+    /** Totals for one Monday-to-Sunday week. */
+    public static class Week {
+        private String weekStart;   // the Monday, yyyy-MM-dd
+        private int workoutCount;
+        private double caloriesBurned;
+        private int totalMinutes;
+
+        public Week(String weekStart, int workoutCount, double caloriesBurned, int totalMinutes) {
+            this.weekStart = weekStart;
+            this.workoutCount = workoutCount;
+            this.caloriesBurned = caloriesBurned;
+            this.totalMinutes = totalMinutes;
+        }
+
+        // Getters
+        public String getWeekStart() { return weekStart; }
+        public int getWorkoutCount() { return workoutCount; }
+        public double getCaloriesBurned() { return caloriesBurned; }
+        public int getTotalMinutes() { return totalMinutes; }
+    }
+
+    private int workoutCount;
+    private double totalCaloriesBurned;
+    private int totalMinutes;
+    private String firstWorkoutDate;    // null if there are no workouts
+    private String lastWorkoutDate;
+    private List<Week> weeks;
+
+    public WorkoutStats(int workoutCount, double totalCaloriesBurned, int totalMinutes,
+                        String firstWorkoutDate, String lastWorkoutDate, List<Week> weeks) {
+        this.workoutCount = workoutCount;
+        this.totalCaloriesBurned = totalCaloriesBurned;
+        this.totalMinutes = totalMinutes;
+        this.firstWorkoutDate = firstWorkoutDate;
+        this.lastWorkoutDate = lastWorkoutDate;
+        this.weeks = Collections.unmodifiableList(weeks);
+    }
+
+    public static WorkoutStats empty() {
+        return new WorkoutStats(0, 0, 0, null, null, Collections.emptyList());
+    }
+
+    // Getters
+    public int getWorkoutCount() { return workoutCount; }
+    public double getTotalCaloriesBurned() { return totalCaloriesBurned; }
+    public int getTotalMinutes() { return totalMinutes; }
+    public String getFirstWorkoutDate() { return firstWorkoutDate; }
+    public String getLastWorkoutDate() { return lastWorkoutDate; }
+
+    /** Recent weeks that have at least one workout, oldest first. */
+    public List<Week> getWeeks() { return weeks; }
+
+    public double getAverageCaloriesBurned() {
+        return workoutCount == 0 ? 0 : totalCaloriesBurned / workoutCount;
+    }
+
+    public double getAverageMinutes() {
+        return workoutCount == 0 ? 0 : (double) totalMinutes / workoutCount;
+    }
+
+    @Override
+    public String toString() {
+        return workoutCount + " workout(s), " + totalCaloriesBurned + " kcal, " + totalMinutes + " min, "
+                + weeks.size() + " active week(s)";
+    }
+}